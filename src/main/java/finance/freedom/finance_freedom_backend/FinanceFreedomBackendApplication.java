@@ -4,9 +4,11 @@ package finance.freedom.finance_freedom_backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
+@EnableScheduling
 public class FinanceFreedomBackendApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,20 @@
+package finance.freedom.finance_freedom_backend.cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// What a cached value cost to load and when its Redis copy expires, used to refresh hot entries before they lapse.
+public record CacheEnvelope(Object value, long computeMillis, long expiresAtMillis) {
+
+    public static CacheEnvelope of(Object stored) {
+        return stored instanceof CacheEnvelope envelope ? envelope : new CacheEnvelope(stored, 0, Long.MAX_VALUE);
+    }
+
+    // XFetch: expensive loads and entries close to expiry are increasingly likely to be refreshed by one early caller.
+    public boolean shouldRefreshEarly(long nowMillis, double beta) {
+        if (computeMillis <= 0 || expiresAtMillis == Long.MAX_VALUE) {
+            return false;
+        }
+        double draw = -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return nowMillis + computeMillis * beta * draw >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,62 @@
+package finance.freedom.finance_freedom_backend.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Tells the other nodes to drop their in-process copies, messages are "origin|cacheName|key" with an empty key for a clear.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+
+    public static final String CHANNEL = "cache-invalidation";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    public void register(String cacheName, Consumer<String> handler) {
+        handlers.put(cacheName, handler);
+    }
+
+    public void publish(String cacheName, String key) {
+        if (!circuitBreaker.allowRequest()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, String.join("|", nodeId, cacheName, key == null ? "" : key));
+            circuitBreaker.recordSuccess();
+        } catch (RuntimeException e) {
+            // Remote copies still expire with the local TTL, so a lost message only delays them.
+            circuitBreaker.recordFailure(e);
+            log.warn("Could not publish invalidation for cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        Consumer<String> handler = handlers.get(parts[1]);
+        if (handler != null) {
+            handler.accept(parts[2].isEmpty() ? null : parts[2]);
+        }
+    }
+}
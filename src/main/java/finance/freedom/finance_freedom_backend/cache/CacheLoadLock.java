@@ -0,0 +1,65 @@
+package finance.freedom.finance_freedom_backend.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+// Short Redis lock that lets one node per key run a cache loader while the rest wait for its result.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheLoadLock {
+
+    public static final String UNLOCKED = "unlocked";
+
+    private static final String LOCK_KEY_PREFIX = "cache-lock:";
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    // Returns null when another node holds the lock. A Redis failure returns UNLOCKED so the caller loads on its own.
+    public String tryAcquire(String cacheName, Object key, Duration ttl) {
+        if (!circuitBreaker.allowRequest()) {
+            return UNLOCKED;
+        }
+        String token = UUID.randomUUID().toString();
+        Boolean acquired;
+        try {
+            acquired = redisTemplate.opsForValue().setIfAbsent(lockKey(cacheName, key), token, ttl);
+        } catch (RuntimeException e) {
+            circuitBreaker.recordFailure(e);
+            log.warn("Could not take load lock for cache {}: {}", cacheName, e.getMessage());
+            return UNLOCKED;
+        }
+        circuitBreaker.recordSuccess();
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    public void release(String cacheName, Object key, String token) {
+        if (token == null || UNLOCKED.equals(token)) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey(cacheName, key)), token);
+        } catch (RuntimeException e) {
+            // The lock still expires with its TTL.
+            circuitBreaker.recordFailure(e);
+            log.warn("Could not release load lock for cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    private static String lockKey(String cacheName, Object key) {
+        return LOCK_KEY_PREFIX + cacheName + ":" + key;
+    }
+}
@@ -0,0 +1,75 @@
+package finance.freedom.finance_freedom_backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+// Remembers which entries a prefetch loaded, so a later hit counts as useful and expiry without a read as wasted.
+public class CachePrefetchTracker {
+
+    private static final ThreadLocal<Boolean> PREFETCHING = ThreadLocal.withInitial(() -> false);
+
+    private final Cache<String, Boolean> warmed;
+
+    private final Counter warmedEntries;
+
+    private final Counter usedEntries;
+
+    private final Counter unusedEntries;
+
+    public CachePrefetchTracker(MeterRegistry meterRegistry, Duration window, long maximumSize) {
+        this.warmedEntries = entries(meterRegistry, "warmed");
+        this.usedEntries = entries(meterRegistry, "used");
+        this.unusedEntries = entries(meterRegistry, "unused");
+        this.warmed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(window)
+                .scheduler(Scheduler.systemScheduler())
+                .<String, Boolean>removalListener((key, value, cause) -> {
+                    if (cause == RemovalCause.EXPIRED || cause == RemovalCause.SIZE) {
+                        unusedEntries.increment();
+                    }
+                })
+                .build();
+    }
+
+    private static Counter entries(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.prefetch.entries")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public void prefetch(Runnable action) {
+        PREFETCHING.set(true);
+        try {
+            action.run();
+        } finally {
+            PREFETCHING.remove();
+        }
+    }
+
+    public boolean isPrefetching() {
+        return PREFETCHING.get();
+    }
+
+    public void recordLoad(String cacheName, Object key) {
+        if (PREFETCHING.get()) {
+            warmed.put(cacheName + "|" + key, Boolean.TRUE);
+            warmedEntries.increment();
+        }
+    }
+
+    public void recordHit(String cacheName, Object key) {
+        if (PREFETCHING.get() || warmed.estimatedSize() == 0) {
+            return;
+        }
+        if (warmed.asMap().remove(cacheName + "|" + key) != null) {
+            usedEntries.increment();
+        }
+    }
+}
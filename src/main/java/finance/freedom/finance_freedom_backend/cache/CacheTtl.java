@@ -0,0 +1,22 @@
+package finance.freedom.finance_freedom_backend.cache;
+
+import java.time.Duration;
+
+// The hard TTL is how long Redis keeps an entry. Past a shorter soft TTL the entry is still served but refreshed in the background.
+public record CacheTtl(Duration soft, Duration hard) {
+
+    public static CacheTtl of(Duration hard) {
+        return new CacheTtl(hard, hard);
+    }
+
+    public static CacheTtl staleWhileRevalidate(Duration soft, Duration hard) {
+        if (soft.compareTo(hard) >= 0) {
+            throw new IllegalArgumentException("Soft TTL " + soft + " must be shorter than hard TTL " + hard);
+        }
+        return new CacheTtl(soft, hard);
+    }
+
+    public boolean staleWhileRevalidate() {
+        return soft.compareTo(hard) < 0;
+    }
+}
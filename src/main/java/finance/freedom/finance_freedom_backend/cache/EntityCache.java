@@ -0,0 +1,311 @@
+package finance.freedom.finance_freedom_backend.cache;
+
+import finance.freedom.finance_freedom_backend.util.TransactionCallbacks;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// One Redis entry per entity under name:userId:id. The owner is part of the key, so a hit never skips the ownership check.
+@Slf4j
+public class EntityCache<T> {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final int MAX_PENDING_EVICTIONS = 100_000;
+
+    // Left in place of a deleted entity, so a fill from a read that started before the delete can't cache it again.
+    private static final String TOMBSTONE = "entity-cache:deleted";
+
+    private static final Duration TOMBSTONE_TTL = Duration.ofMinutes(1);
+
+    private final String name;
+
+    private final Class<T> type;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final Duration ttl;
+
+    private final CachePrefetchTracker prefetchTracker;
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    // Serves reads and writes while Redis is unreachable, and is the only store when Redis is switched off.
+    private final com.github.benmanes.caffeine.cache.Cache<String, T> local;
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, Boolean> localTombstones;
+
+    // Deletes Redis missed while the circuit was open, replayed once it closes so Redis can't serve the old rows.
+    private final Set<String> pendingEvictions = ConcurrentHashMap.newKeySet();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    public EntityCache(String name, Class<T> type, RedisTemplate<String, Object> redisTemplate, Duration ttl, MeterRegistry meterRegistry,
+                       CachePrefetchTracker prefetchTracker, RedisCircuitBreaker circuitBreaker, Duration localTtl,
+                       long localMaximumSize) {
+        this.name = name;
+        this.type = type;
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.prefetchTracker = prefetchTracker;
+        this.circuitBreaker = circuitBreaker;
+        // With Redis in the picture other nodes' writes go unseen here, so the local copy only lives for the local TTL.
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(circuitBreaker.isEnabled() ? localTtl : ttl)
+                .build();
+        this.localTombstones = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(TOMBSTONE_TTL)
+                .build();
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+
+        circuitBreaker.onRecovery(this::recover);
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.entity.requests")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public T get(Integer userId, Integer id) {
+        return multiGet(userId, List.of(id)).get(id);
+    }
+
+    // Entities come back in the order of ids. Misses are read through the loader one chunk at a time and cached.
+    public Map<Integer, T> getAll(Integer userId, List<Integer> ids, Function<List<Integer>, Map<Integer, T>> loader) {
+        Map<Integer, T> found = multiGet(userId, ids);
+
+        if (found.size() < ids.size()) {
+            List<Integer> missing = new ArrayList<>(ids.size() - found.size());
+            for (Integer id : ids) {
+                if (!found.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+            for (int from = 0; from < missing.size(); from += CHUNK_SIZE) {
+                Map<Integer, T> loaded = loader.apply(missing.subList(from, Math.min(from + CHUNK_SIZE, missing.size())));
+                found.putAll(loaded);
+                fill(userId, loaded);
+            }
+        }
+
+        Map<Integer, T> result = new LinkedHashMap<>();
+        for (Integer id : ids) {
+            T value = found.get(id);
+            if (value != null) {
+                result.put(id, value);
+            }
+        }
+        return result;
+    }
+
+    // Fills after a read use SET NX, so a value loaded before a concurrent update can't overwrite the updated one.
+    public void fill(Integer userId, Map<Integer, T> values) {
+        write(userId, values, RedisStringCommands.SetOption.ifAbsent());
+        for (Integer id : values.keySet()) {
+            prefetchTracker.recordLoad(name, key(userId, id));
+        }
+    }
+
+    // Rows a caller read for its own use are only worth a Redis write while a prefetch is warming the cache.
+    public void warm(Integer userId, Map<Integer, T> values) {
+        if (prefetchTracker.isPrefetching()) {
+            fill(userId, values);
+        }
+    }
+
+    public void put(Integer userId, Integer id, T value) {
+        TransactionCallbacks.afterCommit(() -> write(userId, Map.of(id, value), RedisStringCommands.SetOption.upsert()));
+    }
+
+    public void evict(Integer userId, Integer id) {
+        TransactionCallbacks.afterCommit(() -> {
+            String key = key(userId, id);
+            local.invalidate(key);
+            localTombstones.put(key, Boolean.TRUE);
+            if (!tombstone(key)) {
+                deferEviction(key);
+            }
+        });
+    }
+
+    private Map<Integer, T> multiGet(Integer userId, Collection<Integer> ids) {
+        Map<Integer, T> found = new HashMap<>();
+        if (circuitBreaker.allowRequest()) {
+            List<Integer> chunk = new ArrayList<>(Math.min(ids.size(), CHUNK_SIZE));
+            try {
+                for (Integer id : ids) {
+                    chunk.add(id);
+                    if (chunk.size() == CHUNK_SIZE) {
+                        collect(userId, chunk, found);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    collect(userId, chunk, found);
+                }
+                circuitBreaker.recordSuccess();
+            } catch (RuntimeException e) {
+                // Redis being unavailable turns into local lookups, the database still answers the rest.
+                log.warn("Could not read {} entries from Redis: {}", name, e.getMessage());
+                circuitBreaker.recordFailure(e);
+                collectLocal(userId, ids, found);
+            }
+        } else {
+            collectLocal(userId, ids, found);
+        }
+
+        hits.increment(found.size());
+        misses.increment(ids.size() - found.size());
+        return found;
+    }
+
+    private void collect(Integer userId, List<Integer> ids, Map<Integer, T> found) {
+        List<String> keys = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            keys.add(key(userId, id));
+        }
+        List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return;
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            Object value = values.get(i);
+            if (!TOMBSTONE.equals(value) && type.isInstance(value)) {
+                found.put(ids.get(i), type.cast(value));
+                prefetchTracker.recordHit(name, keys.get(i));
+            }
+        }
+    }
+
+    private void collectLocal(Integer userId, Collection<Integer> ids, Map<Integer, T> found) {
+        for (Integer id : ids) {
+            if (found.containsKey(id)) {
+                continue;
+            }
+            String key = key(userId, id);
+            T value = local.getIfPresent(key);
+            if (value != null) {
+                found.put(id, value);
+                prefetchTracker.recordHit(name, key);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(Integer userId, Map<Integer, T> values, RedisStringCommands.SetOption option) {
+        if (values.isEmpty()) {
+            return;
+        }
+        if (circuitBreaker.allowRequest()) {
+            RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+            RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+            try {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (Map.Entry<Integer, T> entry : values.entrySet()) {
+                        connection.stringCommands().set(keySerializer.serialize(key(userId, entry.getKey())),
+                                valueSerializer.serialize(entry.getValue()), Expiration.from(ttl), option);
+                    }
+                    return null;
+                });
+                circuitBreaker.recordSuccess();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Could not write {} entries to Redis: {}", name, e.getMessage());
+                circuitBreaker.recordFailure(e);
+            }
+        }
+
+        for (Map.Entry<Integer, T> entry : values.entrySet()) {
+            String key = key(userId, entry.getKey());
+            if (option == RedisStringCommands.SetOption.UPSERT) {
+                // Redis still holds the value from before the update.
+                local.put(key, entry.getValue());
+                localTombstones.invalidate(key);
+                deferEviction(key);
+            } else if (localTombstones.getIfPresent(key) == null) {
+                local.asMap().putIfAbsent(key, entry.getValue());
+            }
+        }
+    }
+
+    // An upsert replaces the tombstone, a SET NX fill leaves it alone until it expires.
+    private boolean tombstone(String key) {
+        if (!circuitBreaker.allowRequest()) {
+            return false;
+        }
+        try {
+            redisTemplate.opsForValue().set(key, TOMBSTONE, TOMBSTONE_TTL);
+        } catch (RuntimeException e) {
+            log.warn("Could not evict {} entries from Redis: {}", name, e.getMessage());
+            circuitBreaker.recordFailure(e);
+            return false;
+        }
+        circuitBreaker.recordSuccess();
+        return true;
+    }
+
+    private boolean delete(Collection<String> keys) {
+        if (!circuitBreaker.allowRequest()) {
+            return false;
+        }
+        try {
+            redisTemplate.delete(keys);
+        } catch (RuntimeException e) {
+            log.warn("Could not evict {} entries from Redis: {}", name, e.getMessage());
+            circuitBreaker.recordFailure(e);
+            return false;
+        }
+        circuitBreaker.recordSuccess();
+        return true;
+    }
+
+    private void deferEviction(String key) {
+        if (!circuitBreaker.isEnabled()) {
+            return;
+        }
+        if (pendingEvictions.size() >= MAX_PENDING_EVICTIONS) {
+            log.warn("Too many {} evictions waiting for Redis, {} may be served stale after recovery", name, key);
+            return;
+        }
+        pendingEvictions.add(key);
+    }
+
+    private void recover() {
+        local.invalidateAll();
+        List<String> keys = new ArrayList<>(pendingEvictions);
+        for (int from = 0; from < keys.size(); from += CHUNK_SIZE) {
+            List<String> chunk = keys.subList(from, Math.min(from + CHUNK_SIZE, keys.size()));
+            if (delete(chunk)) {
+                chunk.forEach(pendingEvictions::remove);
+            }
+        }
+    }
+
+    private String key(Integer userId, Integer id) {
+        return name + ":" + userId + ":" + id;
+    }
+}
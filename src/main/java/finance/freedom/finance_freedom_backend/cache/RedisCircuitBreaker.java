@@ -0,0 +1,118 @@
+package finance.freedom.finance_freedom_backend.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Stops calling Redis after repeated failures so caches fall back to in-process copies instead of failing requests.
+// Once open, one call per open interval probes Redis. When a probe succeeds the registered recovery actions run.
+@Component
+@Slf4j
+public class RedisCircuitBreaker {
+
+    private final boolean enabled;
+
+    private final int failureThreshold;
+
+    private final long openMillis;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final AtomicLong retryAtMillis = new AtomicLong();
+
+    private final List<Runnable> recoveryActions = new CopyOnWriteArrayList<>();
+
+    private volatile boolean open;
+
+    public RedisCircuitBreaker(@Value("${cache.redis.enabled:true}") boolean enabled,
+                               @Value("${cache.redis.circuit.failure-threshold:5}") int failureThreshold,
+                               @Value("${cache.redis.circuit.open-duration:PT10S}") Duration openDuration,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+
+        Gauge.builder("cache.redis.circuit.open", this, breaker -> breaker.isOpen() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    // False when Redis is switched off entirely, caches then keep everything in process for the full TTL.
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isOpen() {
+        return !enabled || open;
+    }
+
+    public boolean allowRequest() {
+        if (!enabled) {
+            return false;
+        }
+        if (!open) {
+            return true;
+        }
+        long retryAt = retryAtMillis.get();
+        long now = System.currentTimeMillis();
+        return now >= retryAt && retryAtMillis.compareAndSet(retryAt, now + openMillis);
+    }
+
+    public void recordSuccess() {
+        if (!open) {
+            if (consecutiveFailures.get() != 0) {
+                consecutiveFailures.set(0);
+            }
+            return;
+        }
+        synchronized (this) {
+            if (!open) {
+                return;
+            }
+            consecutiveFailures.set(0);
+            open = false;
+        }
+        log.info("Redis is reachable again, closing the cache circuit");
+        // Off the calling thread, which may be a request or sit inside a cache computation.
+        Thread.ofVirtual().name("cache-recovery").start(this::runRecoveryActions);
+    }
+
+    private void runRecoveryActions() {
+        for (Runnable action : recoveryActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.warn("Cache recovery action failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Only data access failures say anything about Redis being reachable, other errors leave the count alone.
+    public void recordFailure(RuntimeException e) {
+        if (!(e instanceof DataAccessException)) {
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() < failureThreshold || open) {
+            return;
+        }
+        synchronized (this) {
+            if (!open) {
+                retryAtMillis.set(System.currentTimeMillis() + openMillis);
+                open = true;
+                log.warn("Redis failed {} times in a row, serving caches from process memory: {}", failureThreshold, e.getMessage());
+            }
+        }
+    }
+
+    public void onRecovery(Runnable action) {
+        recoveryActions.add(action);
+    }
+}
@@ -0,0 +1,392 @@
+package finance.freedom.finance_freedom_backend.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+// Caffeine L1 in front of the shared Redis L2. Values live in L1 as deserialized objects, so hot reads skip Redis and Jackson.
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private static final long REMOTE_POLL_MILLIS = 25;
+
+    private final String name;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, CacheEnvelope> local;
+
+    private final Cache remote;
+
+    private final CacheTtl ttl;
+
+    private final CacheInvalidationBus invalidationBus;
+
+    private final CacheLoadLock loadLock;
+
+    private final Duration lockTtl;
+
+    private final double earlyRefreshBeta;
+
+    private final Executor refreshExecutor;
+
+    private final CachePrefetchTracker prefetchTracker;
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    // Evictions Redis missed while the circuit was open, replayed once it closes so Redis can't serve them again.
+    private final Set<Object> pendingEvictions = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean pendingClear;
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter localHits;
+
+    private final Counter localMisses;
+
+    private final Counter remoteHits;
+
+    private final Counter remoteMisses;
+
+    private final Counter localCoalesced;
+
+    private final Counter clusterCoalesced;
+
+    private final Counter earlyRefreshes;
+
+    private final Counter staleServed;
+
+    private final Counter refreshRejected;
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, CacheEnvelope> local, Cache remote,
+                         CacheTtl ttl, CacheInvalidationBus invalidationBus, CacheLoadLock loadLock,
+                         MeterRegistry meterRegistry, Duration lockTtl, double earlyRefreshBeta, Executor refreshExecutor,
+                         CachePrefetchTracker prefetchTracker, RedisCircuitBreaker circuitBreaker) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.ttl = ttl;
+        this.invalidationBus = invalidationBus;
+        this.loadLock = loadLock;
+        this.lockTtl = lockTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.refreshExecutor = refreshExecutor;
+        this.prefetchTracker = prefetchTracker;
+        this.circuitBreaker = circuitBreaker;
+        this.localHits = requests(meterRegistry, "l1", "hit");
+        this.localMisses = requests(meterRegistry, "l1", "miss");
+        this.remoteHits = requests(meterRegistry, "l2", "hit");
+        this.remoteMisses = requests(meterRegistry, "l2", "miss");
+        this.localCoalesced = coalesced(meterRegistry, "local");
+        this.clusterCoalesced = coalesced(meterRegistry, "cluster");
+        this.earlyRefreshes = Counter.builder("cache.two_level.early_refresh")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.staleServed = Counter.builder("cache.two_level.stale_served")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.refreshRejected = Counter.builder("cache.two_level.refresh_rejected")
+                .tag("cache", name)
+                .register(meterRegistry);
+
+        invalidationBus.register(name, this::invalidateLocal);
+        circuitBreaker.onRecovery(this::replayEvictions);
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String level, String result) {
+        return Counter.builder("cache.two_level.requests")
+                .tag("cache", name)
+                .tag("level", level)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter coalesced(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("cache.two_level.coalesced")
+                .tag("cache", name)
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheEnvelope envelope = lookup(key);
+        return envelope == null ? null : new SimpleValueWrapper(envelope.value());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = (wrapper == null) ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(String.format("Cached value is not of required type [%s]: %s", type.getName(), value));
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheEnvelope envelope = lookup(key);
+        if (envelope == null) {
+            return (T) singleFlight(key, valueLoader, false);
+        }
+        if (isStale(envelope)) {
+            // Past the soft TTL the caller gets the stale value right away and one background refresh replaces it.
+            staleServed.increment();
+            refreshInBackground(key, valueLoader);
+            return (T) envelope.value();
+        }
+        if (!envelope.shouldRefreshEarly(System.currentTimeMillis(), earlyRefreshBeta) || inFlight.containsKey(key)) {
+            return (T) envelope.value();
+        }
+
+        earlyRefreshes.increment();
+        try {
+            Object refreshed = singleFlight(key, valueLoader, true);
+            return (T) (refreshed != null ? refreshed : envelope.value());
+        } catch (RuntimeException e) {
+            log.warn("Early refresh of cache {} failed, serving the current value: {}", name, e.getMessage());
+            return (T) envelope.value();
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        store(key, new CacheEnvelope(value, 0, System.currentTimeMillis() + ttl.hard().toMillis()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (!remoteCall(() -> remote.evict(key)) && circuitBreaker.isEnabled()) {
+            pendingEvictions.add(key);
+        }
+        local.invalidate(key);
+        invalidationBus.publish(name, String.valueOf(key));
+    }
+
+    @Override
+    public void clear() {
+        if (!remoteCall(remote::clear) && circuitBreaker.isEnabled()) {
+            pendingClear = true;
+        }
+        local.invalidateAll();
+        invalidationBus.publish(name, null);
+    }
+
+    private CacheEnvelope lookup(Object key) {
+        CacheEnvelope envelope = local.getIfPresent(key);
+        if (envelope != null) {
+            localHits.increment();
+            prefetchTracker.recordHit(name, key);
+            return envelope;
+        }
+        localMisses.increment();
+
+        envelope = remoteLookup(key);
+        if (envelope == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        prefetchTracker.recordHit(name, key);
+
+        local.put(key, envelope);
+        return envelope;
+    }
+
+    private CacheEnvelope remoteLookup(Object key) {
+        if (!circuitBreaker.allowRequest()) {
+            return null;
+        }
+        ValueWrapper wrapper;
+        try {
+            wrapper = remote.get(key);
+        } catch (RuntimeException e) {
+            log.debug("Redis read for cache {} failed: {}", name, e.getMessage());
+            circuitBreaker.recordFailure(e);
+            return null;
+        }
+        circuitBreaker.recordSuccess();
+        return (wrapper == null || wrapper.get() == null) ? null : CacheEnvelope.of(wrapper.get());
+    }
+
+    // Runs a Redis write through the circuit breaker, false when it was skipped or failed.
+    private boolean remoteCall(Runnable call) {
+        if (!circuitBreaker.allowRequest()) {
+            return false;
+        }
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            log.debug("Redis write for cache {} failed: {}", name, e.getMessage());
+            circuitBreaker.recordFailure(e);
+            return false;
+        }
+        circuitBreaker.recordSuccess();
+        return true;
+    }
+
+    private void replayEvictions() {
+        if (pendingClear) {
+            pendingClear = !remoteCall(remote::clear);
+        }
+        for (Object key : pendingEvictions) {
+            if (remoteCall(() -> remote.evict(key))) {
+                pendingEvictions.remove(key);
+            }
+        }
+    }
+
+    // Concurrent callers in this JVM share one future, other nodes are held back by the Redis load lock.
+    private Object singleFlight(Object key, Callable<?> valueLoader, boolean refresh) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            localCoalesced.increment();
+            Object shared;
+            try {
+                shared = existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            // A refresh that gave way to another node yields nothing, a caller without a value loads it itself.
+            return (shared != null || refresh) ? shared : loadOnce(key, valueLoader, false);
+        }
+
+        try {
+            Object value = loadOnce(key, valueLoader, refresh);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private boolean isStale(CacheEnvelope envelope) {
+        return ttl.staleWhileRevalidate()
+                && System.currentTimeMillis() >= envelope.expiresAtMillis() - ttl.hard().toMillis() + ttl.soft().toMillis();
+    }
+
+    private void refreshInBackground(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    // Another node may already have refreshed Redis while this L1 still held the old entry.
+                    CacheEnvelope current = remoteLookup(key);
+                    if (current != null && !isStale(current)) {
+                        local.put(key, current);
+                        mine.complete(current.value());
+                        return;
+                    }
+                    mine.complete(loadOnce(key, valueLoader, true));
+                } catch (RuntimeException e) {
+                    log.warn("Background refresh of cache {} failed: {}", name, e.getMessage());
+                    mine.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, mine);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshRejected.increment();
+            inFlight.remove(key, mine);
+            mine.complete(null);
+        }
+    }
+
+    private Object loadOnce(Object key, Callable<?> valueLoader, boolean refresh) {
+        String token = loadLock.tryAcquire(name, key, lockTtl);
+        if (token == null) {
+            if (refresh) {
+                return null;
+            }
+            clusterCoalesced.increment();
+            CacheEnvelope loadedElsewhere = awaitRemote(key);
+            if (loadedElsewhere != null) {
+                local.put(key, loadedElsewhere);
+                return loadedElsewhere.value();
+            }
+        }
+
+        try {
+            long started = System.currentTimeMillis();
+            Object value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            if (value != null) {
+                long finished = System.currentTimeMillis();
+                store(key, new CacheEnvelope(value, finished - started, finished + ttl.hard().toMillis()));
+                prefetchTracker.recordLoad(name, key);
+            }
+            return value;
+        } finally {
+            loadLock.release(name, key, token);
+        }
+    }
+
+    // Waits at most one lock lifetime, after that the holder is presumed dead and this node loads the value itself.
+    private CacheEnvelope awaitRemote(Object key) {
+        long deadline = System.currentTimeMillis() + lockTtl.toMillis();
+        while (System.currentTimeMillis() < deadline && !circuitBreaker.isOpen()) {
+            try {
+                Thread.sleep(REMOTE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            CacheEnvelope envelope = remoteLookup(key);
+            if (envelope != null) {
+                return envelope;
+            }
+        }
+        return null;
+    }
+
+    private void store(Object key, CacheEnvelope envelope) {
+        remoteCall(() -> remote.put(key, envelope));
+        local.put(key, envelope);
+    }
+
+    private void invalidateLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package finance.freedom.finance_freedom_backend.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+
+    private final Map<String, CacheTtl> ttls;
+
+    private final CacheTtl defaultTtl;
+
+    private final CacheInvalidationBus invalidationBus;
+
+    private final CacheLoadLock loadLock;
+
+    private final MeterRegistry meterRegistry;
+
+    private final long localMaximumWeight;
+
+    private final Duration localTtl;
+
+    private final Duration lockTtl;
+
+    private final double earlyRefreshBeta;
+
+    private final Executor refreshExecutor;
+
+    private final CachePrefetchTracker prefetchTracker;
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, Map<String, CacheTtl> ttls, CacheTtl defaultTtl,
+                                CacheInvalidationBus invalidationBus, CacheLoadLock loadLock, MeterRegistry meterRegistry,
+                                long localMaximumWeight, Duration localTtl, Duration lockTtl, double earlyRefreshBeta,
+                                Executor refreshExecutor, CachePrefetchTracker prefetchTracker,
+                                RedisCircuitBreaker circuitBreaker) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.ttls = ttls;
+        this.defaultTtl = defaultTtl;
+        this.invalidationBus = invalidationBus;
+        this.loadLock = loadLock;
+        this.meterRegistry = meterRegistry;
+        this.localMaximumWeight = localMaximumWeight;
+        this.localTtl = localTtl;
+        this.lockTtl = lockTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.refreshExecutor = refreshExecutor;
+        this.prefetchTracker = prefetchTracker;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    private Cache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+
+        // The local TTL bounds how long a node can serve an entry whose invalidation message it missed. Without Redis
+        // there is no other node, so the entry stays until its own hard expiry.
+        long localTtlNanos = circuitBreaker.isEnabled() ? localTtl.toNanos() : Long.MAX_VALUE;
+        com.github.benmanes.caffeine.cache.Cache<Object, CacheEnvelope> local = Caffeine.newBuilder()
+                .maximumWeight(localMaximumWeight)
+                .weigher((Object key, CacheEnvelope envelope) -> weigh(envelope.value()))
+                .expireAfter(Expiry.<Object, CacheEnvelope>writing((key, envelope) -> untilExpiry(envelope, localTtlNanos)))
+                .build();
+
+        return new TwoLevelCache(name, local, remote, ttls.getOrDefault(name, defaultTtl), invalidationBus, loadLock,
+                meterRegistry, lockTtl, earlyRefreshBeta, refreshExecutor, prefetchTracker, circuitBreaker);
+    }
+
+    private static Duration untilExpiry(CacheEnvelope envelope, long localTtlNanos) {
+        if (envelope.expiresAtMillis() == Long.MAX_VALUE) {
+            return Duration.ofNanos(localTtlNanos);
+        }
+        long remainingMillis = Math.max(0, envelope.expiresAtMillis() - System.currentTimeMillis());
+        return Duration.ofNanos(Math.min(localTtlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis)));
+    }
+
+    // Per-user maps and lists are weighed by element count so a handful of large users can't crowd out everyone else.
+    private static int weigh(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return map.size() + 1;
+        }
+        if (value instanceof Collection<?> collection) {
+            return collection.size() + 1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,43 @@
+package finance.freedom.finance_freedom_backend.cache;
+
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICacheGenerationService;
+import finance.freedom.finance_freedom_backend.model.core.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+// Keys look like userId:generation:param:param, so bumping a user's generation orphans every variant at once.
+@Component("userGenerationKeyGenerator")
+@RequiredArgsConstructor
+public class UserGenerationKeyGenerator implements KeyGenerator {
+
+    private final ICacheGenerationService cacheGenerationService;
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        User user = null;
+        for (Object param : params) {
+            if (param instanceof User candidate) {
+                user = candidate;
+                break;
+            }
+        }
+        if (user == null) {
+            throw new IllegalStateException(String.format("%s has no User parameter to key the cache on", method.getName()));
+        }
+
+        StringBuilder key = new StringBuilder()
+                .append(user.getUserId())
+                .append(':')
+                .append(cacheGenerationService.currentGeneration(user.getUserId()));
+
+        for (Object param : params) {
+            if (param != user) {
+                key.append(':').append(param instanceof Enum<?> value ? value.name() : String.valueOf(param));
+            }
+        }
+        return key.toString();
+    }
+}
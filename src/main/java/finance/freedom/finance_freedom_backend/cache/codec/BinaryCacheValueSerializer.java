@@ -0,0 +1,252 @@
+package finance.freedom.finance_freedom_backend.cache.codec;
+
+import finance.freedom.finance_freedom_backend.cache.CacheEnvelope;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Entries start with a magic byte and a flags byte, the optional load cost and expiry of a CacheEnvelope, then shape,
+// codec type id, codec version and the elements. Values without a codec, and entries written before this format existed,
+// go through the JSON fallback.
+@Slf4j
+public class BinaryCacheValueSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB1;
+
+    private static final int FLAG_LZ4 = 1;
+
+    private static final int FLAG_ENVELOPE = 2;
+
+    private static final int FLAG_JSON = 4;
+
+    private static final int SHAPE_SINGLE = 0;
+
+    private static final int SHAPE_MAP = 1;
+
+    private static final int SHAPE_LIST = 2;
+
+    private static final int EMPTY_TYPE_ID = 0;
+
+    private static final int MAX_DECOMPRESSED_BYTES = 64 * 1024 * 1024;
+
+    private final Map<Class<?>, CacheValueCodec<?>> codecsByType = new HashMap<>();
+
+    private final Map<Integer, CacheValueCodec<?>> codecsById = new HashMap<>();
+
+    private final RedisSerializer<Object> fallback;
+
+    private final int compressionThreshold;
+
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+
+    private final LZ4SafeDecompressor decompressor = LZ4Factory.fastestInstance().safeDecompressor();
+
+    public BinaryCacheValueSerializer(Collection<CacheValueCodec<?>> codecs, RedisSerializer<Object> fallback, int compressionThreshold) {
+        for (CacheValueCodec<?> codec : codecs) {
+            if (codec.typeId() <= EMPTY_TYPE_ID) {
+                throw new IllegalArgumentException(String.format("Cache codec %s needs a positive type id", codec.type().getName()));
+            }
+            CacheValueCodec<?> previous = codecsById.putIfAbsent(codec.typeId(), codec);
+            if (previous != null) {
+                throw new IllegalArgumentException(String.format("Cache codecs %s and %s share type id %d",
+                        previous.type().getName(), codec.type().getName(), codec.typeId()));
+            }
+            codecsByType.put(codec.type(), codec);
+        }
+        this.fallback = fallback;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        CacheEnvelope envelope = value instanceof CacheEnvelope wrapped ? wrapped : null;
+        Object payload = envelope == null ? value : envelope.value();
+
+        int flags = 0;
+        byte[] body = payload == null ? null : encode(payload);
+        if (body == null) {
+            if (envelope == null) {
+                return fallback.serialize(value);
+            }
+            body = fallback.serialize(payload);
+            flags |= FLAG_JSON;
+        }
+
+        int length = body.length;
+        if (length >= compressionThreshold) {
+            byte[] compressed = compressor.compress(body);
+            if (compressed.length < length) {
+                body = compressed;
+                flags |= FLAG_LZ4;
+            }
+        }
+
+        CacheValueOutput out = new CacheValueOutput(body.length + 24);
+        out.writeByte(MAGIC);
+        out.writeByte(envelope == null ? flags : flags | FLAG_ENVELOPE);
+        if (envelope != null) {
+            out.writeVarLong(envelope.computeMillis());
+            out.writeVarLong(envelope.expiresAtMillis());
+        }
+        if ((flags & FLAG_LZ4) != 0) {
+            out.writeVarInt(length);
+        }
+        out.writeBytes(body);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+
+        try {
+            CacheValueInput in = new CacheValueInput(bytes, 1, bytes.length - 1);
+            int flags = in.readByte();
+            long computeMillis = 0;
+            long expiresAtMillis = 0;
+            if ((flags & FLAG_ENVELOPE) != 0) {
+                computeMillis = in.readVarLong();
+                expiresAtMillis = in.readVarLong();
+            }
+
+            if ((flags & FLAG_LZ4) != 0) {
+                int length = in.readVarInt();
+                if (length < 0 || length > MAX_DECOMPRESSED_BYTES) {
+                    throw new IllegalArgumentException(String.format("Cache value claims %d decompressed bytes", length));
+                }
+                byte[] body = decompressor.decompress(bytes, in.position(), in.remaining(), length);
+                if (body.length != length) {
+                    throw new IllegalArgumentException("Cache value decompressed to an unexpected length");
+                }
+                in = new CacheValueInput(body, 0, body.length);
+            }
+
+            Object payload = (flags & FLAG_JSON) != 0 ? fallback.deserialize(in.readBytes(in.remaining())) : decode(in);
+            if (payload == null || (flags & FLAG_ENVELOPE) == 0) {
+                return payload;
+            }
+            return new CacheEnvelope(payload, computeMillis, expiresAtMillis);
+        } catch (RuntimeException e) {
+            // An unreadable entry is treated as a miss, the caller reloads it and overwrites the key.
+            log.warn("Discarding unreadable cache value: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] encode(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            if (map.isEmpty()) {
+                return header(SHAPE_MAP, EMPTY_TYPE_ID, 0, 0).toByteArray();
+            }
+            CacheValueCodec<?> codec = commonCodec(map.values());
+            if (codec == null || !map.keySet().stream().allMatch(Integer.class::isInstance)) {
+                return null;
+            }
+            CacheValueOutput out = header(SHAPE_MAP, codec.typeId(), codec.version(), map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                out.writeVarInt((Integer) entry.getKey());
+                write(codec, out, entry.getValue());
+            }
+            return out.toByteArray();
+        }
+
+        if (value instanceof List<?> list) {
+            if (list.isEmpty()) {
+                return header(SHAPE_LIST, EMPTY_TYPE_ID, 0, 0).toByteArray();
+            }
+            CacheValueCodec<?> codec = commonCodec(list);
+            if (codec == null) {
+                return null;
+            }
+            CacheValueOutput out = header(SHAPE_LIST, codec.typeId(), codec.version(), list.size());
+            for (Object element : list) {
+                write(codec, out, element);
+            }
+            return out.toByteArray();
+        }
+
+        CacheValueCodec<?> codec = codecsByType.get(value.getClass());
+        if (codec == null) {
+            return null;
+        }
+        CacheValueOutput out = header(SHAPE_SINGLE, codec.typeId(), codec.version(), 1);
+        write(codec, out, value);
+        return out.toByteArray();
+    }
+
+    private Object decode(CacheValueInput in) {
+        int shape = in.readByte();
+        int typeId = in.readVarInt();
+        int version = in.readVarInt();
+        int count = in.readVarInt();
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException(String.format("Cache value claims %d elements", count));
+        }
+
+        CacheValueCodec<?> codec = codecsById.get(typeId);
+        if (typeId != EMPTY_TYPE_ID && (codec == null || codec.version() != version)) {
+            log.debug("Ignoring cache value written for codec {} version {}", typeId, version);
+            return null;
+        }
+
+        return switch (shape) {
+            case SHAPE_SINGLE -> codec.read(in);
+            case SHAPE_MAP -> {
+                Map<Integer, Object> map = new LinkedHashMap<>(Math.max(16, count * 4 / 3 + 1));
+                for (int i = 0; i < count; i++) {
+                    map.put(in.readVarInt(), codec.read(in));
+                }
+                yield map;
+            }
+            case SHAPE_LIST -> {
+                List<Object> list = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    list.add(codec.read(in));
+                }
+                yield list;
+            }
+            default -> throw new IllegalArgumentException(String.format("Unknown cache value shape %d", shape));
+        };
+    }
+
+    private CacheValueOutput header(int shape, int typeId, int version, int count) {
+        CacheValueOutput out = new CacheValueOutput(16 + count * 48);
+        out.writeByte(shape);
+        out.writeVarInt(typeId);
+        out.writeVarInt(version);
+        out.writeVarInt(count);
+        return out;
+    }
+
+    // Every element has to share one codec, mixed or unknown element types fall back to JSON.
+    private CacheValueCodec<?> commonCodec(Collection<?> values) {
+        Class<?> type = null;
+        for (Object element : values) {
+            if (element == null || (type != null && element.getClass() != type)) {
+                return null;
+            }
+            type = element.getClass();
+        }
+        return codecsByType.get(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void write(CacheValueCodec<T> codec, CacheValueOutput out, Object value) {
+        codec.write(out, (T) value);
+    }
+}
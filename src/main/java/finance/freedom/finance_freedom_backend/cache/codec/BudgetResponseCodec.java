@@ -0,0 +1,46 @@
+package finance.freedom.finance_freedom_backend.cache.codec;
+
+import finance.freedom.finance_freedom_backend.dto.budget.BudgetResponseDTO;
+import finance.freedom.finance_freedom_backend.enums.CategoryType;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BudgetResponseCodec implements CacheValueCodec<BudgetResponseDTO> {
+
+    @Override
+    public int typeId() {
+        return 3;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public Class<BudgetResponseDTO> type() {
+        return BudgetResponseDTO.class;
+    }
+
+    @Override
+    public void write(CacheValueOutput out, BudgetResponseDTO value) {
+        out.writeInteger(value.getBudgetId());
+        out.writeEnum(value.getCategory());
+        out.writeDecimal(value.getBudgetAmount());
+        out.writeDateTime(value.getStartDate());
+        out.writeDateTime(value.getEndDate());
+        out.writeDecimal(value.getNotifyThresholdPercentage());
+    }
+
+    @Override
+    public BudgetResponseDTO read(CacheValueInput in) {
+        return new BudgetResponseDTO(
+                in.readInteger(),
+                in.readEnum(CategoryType.class),
+                in.readDecimal(),
+                in.readDateTime(),
+                in.readDateTime(),
+                in.readDecimal()
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package finance.freedom.finance_freedom_backend.cache.codec;
+
+import finance.freedom.finance_freedom_backend.dto.budget.BudgetStatusDTO;
+import finance.freedom.finance_freedom_backend.enums.CategoryType;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BudgetStatusCodec implements CacheValueCodec<BudgetStatusDTO> {
+
+    @Override
+    public int typeId() {
+        return 4;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public Class<BudgetStatusDTO> type() {
+        return BudgetStatusDTO.class;
+    }
+
+    @Override
+    public void write(CacheValueOutput out, BudgetStatusDTO value) {
+        out.writeInteger(value.getBudgetId());
+        out.writeEnum(value.getCategory());
+        out.writeDecimal(value.getBudgetAmount());
+        out.writeDateTime(value.getStartDate());
+        out.writeDateTime(value.getEndDate());
+        out.writeDecimal(value.getSpent());
+        out.writeDecimal(value.getRemaining());
+        out.writeDecimal(value.getPercentUsed());
+        out.writeBoolean(value.isThresholdCrossed());
+    }
+
+    @Override
+    public BudgetStatusDTO read(CacheValueInput in) {
+        return new BudgetStatusDTO(
+                in.readInteger(),
+                in.readEnum(CategoryType.class),
+                in.readDecimal(),
+                in.readDateTime(),
+                in.readDateTime(),
+                in.readDecimal(),
+                in.readDecimal(),
+                in.readDecimal(),
+                in.readBoolean()
+        );
+    }
+}
@@ -0,0 +1,16 @@
+package finance.freedom.finance_freedom_backend.cache.codec;
+
+public interface CacheValueCodec<T> {
+
+    // Stored in every entry, so an id must never be handed to another type.
+    int typeId();
+
+    // Bump on any layout change, entries written under another version are read back as misses.
+    int version();
+
+    Class<T> type();
+
+    void write(CacheValueOutput out, T value);
+
+    T read(CacheValueInput in);
+}
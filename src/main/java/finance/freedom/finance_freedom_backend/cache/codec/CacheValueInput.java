@@ -0,0 +1,116 @@
+package finance.freedom.finance_freedom_backend.cache.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CacheValueInput {
+
+    private final List<String> enumNames = new ArrayList<>();
+
+    private final byte[] buffer;
+
+    private final int limit;
+
+    private int position;
+
+    public CacheValueInput(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int readByte() {
+        if (position >= limit) {
+            throw new IllegalArgumentException("Cache value ended unexpectedly");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    public byte[] readBytes(int length) {
+        if (length < 0 || length > remaining()) {
+            throw new IllegalArgumentException(String.format("Cache value has no room for %d bytes", length));
+        }
+        byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+        position += length;
+        return bytes;
+    }
+
+    public long readVarLong() {
+        long zigZag = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift >= 64) {
+                throw new IllegalArgumentException("Malformed varint in cache value");
+            }
+            b = readByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    public int readVarInt() {
+        return Math.toIntExact(readVarLong());
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public Integer readInteger() {
+        return readBoolean() ? readVarInt() : null;
+    }
+
+    public String readString() {
+        int length = readVarInt();
+        return length == 0 ? null : new String(readBytes(length - 1), StandardCharsets.UTF_8);
+    }
+
+    public BigDecimal readDecimal() {
+        return switch (readByte()) {
+            case 0 -> null;
+            case 1 -> BigDecimal.valueOf(readVarLong(), readVarInt());
+            case 2 -> new BigDecimal(new BigInteger(readBytes(readVarInt())), readVarInt());
+            default -> throw new IllegalArgumentException("Unknown decimal encoding in cache value");
+        };
+    }
+
+    public LocalDateTime readDateTime() {
+        return readBoolean() ? LocalDateTime.ofEpochSecond(readVarLong(), readVarInt(), ZoneOffset.UTC) : null;
+    }
+
+    public LocalDate readDate() {
+        return readBoolean() ? LocalDate.ofEpochDay(readVarLong()) : null;
+    }
+
+    public <E extends Enum<E>> E readEnum(Class<E> type) {
+        int ref = readVarInt();
+        if (ref == 0) {
+            return null;
+        }
+        String name;
+        if (ref == 1) {
+            name = readString();
+            enumNames.add(name);
+        } else {
+            name = enumNames.get(ref - 2);
+        }
+        return Enum.valueOf(type, name);
+    }
+
+    public int remaining() {
+        return limit - position;
+    }
+
+    public int position() {
+        return position;
+    }
+}
@@ -0,0 +1,129 @@
+package finance.freedom.finance_freedom_backend.cache.codec;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Integers are zig-zag varints and enum names are written once per entry, later occurrences refer back to them.
+public class CacheValueOutput {
+
+    private final Map<Enum<?>, Integer> enumRefs = new HashMap<>();
+
+    private byte[] buffer;
+
+    private int size;
+
+    public CacheValueOutput(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    public void writeVarLong(long value) {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        writeByte((int) zigZag);
+    }
+
+    public void writeVarInt(int value) {
+        writeVarLong(value);
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeInteger(Integer value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarInt(value);
+        }
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        writeBytes(bytes);
+    }
+
+    public void writeDecimal(BigDecimal value) {
+        if (value == null) {
+            writeByte(0);
+        } else if (value.unscaledValue().bitLength() < 64) {
+            writeByte(1);
+            writeVarLong(value.unscaledValue().longValue());
+            writeVarInt(value.scale());
+        } else {
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            writeByte(2);
+            writeVarInt(unscaled.length);
+            writeBytes(unscaled);
+            writeVarInt(value.scale());
+        }
+    }
+
+    public void writeDateTime(LocalDateTime value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(value.toEpochSecond(ZoneOffset.UTC));
+            writeVarInt(value.getNano());
+        }
+    }
+
+    public void writeDate(LocalDate value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(value.toEpochDay());
+        }
+    }
+
+    public void writeEnum(Enum<?> value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        Integer ref = enumRefs.get(value);
+        if (ref != null) {
+            writeVarInt(ref + 2);
+            return;
+        }
+        enumRefs.put(value, enumRefs.size());
+        writeVarInt(1);
+        writeString(value.name());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package finance.freedom.finance_freedom_backend.cache.codec;
+
+import finance.freedom.finance_freedom_backend.dto.savinggoal.SavingGoalResponseDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SavingGoalResponseCodec implements CacheValueCodec<SavingGoalResponseDTO> {
+
+    @Override
+    public int typeId() {
+        return 5;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public Class<SavingGoalResponseDTO> type() {
+        return SavingGoalResponseDTO.class;
+    }
+
+    @Override
+    public void write(CacheValueOutput out, SavingGoalResponseDTO value) {
+        out.writeInteger(value.getGoalId());
+        out.writeString(value.getGoalName());
+        out.writeDecimal(value.getTargetAmount());
+        out.writeDecimal(value.getCurrentAmount());
+        out.writeDateTime(value.getTargetDate());
+        out.writeBoolean(value.isCompleted());
+        out.writeDateTime(value.getCompletionDate());
+    }
+
+    @Override
+    public SavingGoalResponseDTO read(CacheValueInput in) {
+        SavingGoalResponseDTO value = new SavingGoalResponseDTO();
+        value.setGoalId(in.readInteger());
+        value.setGoalName(in.readString());
+        value.setTargetAmount(in.readDecimal());
+        value.setCurrentAmount(in.readDecimal());
+        value.setTargetDate(in.readDateTime());
+        value.setCompleted(in.readBoolean());
+        value.setCompletionDate(in.readDateTime());
+        return value;
+    }
+}
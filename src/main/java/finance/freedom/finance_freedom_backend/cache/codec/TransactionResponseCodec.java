@@ -0,0 +1,52 @@
+package finance.freedom.finance_freedom_backend.cache.codec;
+
+import finance.freedom.finance_freedom_backend.dto.transaction.TransactionResponseDTO;
+import finance.freedom.finance_freedom_backend.enums.CategoryType;
+import finance.freedom.finance_freedom_backend.enums.RecurrenceInterval;
+import finance.freedom.finance_freedom_backend.enums.TransactionType;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TransactionResponseCodec implements CacheValueCodec<TransactionResponseDTO> {
+
+    @Override
+    public int typeId() {
+        return 1;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public Class<TransactionResponseDTO> type() {
+        return TransactionResponseDTO.class;
+    }
+
+    @Override
+    public void write(CacheValueOutput out, TransactionResponseDTO value) {
+        out.writeInteger(value.getTransactionId());
+        out.writeDecimal(value.getAmount());
+        out.writeEnum(value.getCategory());
+        out.writeString(value.getDescription());
+        out.writeEnum(value.getTransactionType());
+        out.writeDateTime(value.getTransactionDate());
+        out.writeBoolean(value.isRecurring());
+        out.writeEnum(value.getRecurrenceInterval());
+    }
+
+    @Override
+    public TransactionResponseDTO read(CacheValueInput in) {
+        return new TransactionResponseDTO(
+                in.readInteger(),
+                in.readDecimal(),
+                in.readEnum(CategoryType.class),
+                in.readString(),
+                in.readEnum(TransactionType.class),
+                in.readDateTime(),
+                in.readBoolean(),
+                in.readEnum(RecurrenceInterval.class)
+        );
+    }
+}
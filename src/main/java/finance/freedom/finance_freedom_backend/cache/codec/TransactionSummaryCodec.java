@@ -0,0 +1,45 @@
+package finance.freedom.finance_freedom_backend.cache.codec;
+
+import finance.freedom.finance_freedom_backend.dto.transaction.TransactionSummaryDTO;
+import finance.freedom.finance_freedom_backend.enums.CategoryType;
+import finance.freedom.finance_freedom_backend.enums.TransactionType;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TransactionSummaryCodec implements CacheValueCodec<TransactionSummaryDTO> {
+
+    @Override
+    public int typeId() {
+        return 2;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public Class<TransactionSummaryDTO> type() {
+        return TransactionSummaryDTO.class;
+    }
+
+    @Override
+    public void write(CacheValueOutput out, TransactionSummaryDTO value) {
+        out.writeEnum(value.getTransactionType());
+        out.writeEnum(value.getCategory());
+        out.writeDate(value.getPeriod());
+        out.writeDecimal(value.getTotal());
+        out.writeVarLong(value.getCount());
+    }
+
+    @Override
+    public TransactionSummaryDTO read(CacheValueInput in) {
+        return new TransactionSummaryDTO(
+                in.readEnum(TransactionType.class),
+                in.readEnum(CategoryType.class),
+                in.readDate(),
+                in.readDecimal(),
+                in.readVarLong()
+        );
+    }
+}
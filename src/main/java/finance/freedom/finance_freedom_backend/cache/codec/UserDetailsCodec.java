@@ -0,0 +1,34 @@
+package finance.freedom.finance_freedom_backend.cache.codec;
+
+import finance.freedom.finance_freedom_backend.dto.user.UserDetailsRequestDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserDetailsCodec implements CacheValueCodec<UserDetailsRequestDTO> {
+
+    @Override
+    public int typeId() {
+        return 6;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public Class<UserDetailsRequestDTO> type() {
+        return UserDetailsRequestDTO.class;
+    }
+
+    @Override
+    public void write(CacheValueOutput out, UserDetailsRequestDTO value) {
+        out.writeString(value.getFullName());
+        out.writeString(value.getEmail());
+    }
+
+    @Override
+    public UserDetailsRequestDTO read(CacheValueInput in) {
+        return new UserDetailsRequestDTO(in.readString(), in.readString());
+    }
+}
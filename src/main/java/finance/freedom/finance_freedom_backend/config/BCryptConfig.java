@@ -1,14 +1,37 @@
 package finance.freedom.finance_freedom_backend.config;
 
+import finance.freedom.finance_freedom_backend.security.ExecutorPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
 
 @Configuration
 public class BCryptConfig {
 
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public ThreadPoolTaskExecutor passwordHashExecutor(@Value("${security.password.hash-threads:0}") int threads,
+                                                       @Value("${security.password.hash-queue-capacity:50}") int queueCapacity) {
+        // 0 sizes the pool to the CPUs, hashing is pure CPU work so more threads only add contention.
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        return executor;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(ThreadPoolTaskExecutor passwordHashExecutor,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${security.password.bcrypt-cost:12}") int cost,
+                                           @Value("${security.password.hash-timeout:PT5S}") Duration timeout) {
+        return new ExecutorPasswordEncoder(new BCryptPasswordEncoder(cost), passwordHashExecutor, timeout, meterRegistry);
     }
 }
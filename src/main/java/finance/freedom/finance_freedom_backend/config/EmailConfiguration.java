@@ -2,10 +2,12 @@ package finance.freedom.finance_freedom_backend.config;
 
 import finance.freedom.finance_freedom_backend.interfaces.aws.IAwsSecretsService;
 import finance.freedom.finance_freedom_backend.model.aws.JavaMailSenderDetails;
+import finance.freedom.finance_freedom_backend.model.aws.SecretRotatedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
@@ -17,17 +19,13 @@ import java.util.Properties;
 public class EmailConfiguration {
     private final IAwsSecretsService awsSecretsService;
 
+    private JavaMailSenderImpl mailSender;
+
     @Bean
     public JavaMailSender javaMailSender(){
-        JavaMailSenderDetails javaMailSenderInfo = awsSecretsService.getJavaMailSenderInfo();
-
+        mailSender = new JavaMailSenderImpl();
 
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-
-        mailSender.setHost(javaMailSenderInfo.getSmtpHost());
-        mailSender.setPort(javaMailSenderInfo.getSmtpPort());
-        mailSender.setUsername(javaMailSenderInfo.getSmtpUsername());
-        mailSender.setPassword(javaMailSenderInfo.getSmtpPassword());
+        applyCredentials(awsSecretsService.getJavaMailSenderInfo());
 
 
         Properties props = mailSender.getJavaMailProperties();
@@ -39,4 +37,21 @@ public class EmailConfiguration {
 
         return mailSender;
     }
+
+    @EventListener(condition = "#event.secretType() == T(finance.freedom.finance_freedom_backend.enums.SecretType).MAIL")
+    public void refreshCredentials(SecretRotatedEvent event) {
+        if (mailSender == null) {
+            return;
+        }
+        log.info("Mail credentials rotated, updating mail sender");
+        applyCredentials(awsSecretsService.getJavaMailSenderInfo());
+    }
+
+    // JavaMailSenderImpl opens a new transport per send, so the next mail picks up the new settings.
+    private void applyCredentials(JavaMailSenderDetails javaMailSenderInfo) {
+        mailSender.setHost(javaMailSenderInfo.getSmtpHost());
+        mailSender.setPort(javaMailSenderInfo.getSmtpPort());
+        mailSender.setUsername(javaMailSenderInfo.getSmtpUsername());
+        mailSender.setPassword(javaMailSenderInfo.getSmtpPassword());
+    }
 }
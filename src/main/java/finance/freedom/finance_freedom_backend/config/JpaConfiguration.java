@@ -1,17 +1,29 @@
 package finance.freedom.finance_freedom_backend.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import com.zaxxer.hikari.util.DriverDataSource;
 import finance.freedom.finance_freedom_backend.interfaces.aws.IAwsSecretsService;
 import finance.freedom.finance_freedom_backend.model.aws.AwsCredentialsRDS;
+import finance.freedom.finance_freedom_backend.model.aws.SecretRotatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Objects;
 
 @Configuration
 @RequiredArgsConstructor
@@ -19,27 +31,47 @@ import java.sql.SQLException;
 public class JpaConfiguration {
     private final IAwsSecretsService awsSecretsService;
 
+    private HikariDataSource dataSource;
+
+    private RetirableDataSource connections;
+
+    @Value("${database.credential-refresh.batch-size:2}")
+    private int retireBatchSize;
+
+    // Connections opened before this generation still use the old credentials.
+    private volatile Long retireBefore;
+
+    private volatile Instant retireUntil;
+
     @Bean
-    public DataSource dataSource(){
-        
-        AwsCredentialsRDS credentialsRDS = awsSecretsService.getRdsConnection();
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariConfig hikariConfig() {
+        return new HikariConfig();
+    }
 
+    @Bean
+    public DataSource dataSource(HikariConfig hikariConfig, ObjectProvider<MeterRegistry> meterRegistry){
 
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+        AwsCredentialsRDS credentialsRDS = awsSecretsService.getRdsConnection();
 
         String jdbcUrl = String.format("jdbc:postgresql://%s:%s/%s",
                 credentialsRDS.getHost(), credentialsRDS.getPort(), credentialsRDS.getDbname());
 
         String jdbcDriver = "org.postgresql.Driver";
 
+        // Hikari still passes its current credentials on every connect, the wrapper only tracks what it opens.
+        connections = new RetirableDataSource(new DriverDataSource(jdbcUrl, jdbcDriver, hikariConfig.getDataSourceProperties(),
+                credentialsRDS.getUsername(), credentialsRDS.getPassword()));
+        hikariConfig.setDataSource(connections);
+        hikariConfig.setUsername(credentialsRDS.getUsername());
+        hikariConfig.setPassword(credentialsRDS.getPassword());
+
+        meterRegistry.ifAvailable(registry -> hikariConfig.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
 
-        dataSource.setDriverClassName(jdbcDriver);
-        dataSource.setUsername(credentialsRDS.getUsername());
-        dataSource.setPassword(credentialsRDS.getPassword());
-        dataSource.setUrl(jdbcUrl);
+        dataSource = new HikariDataSource(hikariConfig);
 
         try(Connection con = dataSource.getConnection()){
-            log.info("Connected to database");
+            log.info("Connected to database with pool {}", dataSource.getPoolName());
         }catch(SQLException e){
             log.error(e.getMessage());
         }
@@ -47,4 +79,46 @@ public class JpaConfiguration {
         return dataSource;
 
     }
+
+    @EventListener(condition = "#event.secretType() == T(finance.freedom.finance_freedom_backend.enums.SecretType).RDS")
+    public void refreshCredentials(SecretRotatedEvent event) {
+        if (dataSource == null || dataSource.isClosed()) {
+            return;
+        }
+
+        AwsCredentialsRDS credentialsRDS = awsSecretsService.getRdsConnection();
+
+        if (Objects.equals(credentialsRDS.getUsername(), dataSource.getUsername())
+                && Objects.equals(credentialsRDS.getPassword(), dataSource.getPassword())) {
+            return;
+        }
+
+        log.info("Database credentials rotated, refreshing connections in pool {}", dataSource.getPoolName());
+
+        dataSource.getHikariConfigMXBean().setUsername(credentialsRDS.getUsername());
+        dataSource.getHikariConfigMXBean().setPassword(credentialsRDS.getPassword());
+
+        // Evicting the whole pool at once would make every request wait on a new connection, so old ones are retired a few per tick.
+        // By then maxLifetime has replaced every connection anyway.
+        retireUntil = Instant.now().plusMillis(dataSource.getMaxLifetime());
+        retireBefore = connections.nextGeneration();
+    }
+
+    // Retired connections are replaced when they are next borrowed, so nothing is checked out or queried here.
+    @Scheduled(fixedDelayString = "${database.credential-refresh.interval:PT2S}")
+    public void retireStaleConnections() {
+        Long generation = retireBefore;
+        if (generation == null) {
+            return;
+        }
+        if (dataSource.isClosed() || Instant.now().isAfter(retireUntil)) {
+            retireBefore = null;
+            return;
+        }
+
+        if (connections.retire(generation, retireBatchSize) == 0) {
+            log.info("All connections in pool {} use the rotated credentials", dataSource.getPoolName());
+            retireBefore = null;
+        }
+    }
 }
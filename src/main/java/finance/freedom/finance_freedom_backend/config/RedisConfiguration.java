@@ -3,18 +3,52 @@ package finance.freedom.finance_freedom_backend.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import finance.freedom.finance_freedom_backend.cache.CacheInvalidationBus;
+import finance.freedom.finance_freedom_backend.cache.CacheLoadLock;
+import finance.freedom.finance_freedom_backend.cache.CachePrefetchTracker;
+import finance.freedom.finance_freedom_backend.cache.CacheTtl;
+import finance.freedom.finance_freedom_backend.cache.EntityCache;
+import finance.freedom.finance_freedom_backend.cache.RedisCircuitBreaker;
+import finance.freedom.finance_freedom_backend.cache.TwoLevelCacheManager;
+import finance.freedom.finance_freedom_backend.cache.codec.BinaryCacheValueSerializer;
+import finance.freedom.finance_freedom_backend.cache.codec.CacheValueCodec;
+import finance.freedom.finance_freedom_backend.dto.budget.BudgetResponseDTO;
+import finance.freedom.finance_freedom_backend.dto.savinggoal.SavingGoalResponseDTO;
+import finance.freedom.finance_freedom_backend.dto.transaction.TransactionResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class RedisConfiguration {
 
+    private static final CacheTtl DEFAULT_CACHE_TTL = CacheTtl.of(Duration.ofMinutes(30));
+
+    // Dashboard reads serve stale values after the soft TTL rather than wait on Postgres when an entry lapses.
+    private static final Map<String, CacheTtl> CACHE_TTLS = Map.of(
+            "transactionSummary", CacheTtl.staleWhileRevalidate(Duration.ofMinutes(5), Duration.ofMinutes(15)),
+            "budgetStatus", CacheTtl.staleWhileRevalidate(Duration.ofMinutes(5), Duration.ofMinutes(15)),
+            "linkedAccount", CacheTtl.of(Duration.ofMinutes(30)),
+            "user", CacheTtl.of(Duration.ofMinutes(30))
+    );
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -24,7 +58,8 @@ public class RedisConfiguration {
     }
 
     @Bean
-    public RedisCacheConfiguration redisCacheConfiguration() {
+    public BinaryCacheValueSerializer cacheValueSerializer(List<CacheValueCodec<?>> cacheValueCodecs,
+                                                           @Value("${cache.redis.compression-threshold:1024}") int compressionThreshold) {
 
         ObjectMapper redisObjectMapper = new ObjectMapper();
         redisObjectMapper.registerModule(new JavaTimeModule());
@@ -34,24 +69,114 @@ public class RedisConfiguration {
                 ObjectMapper.DefaultTyping.NON_FINAL
         );
 
+        return new BinaryCacheValueSerializer(cacheValueCodecs, new GenericJackson2JsonRedisSerializer(redisObjectMapper), compressionThreshold);
+    }
+
+    @Bean
+    public RedisCacheConfiguration redisCacheConfiguration(BinaryCacheValueSerializer cacheValueSerializer) {
         return RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30))
+                .entryTtl(DEFAULT_CACHE_TTL.hard())
                 .disableCachingNullValues()
-                .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(
-                                new GenericJackson2JsonRedisSerializer(redisObjectMapper)
-                        )
-                );
-    }
-
-    @Bean
-    public RedisCacheManagerBuilderCustomizer redisCacheBuilderCustomizer(RedisCacheConfiguration redisCacheConfiguration) {
-        return (builder) -> builder
-                .withCacheConfiguration("transaction", redisCacheConfiguration.entryTtl(Duration.ofMinutes(15)))
-                .withCacheConfiguration("budget", redisCacheConfiguration.entryTtl(Duration.ofMinutes(30)))
-                .withCacheConfiguration("savingGoal", redisCacheConfiguration.entryTtl(Duration.ofMinutes(30)))
-                .withCacheConfiguration("linkedAccount", redisCacheConfiguration.entryTtl(Duration.ofMinutes(30)))
-                .withCacheConfiguration("user", redisCacheConfiguration.entryTtl(Duration.ofMinutes(30)))
-                .withCacheConfiguration("aws-secret", redisCacheConfiguration.entryTtl(Duration.ofMinutes(60)));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer));
+    }
+
+    @Bean
+    public RedisTemplate<String, Object> entityCacheRedisTemplate(RedisConnectionFactory connectionFactory,
+                                                                  BinaryCacheValueSerializer cacheValueSerializer) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(cacheValueSerializer);
+        return template;
+    }
+
+    @Bean
+    public CachePrefetchTracker cachePrefetchTracker(MeterRegistry meterRegistry,
+                                                     @Value("${cache.prefetch.window:PT15M}") Duration window,
+                                                     @Value("${cache.prefetch.maximum-size:100000}") long maximumSize) {
+        return new CachePrefetchTracker(meterRegistry, window, maximumSize);
+    }
+
+    @Bean
+    public EntityCache<TransactionResponseDTO> transactionEntityCache(RedisTemplate<String, Object> entityCacheRedisTemplate,
+                                                                      MeterRegistry meterRegistry,
+                                                                      CachePrefetchTracker cachePrefetchTracker,
+                                                                      RedisCircuitBreaker redisCircuitBreaker,
+                                                                      @Value("${cache.entity.ttl:PT30M}") Duration ttl,
+                                                                      @Value("${cache.local.ttl:PT30S}") Duration localTtl,
+                                                                      @Value("${cache.local.maximum-weight:50000}") long localMaximumSize) {
+        return new EntityCache<>("transaction", TransactionResponseDTO.class, entityCacheRedisTemplate, ttl, meterRegistry,
+                cachePrefetchTracker, redisCircuitBreaker, localTtl, localMaximumSize);
+    }
+
+    @Bean
+    public EntityCache<BudgetResponseDTO> budgetEntityCache(RedisTemplate<String, Object> entityCacheRedisTemplate,
+                                                            MeterRegistry meterRegistry,
+                                                            CachePrefetchTracker cachePrefetchTracker,
+                                                            RedisCircuitBreaker redisCircuitBreaker,
+                                                            @Value("${cache.entity.ttl:PT30M}") Duration ttl,
+                                                            @Value("${cache.local.ttl:PT30S}") Duration localTtl,
+                                                            @Value("${cache.local.maximum-weight:50000}") long localMaximumSize) {
+        return new EntityCache<>("budget", BudgetResponseDTO.class, entityCacheRedisTemplate, ttl, meterRegistry,
+                cachePrefetchTracker, redisCircuitBreaker, localTtl, localMaximumSize);
+    }
+
+    @Bean
+    public EntityCache<SavingGoalResponseDTO> savingGoalEntityCache(RedisTemplate<String, Object> entityCacheRedisTemplate,
+                                                                    MeterRegistry meterRegistry,
+                                                                    CachePrefetchTracker cachePrefetchTracker,
+                                                                    RedisCircuitBreaker redisCircuitBreaker,
+                                                                    @Value("${cache.entity.ttl:PT30M}") Duration ttl,
+                                                                    @Value("${cache.local.ttl:PT30S}") Duration localTtl,
+                                                                    @Value("${cache.local.maximum-weight:50000}") long localMaximumSize) {
+        return new EntityCache<>("savingGoal", SavingGoalResponseDTO.class, entityCacheRedisTemplate, ttl, meterRegistry,
+                cachePrefetchTracker, redisCircuitBreaker, localTtl, localMaximumSize);
+    }
+
+    // Bounded so a burst of stale entries can't pile up refreshes, anything past the queue is simply served stale a little longer.
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(@Value("${cache.refresh.threads:2}") int threads,
+                                                       @Value("${cache.refresh.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cache-refresh-");
+        return executor;
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     RedisCacheConfiguration redisCacheConfiguration,
+                                     CacheInvalidationBus invalidationBus,
+                                     CacheLoadLock cacheLoadLock,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${cache.local.maximum-weight:50000}") long localMaximumWeight,
+                                     @Value("${cache.local.ttl:PT30S}") Duration localTtl,
+                                     @Value("${cache.single-flight.lock-ttl:PT5S}") Duration lockTtl,
+                                     @Value("${cache.early-refresh.beta:1.0}") double earlyRefreshBeta,
+                                     ThreadPoolTaskExecutor cacheRefreshExecutor,
+                                     CachePrefetchTracker cachePrefetchTracker,
+                                     RedisCircuitBreaker redisCircuitBreaker) {
+
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(redisCacheConfiguration);
+        CACHE_TTLS.forEach((name, ttl) -> builder.withCacheConfiguration(name, redisCacheConfiguration.entryTtl(ttl.hard())));
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.initializeCaches();
+
+        return new TwoLevelCacheManager(redisCacheManager, CACHE_TTLS, DEFAULT_CACHE_TTL, invalidationBus, cacheLoadLock,
+                meterRegistry, localMaximumWeight, localTtl, lockTtl, earlyRefreshBeta, cacheRefreshExecutor,
+                cachePrefetchTracker, redisCircuitBreaker);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.redis.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            CacheInvalidationBus invalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
     }
 }
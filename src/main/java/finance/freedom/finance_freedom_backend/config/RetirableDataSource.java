@@ -0,0 +1,111 @@
+package finance.freedom.finance_freedom_backend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Opens the pool's physical connections and remembers which credential generation each was opened under.
+// A retired connection reports itself invalid, so Hikari replaces it the next time it is borrowed instead of handing it out.
+public class RetirableDataSource extends DelegatingDataSource {
+
+    private final Set<TrackedConnection> open = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public RetirableDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    // Connections open right now belong to the previous generation, ones opened from here on to the returned one.
+    public long nextGeneration() {
+        return generation.incrementAndGet();
+    }
+
+    // Keeps at most limit connections retired but not yet replaced, and returns how many from before the generation are still open.
+    public int retire(long beforeGeneration, int limit) {
+        int remaining = 0;
+        int pending = 0;
+        for (TrackedConnection connection : open) {
+            if (connection.generation < beforeGeneration) {
+                remaining++;
+                if (connection.retired) {
+                    pending++;
+                }
+            }
+        }
+        for (TrackedConnection connection : open) {
+            if (pending >= limit) {
+                break;
+            }
+            if (connection.generation < beforeGeneration && !connection.retired) {
+                connection.retired = true;
+                pending++;
+            }
+        }
+        return remaining;
+    }
+
+    private Connection track(Connection physical) {
+        TrackedConnection tracked = new TrackedConnection(physical, generation.get());
+        open.add(tracked);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, tracked);
+    }
+
+    private final class TrackedConnection implements InvocationHandler {
+
+        private final Connection physical;
+
+        private final long generation;
+
+        private volatile boolean retired;
+
+        private TrackedConnection(Connection physical, long generation) {
+            this.physical = physical;
+            this.generation = generation;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "isValid" -> {
+                    if (retired) {
+                        return false;
+                    }
+                }
+                case "close", "abort" -> open.remove(this);
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package finance.freedom.finance_freedom_backend.controller.budget;
 
 import finance.freedom.finance_freedom_backend.dto.budget.BudgetResponseDTO;
+import finance.freedom.finance_freedom_backend.dto.budget.BudgetStatusDTO;
 import finance.freedom.finance_freedom_backend.dto.budget.CreateBudgetDTO;
 import finance.freedom.finance_freedom_backend.dto.budget.UpdateBudgetDTO;
 import finance.freedom.finance_freedom_backend.enums.RateLimitType;
@@ -17,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -41,6 +43,16 @@ public class BudgetController {
         return ResponseEntity.status(HttpStatus.CREATED).body(budgetService.save(customUserDetails.getUser(), budgetRequestDTO));
     }
 
+    @GetMapping("/status")
+    public ResponseEntity<List<BudgetStatusDTO>> getStatus(HttpServletRequest request,
+                                                           @AuthenticationPrincipal CustomUserDetails customUserDetails){
+        AuthorizationUtils.requireUser(customUserDetails);
+
+        rateLimiterService.enforceRateLimit(request, RateLimitType.BUDGET, "get budget status");
+
+        return ResponseEntity.ok(budgetService.getBudgetStatus(customUserDetails.getUser()));
+    }
+
     @GetMapping("/{budgetId}")
     public ResponseEntity<BudgetResponseDTO> getById(HttpServletRequest request,
                                                      @AuthenticationPrincipal CustomUserDetails customUserDetails,
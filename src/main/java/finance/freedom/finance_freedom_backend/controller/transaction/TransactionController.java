@@ -1,12 +1,22 @@
 package finance.freedom.finance_freedom_backend.controller.transaction;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import finance.freedom.finance_freedom_backend.dto.transaction.BatchTransactionResultDTO;
 import finance.freedom.finance_freedom_backend.dto.transaction.CreateTransactionDTO;
+import finance.freedom.finance_freedom_backend.dto.transaction.TransactionPageDTO;
 import finance.freedom.finance_freedom_backend.dto.transaction.TransactionResponseDTO;
+import finance.freedom.finance_freedom_backend.dto.transaction.TransactionSummaryDTO;
 import finance.freedom.finance_freedom_backend.dto.transaction.UpdateTransactionDTO;
+import finance.freedom.finance_freedom_backend.enums.ExportFormat;
 import finance.freedom.finance_freedom_backend.enums.RateLimitType;
+import finance.freedom.finance_freedom_backend.enums.SummaryGroupBy;
 import finance.freedom.finance_freedom_backend.enums.TransactionType;
 import finance.freedom.finance_freedom_backend.interfaces.core.ITransactionService;
 import finance.freedom.finance_freedom_backend.interfaces.ratelimiter.IRateLimiterService;
+import finance.freedom.finance_freedom_backend.model.core.User;
 import finance.freedom.finance_freedom_backend.model.exception.GenericResponse;
 import finance.freedom.finance_freedom_backend.model.security.CustomUserDetails;
 import finance.freedom.finance_freedom_backend.util.AuthorizationUtils;
@@ -14,14 +24,22 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -35,6 +53,13 @@ public class TransactionController {
 
     private final IRateLimiterService rateLimiterService;
 
+    private final ObjectMapper objectMapper;
+
+    @Value("${transaction.batch.max-items:10000}")
+    private int batchMaxItems;
+
+    @Value("${transaction.batch.max-request-size:4MB}")
+    private DataSize batchMaxRequestSize;
 
     @PostMapping()
     public ResponseEntity<TransactionResponseDTO> create(HttpServletRequest request,
@@ -47,6 +72,47 @@ public class TransactionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.save(customUserDetails.getUser(), transaction));
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchTransactionResultDTO>> createBatch(HttpServletRequest request,
+                                                                       @AuthenticationPrincipal CustomUserDetails customUserDetails) throws IOException {
+        AuthorizationUtils.requireUser(customUserDetails);
+
+        rateLimiterService.enforceRateLimit(request, RateLimitType.TRANSACTION, "save transaction batch");
+
+        return ResponseEntity.ok(transactionService.saveBatch(customUserDetails.getUser(), readBatch(request)));
+    }
+
+    // Items are bound one at a time, so an oversized batch is rejected before the whole body sits in memory.
+    private List<CreateTransactionDTO> readBatch(HttpServletRequest request) throws IOException {
+        long maxBytes = batchMaxRequestSize.toBytes();
+        if (request.getContentLengthLong() > maxBytes) {
+            throw new IllegalArgumentException(String.format("A batch request can't be larger than %s", batchMaxRequestSize));
+        }
+
+        List<CreateTransactionDTO> transactions = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(request.getInputStream())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("A batch must be a JSON array of transactions");
+            }
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new IllegalArgumentException("A batch must be a JSON array of transactions");
+                }
+                if (transactions.size() == batchMaxItems) {
+                    throw new IllegalArgumentException(String.format("A batch must contain between 1 and %s transactions", batchMaxItems));
+                }
+                transactions.add(token == JsonToken.VALUE_NULL ? null : parser.readValueAs(CreateTransactionDTO.class));
+                // Chunked bodies carry no length, so the bytes read so far are checked as well.
+                if (parser.currentLocation().getByteOffset() > maxBytes) {
+                    throw new IllegalArgumentException(String.format("A batch request can't be larger than %s", batchMaxRequestSize));
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("A batch must be a JSON array of transactions", e);
+        }
+        return transactions;
+    }
+
     @GetMapping("/{transactionID}")
     public ResponseEntity<TransactionResponseDTO> getById(HttpServletRequest request,
                                                                  @AuthenticationPrincipal CustomUserDetails customUserDetails,
@@ -72,6 +138,64 @@ public class TransactionController {
                 customUserDetails.getUser(), transactionType, startDate, endDate));
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<TransactionPageDTO> getPage(HttpServletRequest request,
+                                                      @AuthenticationPrincipal CustomUserDetails customUserDetails,
+                                                      @RequestParam(required = false) TransactionType transactionType,
+                                                      @RequestParam(required = false) LocalDateTime startDate,
+                                                      @RequestParam(required = false) LocalDateTime endDate,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size) {
+        AuthorizationUtils.requireUser(customUserDetails);
+
+        rateLimiterService.enforceRateLimit(request, RateLimitType.TRANSACTION, "get transaction page");
+
+        return ResponseEntity.ok(transactionService.getTransactionPage(
+                customUserDetails.getUser(), transactionType, startDate, endDate, cursor, size));
+    }
+
+    // to is inclusive and before is exclusive. Whole months, from=2026-01-01T00:00&before=2026-04-01T00:00, are read from the monthly rollup.
+    @GetMapping("/summary")
+    public ResponseEntity<List<TransactionSummaryDTO>> getSummary(HttpServletRequest request,
+                                                                  @AuthenticationPrincipal CustomUserDetails customUserDetails,
+                                                                  @RequestParam(defaultValue = "category") String groupBy,
+                                                                  @RequestParam(required = false) TransactionType type,
+                                                                  @RequestParam(required = false) LocalDateTime from,
+                                                                  @RequestParam(required = false) LocalDateTime to,
+                                                                  @RequestParam(required = false) LocalDateTime before) {
+        AuthorizationUtils.requireUser(customUserDetails);
+
+        if (to != null && before != null) {
+            throw new IllegalArgumentException("Use either to or before to end a summary range, not both");
+        }
+
+        rateLimiterService.enforceRateLimit(request, RateLimitType.TRANSACTION, "get transaction summary");
+
+        return ResponseEntity.ok(transactionService.getTransactionSummary(
+                customUserDetails.getUser(), SummaryGroupBy.fromValue(groupBy), type, from, before != null ? before : to, before != null));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(HttpServletRequest request,
+                                                        @AuthenticationPrincipal CustomUserDetails customUserDetails,
+                                                        @RequestParam(required = false) TransactionType transactionType,
+                                                        @RequestParam(required = false) LocalDateTime startDate,
+                                                        @RequestParam(required = false) LocalDateTime endDate,
+                                                        @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        AuthorizationUtils.requireUser(customUserDetails);
+
+        rateLimiterService.enforceRateLimit(request, RateLimitType.TRANSACTION, "export transactions");
+
+        User user = customUserDetails.getUser();
+        StreamingResponseBody body = outputStream ->
+                transactionService.exportTransactions(user, transactionType, startDate, endDate, format, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, String.format("attachment; filename=\"transactions.%s\"", format.getFileExtension()))
+                .body(body);
+    }
+
     @DeleteMapping("/{transactionId}")
     public ResponseEntity<GenericResponse> delete(HttpServletRequest request,
                                                              @AuthenticationPrincipal CustomUserDetails customUserDetails,
@@ -0,0 +1,26 @@
+package finance.freedom.finance_freedom_backend.dto.budget;
+
+import finance.freedom.finance_freedom_backend.enums.CategoryType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetStatusDTO {
+    private Integer budgetId;
+    private CategoryType category;
+    private BigDecimal budgetAmount;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private BigDecimal spent;
+    private BigDecimal remaining;
+    private BigDecimal percentUsed;
+    private boolean thresholdCrossed;
+}
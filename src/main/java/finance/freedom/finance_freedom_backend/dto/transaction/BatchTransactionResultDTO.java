@@ -0,0 +1,20 @@
+package finance.freedom.finance_freedom_backend.dto.transaction;
+
+import finance.freedom.finance_freedom_backend.enums.BatchItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransactionResultDTO {
+    private int index;
+    private BatchItemStatus status;
+    private Integer transactionId;
+    private List<String> errors;
+}
@@ -0,0 +1,17 @@
+package finance.freedom.finance_freedom_backend.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPageDTO {
+    private List<TransactionResponseDTO> transactions;
+    private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package finance.freedom.finance_freedom_backend.dto.transaction;
+
+import finance.freedom.finance_freedom_backend.enums.CategoryType;
+import finance.freedom.finance_freedom_backend.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionSummaryDTO {
+    private TransactionType transactionType;
+    private CategoryType category;
+    private LocalDate period;
+    private BigDecimal total;
+    private long count;
+}
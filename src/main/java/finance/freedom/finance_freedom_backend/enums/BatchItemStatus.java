@@ -0,0 +1,6 @@
+package finance.freedom.finance_freedom_backend.enums;
+
+public enum BatchItemStatus {
+    CREATED,
+    REJECTED
+}
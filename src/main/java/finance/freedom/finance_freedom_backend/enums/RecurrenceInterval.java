@@ -1,5 +1,37 @@
 package finance.freedom.finance_freedom_backend.enums;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
 public enum RecurrenceInterval {
-    DAILY, WEEKLY, BIWEEKLY, MONTHLY, YEARLY, NONE;
+    DAILY(1, ChronoUnit.DAYS),
+    WEEKLY(1, ChronoUnit.WEEKS),
+    BIWEEKLY(2, ChronoUnit.WEEKS),
+    MONTHLY(1, ChronoUnit.MONTHS),
+    YEARLY(1, ChronoUnit.YEARS),
+    NONE(0, null);
+
+    private final int step;
+
+    private final ChronoUnit unit;
+
+    RecurrenceInterval(int step, ChronoUnit unit) {
+        this.step = step;
+        this.unit = unit;
+    }
+
+    // Counting occurrences from the anchor keeps a schedule on the 31st from drifting to the 28th after February.
+    public LocalDateTime next(LocalDateTime anchor, LocalDateTime after) {
+        if (unit == null) {
+            return null;
+        }
+
+        long occurrences = after.isAfter(anchor) ? unit.between(anchor, after) / step : 0;
+        LocalDateTime occurrence = anchor.plus(occurrences * step, unit);
+        while (!occurrence.isAfter(after)) {
+            occurrences++;
+            occurrence = anchor.plus(occurrences * step, unit);
+        }
+        return occurrence;
+    }
 }
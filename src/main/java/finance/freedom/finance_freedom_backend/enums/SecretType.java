@@ -0,0 +1,17 @@
+package finance.freedom.finance_freedom_backend.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum SecretType {
+    RDS("RDS-connection-credentials-postgres"),
+    JWT("jwt-secret-key"),
+    MAIL("java-mail-sender-info"),
+    ENCRYPTION("Encryption-data");
+
+    private final String secretId;
+
+    SecretType(String secretId) {
+        this.secretId = secretId;
+    }
+}
@@ -0,0 +1,26 @@
+package finance.freedom.finance_freedom_backend.enums;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+@Getter
+public enum SummaryGroupBy {
+    CATEGORY(null),
+    MONTH("month"),
+    WEEK("week");
+
+    private final String dateTruncUnit;
+
+    SummaryGroupBy(String dateTruncUnit) {
+        this.dateTruncUnit = dateTruncUnit;
+    }
+
+    public static SummaryGroupBy fromValue(String value) {
+        try {
+            return SummaryGroupBy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Unsupported groupBy value: %s", value));
+        }
+    }
+}
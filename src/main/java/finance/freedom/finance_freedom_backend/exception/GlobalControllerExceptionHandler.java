@@ -60,6 +60,12 @@ public class GlobalControllerExceptionHandler{
         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(new GenericResponse(String.format(ex.getMessage())));
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<GenericResponse> handleServiceUnavailableException(Exception ex){
+        log.warn("ServiceUnavailableException catch{}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(new GenericResponse(ex.getMessage()));
+    }
+
     @ExceptionHandler(ExpiredJwtException.class)
     public ResponseEntity<GenericResponse> handleExpiredJWTException(ExpiredJwtException ex){
         log.error("ExpiredJwtException catch{}", ex.getMessage(), ex);
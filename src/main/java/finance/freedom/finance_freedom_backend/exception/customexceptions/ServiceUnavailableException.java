@@ -0,0 +1,7 @@
+package finance.freedom.finance_freedom_backend.exception.customexceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,9 @@
 package finance.freedom.finance_freedom_backend.filter;
 
+import finance.freedom.finance_freedom_backend.interfaces.security.IUserSnapshotService;
 import finance.freedom.finance_freedom_backend.service.jwt.JWTServiceImpl;
 import finance.freedom.finance_freedom_backend.service.security.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,24 +28,29 @@ public class JWTFilter extends OncePerRequestFilter {
 
     private final CustomUserDetailsService customUserDetailsService;
 
+    private final IUserSnapshotService userSnapshotService;
+
+    // Login, registration and verification run without a token, so there is nothing to parse.
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getServletPath().startsWith("/api/auth/");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
              String authorizationHeader = request.getHeader("Authorization");
-             String token = null;
-             String username = null;
+             Claims claims = null;
 
 
              if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-                 token = authorizationHeader.substring(7);
-                 username = jwtService.extractUserName(token);
+                 claims = jwtService.extractAllClaims(authorizationHeader.substring(7));
              }
 
-             if(username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+             if(claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                 UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+                 UserDetails userDetails = loadUser(claims);
 
-                if(jwtService.validateToken(token, userDetails)){
+                if(userDetails != null && jwtService.validateClaims(claims, userDetails)){
                     UsernamePasswordAuthenticationToken tokenAuthentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
                     tokenAuthentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -53,4 +60,13 @@ public class JWTFilter extends OncePerRequestFilter {
              }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private UserDetails loadUser(Claims claims) {
+        Integer userId = claims.get(JWTServiceImpl.USER_ID_CLAIM, Integer.class);
+        if (userId == null) {
+            // Tokens issued before the userId claim existed, looked up by email until they expire.
+            return customUserDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        return userSnapshotService.loadUser(userId);
+    }
+}
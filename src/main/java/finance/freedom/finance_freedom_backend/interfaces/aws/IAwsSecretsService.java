@@ -5,13 +5,22 @@ import finance.freedom.finance_freedom_backend.model.aws.EncryptionDetails;
 import finance.freedom.finance_freedom_backend.model.aws.JWTSecretKey;
 import finance.freedom.finance_freedom_backend.model.aws.JavaMailSenderDetails;
 
+import java.time.Instant;
+import java.util.List;
+
 public interface IAwsSecretsService {
 
     AwsCredentialsRDS getRdsConnection();
 
     JWTSecretKey getSecretKey();
 
+    JWTSecretKey getPreviousSecretKey();
+
+    Instant getSecretKeyRotatedAt();
+
     JavaMailSenderDetails getJavaMailSenderInfo();
 
     EncryptionDetails getEncryptionDetails();
+
+    List<EncryptionDetails> getPreviousEncryptionDetails();
 }
@@ -0,0 +1,7 @@
+package finance.freedom.finance_freedom_backend.interfaces.cache;
+
+public interface ICacheGenerationService {
+    long currentGeneration(Integer userId);
+
+    void bumpGeneration(Integer userId);
+}
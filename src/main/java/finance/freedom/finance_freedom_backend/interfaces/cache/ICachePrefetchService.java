@@ -0,0 +1,7 @@
+package finance.freedom.finance_freedom_backend.interfaces.cache;
+
+import finance.freedom.finance_freedom_backend.model.core.User;
+
+public interface ICachePrefetchService {
+    void prefetch(User user);
+}
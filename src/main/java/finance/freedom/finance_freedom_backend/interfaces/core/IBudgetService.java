@@ -1,11 +1,13 @@
 package finance.freedom.finance_freedom_backend.interfaces.core;
 
 import finance.freedom.finance_freedom_backend.dto.budget.BudgetResponseDTO;
+import finance.freedom.finance_freedom_backend.dto.budget.BudgetStatusDTO;
 import finance.freedom.finance_freedom_backend.dto.budget.CreateBudgetDTO;
 import finance.freedom.finance_freedom_backend.dto.budget.UpdateBudgetDTO;
 import finance.freedom.finance_freedom_backend.model.core.User;
 import finance.freedom.finance_freedom_backend.model.exception.GenericResponse;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -19,4 +21,6 @@ public interface IBudgetService {
     BudgetResponseDTO update(User user, Integer budgetId, UpdateBudgetDTO createBudgetDTO);
 
     Map<Integer, BudgetResponseDTO> getBudgetsByUser(User user);
+
+    List<BudgetStatusDTO> getBudgetStatus(User user);
 }
@@ -0,0 +1,7 @@
+package finance.freedom.finance_freedom_backend.interfaces.core;
+
+import java.time.LocalDateTime;
+
+public interface IRecurringTransactionService {
+    int materializeDueOccurrences(LocalDateTime now);
+}
@@ -0,0 +1,16 @@
+package finance.freedom.finance_freedom_backend.interfaces.core;
+
+import finance.freedom.finance_freedom_backend.model.core.Transaction;
+import finance.freedom.finance_freedom_backend.model.core.TransactionRollupDeltas;
+
+import java.util.List;
+
+public interface ITransactionRollupService {
+    void recordCreated(Transaction transaction);
+
+    void recordCreated(List<Transaction> transactions);
+
+    void recordCreated(TransactionRollupDeltas deltas);
+
+    void rebuildRollups();
+}
@@ -1,19 +1,29 @@
 package finance.freedom.finance_freedom_backend.interfaces.core;
 
+import finance.freedom.finance_freedom_backend.dto.transaction.BatchTransactionResultDTO;
 import finance.freedom.finance_freedom_backend.dto.transaction.CreateTransactionDTO;
+import finance.freedom.finance_freedom_backend.dto.transaction.TransactionPageDTO;
 import finance.freedom.finance_freedom_backend.dto.transaction.TransactionResponseDTO;
+import finance.freedom.finance_freedom_backend.dto.transaction.TransactionSummaryDTO;
 import finance.freedom.finance_freedom_backend.dto.transaction.UpdateTransactionDTO;
+import finance.freedom.finance_freedom_backend.enums.ExportFormat;
+import finance.freedom.finance_freedom_backend.enums.SummaryGroupBy;
 import finance.freedom.finance_freedom_backend.enums.TransactionType;
 import finance.freedom.finance_freedom_backend.model.core.User;
 import finance.freedom.finance_freedom_backend.model.exception.GenericResponse;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 public interface ITransactionService {
     TransactionResponseDTO save(User user, CreateTransactionDTO transaction);
 
+    List<BatchTransactionResultDTO> saveBatch(User user, List<CreateTransactionDTO> transactions);
+
     TransactionResponseDTO getTransaction(User user, Integer transactionId);
 
     GenericResponse deleteTransaction(User user, Integer transactionId);
@@ -22,4 +32,11 @@ public interface ITransactionService {
 
     Map<Integer, TransactionResponseDTO> getFilteredTransactions(User user, TransactionType transactionType, LocalDateTime startDate, LocalDateTime endDate);
 
+    TransactionPageDTO getTransactionPage(User user, TransactionType transactionType, LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer pageSize);
+
+    List<TransactionSummaryDTO> getTransactionSummary(User user, SummaryGroupBy groupBy, TransactionType transactionType, LocalDateTime startDate,
+                                                      LocalDateTime endDate, boolean endExclusive);
+
+    void exportTransactions(User user, TransactionType transactionType, LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, OutputStream outputStream) throws IOException;
+
 }
@@ -0,0 +1,9 @@
+package finance.freedom.finance_freedom_backend.interfaces.core;
+
+import java.time.LocalDateTime;
+
+public interface IUserActivityService {
+    void recordLogin(Integer userId, LocalDateTime loggedInAt);
+
+    int flush();
+}
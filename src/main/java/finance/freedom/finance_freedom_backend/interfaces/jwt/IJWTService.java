@@ -2,6 +2,7 @@ package finance.freedom.finance_freedom_backend.interfaces.jwt;
 
 import finance.freedom.finance_freedom_backend.model.core.User;
 import finance.freedom.finance_freedom_backend.model.security.JWT;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import javax.crypto.SecretKey;
@@ -14,4 +15,8 @@ public interface IJWTService {
 
     boolean validateToken(String token, UserDetails userDetails);
 
+    Claims extractAllClaims(String token);
+
+    boolean validateClaims(Claims claims, UserDetails userDetails);
+
 }
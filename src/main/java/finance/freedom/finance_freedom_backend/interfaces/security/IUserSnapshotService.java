@@ -0,0 +1,9 @@
+package finance.freedom.finance_freedom_backend.interfaces.security;
+
+import finance.freedom.finance_freedom_backend.model.security.CustomUserDetails;
+
+public interface IUserSnapshotService {
+    CustomUserDetails loadUser(Integer userId);
+
+    void evict(Integer userId);
+}
@@ -0,0 +1,7 @@
+package finance.freedom.finance_freedom_backend.model.aws;
+
+import finance.freedom.finance_freedom_backend.enums.SecretType;
+
+// Published after a background refresh finds a secret with a new value, the holder already serves the new one.
+public record SecretRotatedEvent(SecretType secretType) {
+}
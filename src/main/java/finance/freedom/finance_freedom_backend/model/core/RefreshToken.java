@@ -1,7 +1,6 @@
 package finance.freedom.finance_freedom_backend.model.core;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -30,9 +29,9 @@ public class RefreshToken {
     @OnDelete(action = OnDeleteAction.CASCADE)
     private User user;
 
-    @NotBlank(message = "Token can't be blank")
-    @Column(name = "refresh_token", nullable = false, length = 500)
-    private String refreshToken;
+    @NotNull(message = "Token can't be null")
+    @Column(name = "token_hash", nullable = false, unique = true, length = 32)
+    private byte[] tokenHash;
 
     @NotNull(message = "Date can't be null")
     @Column(name = "expires_at", nullable = false)
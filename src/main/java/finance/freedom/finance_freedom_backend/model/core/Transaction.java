@@ -22,7 +22,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_id_generator")
+    @SequenceGenerator(name = "transactions_id_generator", sequenceName = "transactions_transaction_id_seq", allocationSize = 50)
     @Column(name = "transaction_id")
     private Integer transactionId;
 
@@ -55,4 +56,10 @@ public class Transaction {
     @Column(name = "recurrence_interval", nullable = true)
     private RecurrenceInterval recurrenceInterval;
 
+    @Column(name = "next_occurrence_date")
+    private LocalDateTime nextOccurrenceDate;
+
+    @Column(name = "recurrence_source_id")
+    private Integer recurrenceSourceId;
+
 }
@@ -0,0 +1,46 @@
+package finance.freedom.finance_freedom_backend.model.core;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Running totals for transactions being created. Memory grows with the monthly buckets touched, not with the transactions added.
+public class TransactionRollupDeltas {
+
+    // Upserting buckets in one fixed order keeps concurrent batches for the same user from deadlocking.
+    private static final Comparator<TransactionMonthlyRollupId> BUCKET_ORDER = Comparator
+            .comparing(TransactionMonthlyRollupId::getUserId)
+            .thenComparing(TransactionMonthlyRollupId::getMonth)
+            .thenComparing(TransactionMonthlyRollupId::getCategory)
+            .thenComparing(TransactionMonthlyRollupId::getTransactionType);
+
+    private final Map<TransactionMonthlyRollupId, TransactionMonthlyRollup> deltas = new TreeMap<>(BUCKET_ORDER);
+
+    @Getter
+    private int transactionCount;
+
+    public void add(Transaction transaction) {
+        TransactionMonthlyRollupId bucket = new TransactionMonthlyRollupId(
+                transaction.getUser().getUserId(),
+                transaction.getTransactionDate().toLocalDate().withDayOfMonth(1),
+                transaction.getCategory(),
+                transaction.getTransactionType());
+
+        TransactionMonthlyRollup delta = deltas.computeIfAbsent(bucket, id -> new TransactionMonthlyRollup(id, BigDecimal.ZERO, 0));
+        delta.setTotal(delta.getTotal().add(transaction.getAmount()));
+        delta.setTransactionCount(delta.getTransactionCount() + 1);
+        transactionCount++;
+    }
+
+    public Collection<TransactionMonthlyRollup> values() {
+        return deltas.values();
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+}
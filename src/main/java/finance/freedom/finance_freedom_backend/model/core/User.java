@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "users")
@@ -47,4 +48,7 @@ public class User {
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
+
+    @Column(name = "security_stamp", nullable = false)
+    private UUID securityStamp = UUID.randomUUID();
 }
@@ -0,0 +1,31 @@
+package finance.freedom.finance_freedom_backend.model.security;
+
+import finance.freedom.finance_freedom_backend.model.core.User;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// What request authentication needs from a user. The password hash is left out, it is only read at login.
+public record UserSnapshot(Integer userId, String fullName, String email, String oauthProvider, String oauthId,
+                           boolean verified, boolean active, LocalDateTime createdAt, UUID securityStamp) {
+
+    public static UserSnapshot from(User user) {
+        return new UserSnapshot(user.getUserId(), user.getFullName(), user.getEmail(), user.getOauthProvider(),
+                user.getOauthId(), user.isVerified(), user.isActive(), user.getCreatedAt(), user.getSecurityStamp());
+    }
+
+    // A fresh detached User per request, so nothing a request does to it leaks into the cached copy.
+    public User toUser() {
+        User user = new User();
+        user.setUserId(userId);
+        user.setFullName(fullName);
+        user.setEmail(email);
+        user.setOauthProvider(oauthProvider);
+        user.setOauthId(oauthId);
+        user.setVerified(verified);
+        user.setActive(active);
+        user.setCreatedAt(createdAt);
+        user.setSecurityStamp(securityStamp);
+        return user;
+    }
+}
@@ -2,8 +2,15 @@ package finance.freedom.finance_freedom_backend.repository;
 
 import finance.freedom.finance_freedom_backend.model.core.Budget;
 import finance.freedom.finance_freedom_backend.model.core.User;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,5 +18,55 @@ public interface BudgetRepository extends JpaRepository<Budget, UUID> {
 
     Budget findByBudgetId(Integer budgetId);
 
+    @Query("SELECT b FROM Budget b WHERE b.budgetId = :budgetId AND b.user.userId = :userId")
+    Budget findByBudgetIdAndUserId(@Param("budgetId") Integer budgetId, @Param("userId") Integer userId);
+
+    boolean existsByBudgetId(Integer budgetId);
+
     List<Budget> findByUser(User user);
+
+    @Query("SELECT b.budgetId FROM Budget b WHERE b.user.userId = :userId ORDER BY b.budgetId")
+    List<Integer> findBudgetIdsByUserId(@Param("userId") Integer userId);
+
+    @Query("SELECT b FROM Budget b WHERE b.user.userId = :userId AND b.budgetId IN :budgetIds")
+    List<Budget> findByUserIdAndBudgetIdIn(@Param("userId") Integer userId, @Param("budgetIds") Collection<Integer> budgetIds);
+
+    @Query(value = """
+            SELECT b.budget_id, b.category, b.budget_amount, b.start_date, b.end_date, b.notify_threshold_percent,
+                   COALESCE(SUM(t.amount), 0) AS spent
+            FROM budgets b
+            LEFT JOIN transactions t
+                   ON t.user_id = b.user_id
+                  AND t.category = b.category
+                  AND t.transaction_type = 'EXPENSE'
+                  AND t.transaction_date BETWEEN b.start_date AND b.end_date
+            WHERE b.user_id = :userId
+            GROUP BY b.budget_id
+            ORDER BY b.budget_id
+            """, nativeQuery = true)
+    List<Object[]> findSpendByUserId(@Param("userId") Integer userId);
+
+    @Transactional
+    @Query(value = """
+            UPDATE budgets SET
+                budget_amount = COALESCE(CAST(:budgetAmount AS numeric), budget_amount),
+                category = COALESCE(CAST(:category AS varchar), category),
+                start_date = COALESCE(CAST(:startDate AS timestamp), start_date),
+                end_date = COALESCE(CAST(:endDate AS timestamp), end_date),
+                notify_threshold_percent = COALESCE(CAST(:notifyThresholdPercentage AS numeric), notify_threshold_percent)
+            WHERE budget_id = :budgetId AND user_id = :userId
+            RETURNING *
+            """, nativeQuery = true)
+    Budget updateByBudgetIdAndUserId(@Param("budgetId") Integer budgetId,
+                                     @Param("userId") Integer userId,
+                                     @Param("budgetAmount") BigDecimal budgetAmount,
+                                     @Param("category") String category,
+                                     @Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate,
+                                     @Param("notifyThresholdPercentage") BigDecimal notifyThresholdPercentage);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM budgets WHERE budget_id = :budgetId AND user_id = :userId", nativeQuery = true)
+    int deleteByBudgetIdAndUserId(@Param("budgetId") Integer budgetId, @Param("userId") Integer userId);
 }
@@ -2,18 +2,37 @@ package finance.freedom.finance_freedom_backend.repository;
 
 import finance.freedom.finance_freedom_backend.model.core.User;
 import finance.freedom.finance_freedom_backend.model.email.EmailVerificationToken;
+import finance.freedom.finance_freedom_backend.util.TokenHashUtil;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public interface EmailVerificationTokenRepository extends JpaRepository<EmailVerificationToken, UUID> {
 
-    EmailVerificationToken findByToken(String token);
+    EmailVerificationToken findByTokenHash(byte[] tokenHash);
+
+    default EmailVerificationToken findByToken(String token) {
+        return findByTokenHash(TokenHashUtil.sha256(token));
+    }
 
     @Modifying
     @Transactional
     void deleteByUser(User user);
 
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM email_verification_tokens
+            WHERE ctid = ANY (ARRAY(SELECT ctid FROM email_verification_tokens
+                                    WHERE expires_at < :now
+                                    LIMIT :batchSize
+                                    FOR UPDATE SKIP LOCKED))
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
 }
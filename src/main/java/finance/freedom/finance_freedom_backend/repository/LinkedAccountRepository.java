@@ -2,12 +2,47 @@ package finance.freedom.finance_freedom_backend.repository;
 
 import finance.freedom.finance_freedom_backend.model.core.LinkedAccount;
 import finance.freedom.finance_freedom_backend.model.core.User;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface LinkedAccountRepository extends JpaRepository<LinkedAccount, UUID> {
     List<LinkedAccount> findByUser(User user);
     LinkedAccount findByAccountId(Integer linkedAccountId);
+    @Query("SELECT a FROM LinkedAccount a WHERE a.accountId = :accountId AND a.user.userId = :userId")
+    LinkedAccount findByAccountIdAndUserId(@Param("accountId") Integer linkedAccountId, @Param("userId") Integer userId);
+    boolean existsByAccountId(Integer linkedAccountId);
+
+    @Transactional
+    @Query(value = """
+            UPDATE linked_accounts SET
+                account_name = COALESCE(CAST(:accountName AS varchar), account_name),
+                account_type = COALESCE(CAST(:accountType AS varchar), account_type),
+                access_token = COALESCE(CAST(:accessToken AS varchar), access_token),
+                institution_name = COALESCE(CAST(:institutionName AS varchar), institution_name),
+                balance = COALESCE(CAST(:balance AS numeric), balance),
+                last_update = :lastUpdate
+            WHERE account_id = :accountId AND user_id = :userId
+            RETURNING *
+            """, nativeQuery = true)
+    LinkedAccount updateByAccountIdAndUserId(@Param("accountId") Integer linkedAccountId,
+                                             @Param("userId") Integer userId,
+                                             @Param("accountName") String accountName,
+                                             @Param("accountType") String accountType,
+                                             @Param("accessToken") String accessToken,
+                                             @Param("institutionName") String institutionName,
+                                             @Param("balance") BigDecimal balance,
+                                             @Param("lastUpdate") LocalDateTime lastUpdate);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM linked_accounts WHERE account_id = :accountId AND user_id = :userId", nativeQuery = true)
+    int deleteByAccountIdAndUserId(@Param("accountId") Integer linkedAccountId, @Param("userId") Integer userId);
 }
@@ -2,16 +2,36 @@ package finance.freedom.finance_freedom_backend.repository;
 
 import finance.freedom.finance_freedom_backend.model.core.RefreshToken;
 import finance.freedom.finance_freedom_backend.model.core.User;
+import finance.freedom.finance_freedom_backend.util.TokenHashUtil;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
-    RefreshToken findByRefreshToken(String refreshToken);
+    RefreshToken findByTokenHash(byte[] tokenHash);
+
+    default RefreshToken findByRefreshToken(String refreshToken) {
+        return findByTokenHash(TokenHashUtil.sha256(refreshToken));
+    }
 
     @Modifying
     @Transactional
     void deleteAllByUser(User user);
+
+    // One short batch per transaction; rows another transaction holds are left for the next batch.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE ctid = ANY (ARRAY(SELECT ctid FROM refresh_tokens
+                                    WHERE expires_at < :now
+                                    LIMIT :batchSize
+                                    FOR UPDATE SKIP LOCKED))
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
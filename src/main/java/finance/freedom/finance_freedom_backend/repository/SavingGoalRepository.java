@@ -2,14 +2,58 @@ package finance.freedom.finance_freedom_backend.repository;
 
 import finance.freedom.finance_freedom_backend.model.core.SavingGoal;
 import finance.freedom.finance_freedom_backend.model.core.User;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface SavingGoalRepository extends JpaRepository<SavingGoal, UUID> {
     List<SavingGoal> findByUser(User user);
 
+    @Query("SELECT g.goalId FROM SavingGoal g WHERE g.user.userId = :userId ORDER BY g.goalId")
+    List<Integer> findGoalIdsByUserId(@Param("userId") Integer userId);
+
+    @Query("SELECT g FROM SavingGoal g WHERE g.user.userId = :userId AND g.goalId IN :goalIds")
+    List<SavingGoal> findByUserIdAndGoalIdIn(@Param("userId") Integer userId, @Param("goalIds") Collection<Integer> goalIds);
+
     SavingGoal findByGoalId(Integer savingGoalId);
 
+    @Query("SELECT g FROM SavingGoal g WHERE g.goalId = :goalId AND g.user.userId = :userId")
+    SavingGoal findByGoalIdAndUserId(@Param("goalId") Integer savingGoalId, @Param("userId") Integer userId);
+
+    boolean existsByGoalId(Integer savingGoalId);
+
+    @Transactional
+    @Query(value = """
+            UPDATE savings_goals SET
+                goal_name = COALESCE(CAST(:goalName AS varchar), goal_name),
+                current_amount = COALESCE(CAST(:currentAmount AS numeric), current_amount),
+                target_amount = COALESCE(CAST(:targetAmount AS numeric), target_amount),
+                completion_date = COALESCE(CAST(:completionDate AS timestamp), completion_date),
+                is_completed = is_completed OR :completed,
+                target_date = COALESCE(CAST(:targetDate AS timestamp), target_date)
+            WHERE goal_id = :goalId AND user_id = :userId
+            RETURNING *
+            """, nativeQuery = true)
+    SavingGoal updateByGoalIdAndUserId(@Param("goalId") Integer savingGoalId,
+                                       @Param("userId") Integer userId,
+                                       @Param("goalName") String goalName,
+                                       @Param("currentAmount") BigDecimal currentAmount,
+                                       @Param("targetAmount") BigDecimal targetAmount,
+                                       @Param("completionDate") LocalDateTime completionDate,
+                                       @Param("completed") boolean completed,
+                                       @Param("targetDate") LocalDateTime targetDate);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM savings_goals WHERE goal_id = :goalId AND user_id = :userId", nativeQuery = true)
+    int deleteByGoalIdAndUserId(@Param("goalId") Integer savingGoalId, @Param("userId") Integer userId);
+
 }
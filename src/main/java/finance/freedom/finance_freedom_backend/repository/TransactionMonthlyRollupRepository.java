@@ -0,0 +1,55 @@
+package finance.freedom.finance_freedom_backend.repository;
+
+import finance.freedom.finance_freedom_backend.model.core.TransactionMonthlyRollup;
+import finance.freedom.finance_freedom_backend.model.core.TransactionMonthlyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface TransactionMonthlyRollupRepository extends JpaRepository<TransactionMonthlyRollup, TransactionMonthlyRollupId> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO transaction_monthly_rollup (user_id, month, category, transaction_type, total, transaction_count)
+            VALUES (:userId, CAST(date_trunc('month', CAST(:transactionDate AS timestamp)) AS date), :category, :transactionType, :amount, :count)
+            ON CONFLICT (user_id, month, category, transaction_type) DO UPDATE
+                SET total = transaction_monthly_rollup.total + EXCLUDED.total,
+                    transaction_count = transaction_monthly_rollup.transaction_count + EXCLUDED.transaction_count
+            """, nativeQuery = true)
+    int applyDelta(@Param("userId") Integer userId,
+                   @Param("transactionDate") LocalDateTime transactionDate,
+                   @Param("category") String category,
+                   @Param("transactionType") String transactionType,
+                   @Param("amount") BigDecimal amount,
+                   @Param("count") long count);
+
+    @Query(value = "SELECT COALESCE(MAX(user_id), 0) FROM users", nativeQuery = true)
+    int findMaxUserId();
+
+    @Modifying
+    @Query(value = """
+            WITH fresh AS (
+                SELECT user_id, CAST(date_trunc('month', transaction_date) AS date) AS month, category, transaction_type,
+                       SUM(amount) AS total, COUNT(*) AS transaction_count
+                FROM transactions
+                WHERE user_id >= :fromUserId AND user_id < :toUserId
+                GROUP BY 1, 2, 3, 4
+            ), stale AS (
+                DELETE FROM transaction_monthly_rollup r
+                WHERE r.user_id >= :fromUserId AND r.user_id < :toUserId
+                  AND NOT EXISTS (SELECT 1 FROM fresh f
+                                  WHERE f.user_id = r.user_id AND f.month = r.month
+                                    AND f.category = r.category AND f.transaction_type = r.transaction_type)
+            )
+            INSERT INTO transaction_monthly_rollup (user_id, month, category, transaction_type, total, transaction_count)
+            SELECT user_id, month, category, transaction_type, total, transaction_count FROM fresh
+            ON CONFLICT (user_id, month, category, transaction_type) DO UPDATE
+                SET total = EXCLUDED.total,
+                    transaction_count = EXCLUDED.transaction_count
+            """, nativeQuery = true)
+    int rebuildUserRange(@Param("fromUserId") int fromUserId, @Param("toUserId") int toUserId);
+}
@@ -1,11 +1,110 @@
 package finance.freedom.finance_freedom_backend.repository;
 
 import finance.freedom.finance_freedom_backend.model.core.Transaction;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
     Transaction findByTransactionId(Integer transactionId);
 
+    @Query("SELECT t FROM Transaction t WHERE t.transactionId = :transactionId AND t.user.userId = :userId")
+    Transaction findByTransactionIdAndUserId(@Param("transactionId") Integer transactionId, @Param("userId") Integer userId);
+
+    boolean existsByTransactionId(Integer transactionId);
+
+    @Query("SELECT t FROM Transaction t WHERE t.user.userId = :userId AND t.transactionId IN :transactionIds")
+    List<Transaction> findByUserIdAndTransactionIdIn(@Param("userId") Integer userId, @Param("transactionIds") Collection<Integer> transactionIds);
+
+    // Both statements move the row's amount and count between transaction_monthly_rollup buckets in the same round trip.
+    @Transactional
+    @Query(value = """
+            WITH old AS (
+                SELECT transaction_id, user_id, amount, category, transaction_type, transaction_date
+                FROM transactions
+                WHERE transaction_id = :transactionId AND user_id = :userId
+                FOR UPDATE
+            ), updated AS (
+                UPDATE transactions t SET
+                    amount = COALESCE(CAST(:amount AS numeric), t.amount),
+                    category = COALESCE(CAST(:category AS varchar), t.category),
+                    description = COALESCE(CAST(:description AS varchar), t.description),
+                    transaction_type = COALESCE(CAST(:transactionType AS varchar), t.transaction_type),
+                    transaction_date = COALESCE(CAST(:transactionDate AS timestamp), t.transaction_date),
+                    recurrence_interval = COALESCE(CAST(:recurrenceInterval AS varchar), t.recurrence_interval)
+                FROM old
+                WHERE t.transaction_id = old.transaction_id
+                RETURNING t.*
+            ), delta AS (
+                SELECT user_id, CAST(date_trunc('month', transaction_date) AS date) AS month, category, transaction_type,
+                       SUM(amount) AS total, SUM(change) AS transaction_count
+                FROM (SELECT user_id, transaction_date, category, transaction_type, -amount AS amount, -1 AS change FROM old
+                      UNION ALL
+                      SELECT user_id, transaction_date, category, transaction_type, amount, 1 FROM updated) changes
+                GROUP BY 1, 2, 3, 4
+            ), rollup AS (
+                INSERT INTO transaction_monthly_rollup (user_id, month, category, transaction_type, total, transaction_count)
+                SELECT user_id, month, category, transaction_type, total, transaction_count FROM delta
+                ON CONFLICT (user_id, month, category, transaction_type) DO UPDATE
+                    SET total = transaction_monthly_rollup.total + EXCLUDED.total,
+                        transaction_count = transaction_monthly_rollup.transaction_count + EXCLUDED.transaction_count
+            )
+            SELECT * FROM updated
+            """, nativeQuery = true)
+    Transaction updateByTransactionIdAndUserId(@Param("transactionId") Integer transactionId,
+                                               @Param("userId") Integer userId,
+                                               @Param("amount") BigDecimal amount,
+                                               @Param("category") String category,
+                                               @Param("description") String description,
+                                               @Param("transactionType") String transactionType,
+                                               @Param("transactionDate") LocalDateTime transactionDate,
+                                               @Param("recurrenceInterval") String recurrenceInterval);
+
+    @Transactional
+    @Query(value = """
+            WITH deleted AS (
+                DELETE FROM transactions
+                WHERE transaction_id = :transactionId AND user_id = :userId
+                RETURNING user_id, transaction_date, category, transaction_type, amount
+            ), rollup AS (
+                INSERT INTO transaction_monthly_rollup (user_id, month, category, transaction_type, total, transaction_count)
+                SELECT user_id, CAST(date_trunc('month', transaction_date) AS date), category, transaction_type, -amount, -1
+                FROM deleted
+                ON CONFLICT (user_id, month, category, transaction_type) DO UPDATE
+                    SET total = transaction_monthly_rollup.total + EXCLUDED.total,
+                        transaction_count = transaction_monthly_rollup.transaction_count + EXCLUDED.transaction_count
+            )
+            SELECT COUNT(*) FROM deleted
+            """, nativeQuery = true)
+    int deleteByTransactionIdAndUserId(@Param("transactionId") Integer transactionId, @Param("userId") Integer userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Transaction t SET t.nextOccurrenceDate = :nextOccurrenceDate WHERE t.transactionId = :transactionId")
+    int updateNextOccurrenceDate(@Param("transactionId") Integer transactionId, @Param("nextOccurrenceDate") LocalDateTime nextOccurrenceDate);
+
+    // SKIP LOCKED lets every node claim its own due templates without waiting on, or double-posting, another node's.
+    @Query(value = """
+            SELECT * FROM transactions
+            WHERE is_recurring AND next_occurrence_date <= :now
+              AND MOD(user_id, :partitions) = :partition
+            ORDER BY next_occurrence_date
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Transaction> claimDueRecurring(@Param("now") LocalDateTime now,
+                                        @Param("partitions") int partitions,
+                                        @Param("partition") int partition,
+                                        @Param("limit") int limit);
+
+    @Query("SELECT t.recurrenceSourceId, t.transactionDate FROM Transaction t WHERE t.recurrenceSourceId IN :sourceIds AND t.transactionDate >= :from")
+    List<Object[]> findOccurrenceDates(@Param("sourceIds") Collection<Integer> sourceIds, @Param("from") LocalDateTime from);
 }
@@ -9,4 +9,6 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
 
     User findByEmail(String email);
+
+    User findByUserId(Integer userId);
 }
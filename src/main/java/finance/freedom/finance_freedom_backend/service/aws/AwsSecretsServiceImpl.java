@@ -1,85 +1,231 @@
 package finance.freedom.finance_freedom_backend.service.aws;
 
 
+import finance.freedom.finance_freedom_backend.enums.SecretType;
 import finance.freedom.finance_freedom_backend.interfaces.aws.IAwsSecretsService;
 import finance.freedom.finance_freedom_backend.model.aws.AwsCredentialsRDS;
 import com.google.gson.Gson;
 import finance.freedom.finance_freedom_backend.model.aws.EncryptionDetails;
 import finance.freedom.finance_freedom_backend.model.aws.JWTSecretKey;
 import finance.freedom.finance_freedom_backend.model.aws.JavaMailSenderDetails;
+import finance.freedom.finance_freedom_backend.model.aws.SecretRotatedEvent;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
 import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueResponse;
-
-
+import software.amazon.awssdk.services.secretsmanager.model.SecretsManagerException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Secrets live only in this bean. Reads are volatile field loads, a background refresh swaps in rotated values.
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class AwsSecretsServiceImpl implements IAwsSecretsService {
 
+    private static final String PREVIOUS_VERSION_STAGE = "AWSPREVIOUS";
+
+    private static final int MAX_PREVIOUS_ENCRYPTION_KEYS = 3;
+
+    private final SecretsManagerClient secretsManagerClient;
+
     private final Gson gson;
 
-    @Value("${aws.region}")
-    private String awsRegion;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public String getSecret(String secretName) {
-        SecretsManagerClient client = SecretsManagerClient.builder()
-                .region(Region.of(awsRegion))
-                .credentialsProvider(DefaultCredentialsProvider.create())
-                .build();
+    private final Map<SecretType, String> rawSecrets = new EnumMap<>(SecretType.class);
+
+    private volatile AwsCredentialsRDS rdsConnection;
+
+    private volatile JWTSecretKey secretKey;
+
+    // Tokens signed with the previous key stay valid until they expire, so it is kept along with when it stopped signing.
+    private volatile JWTSecretKey previousSecretKey;
+
+    private volatile Instant secretKeyRotatedAt;
+
+    private volatile JavaMailSenderDetails javaMailSenderInfo;
+
+    private volatile EncryptionDetails encryptionDetails;
+
+    // Stored ciphertexts outlive a rotation, so the keys they were written with are kept newest first.
+    private volatile List<EncryptionDetails> previousEncryptionDetails = List.of();
+
+    @PostConstruct
+    public void loadSecrets() {
+        log.info("Attempting to load {} secrets", SecretType.values().length);
+        Map<SecretType, String> loaded = fetchAll();
+        for (SecretType secretType : SecretType.values()) {
+            String secret = loaded.get(secretType);
+            if (secret == null) {
+                throw new IllegalStateException(String.format("Secret %s could not be loaded", secretType.getSecretId()));
+            }
+            apply(secretType, secret);
+        }
+        loadPreviousEncryptionDetails();
+        loadPreviousSecretKey();
+        log.info("Secrets loaded successfully");
+    }
+
+    // A secret that fails to refresh keeps its current value until the next run.
+    @Scheduled(fixedDelayString = "${aws.secrets.refresh-interval:PT5M}",
+            initialDelayString = "${aws.secrets.refresh-interval:PT5M}")
+    public synchronized void refreshSecrets() {
+        fetchAll().forEach((secretType, secret) -> {
+            if (Objects.equals(secret, rawSecrets.get(secretType))) {
+                return;
+            }
+            apply(secretType, secret);
+            log.info("Secret {} rotated", secretType.getSecretId());
+            eventPublisher.publishEvent(new SecretRotatedEvent(secretType));
+        });
+    }
+
+    private Map<SecretType, String> fetchAll() {
+        Map<SecretType, Future<String>> pending = new EnumMap<>(SecretType.class);
+        Map<SecretType, String> loaded = new EnumMap<>(SecretType.class);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (SecretType secretType : SecretType.values()) {
+                pending.put(secretType, executor.submit(() -> getSecret(secretType.getSecretId())));
+            }
+
+            for (Map.Entry<SecretType, Future<String>> entry : pending.entrySet()) {
+                try {
+                    loaded.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    log.error("Could not load secret {}: {}", entry.getKey().getSecretId(), e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Loading secrets interrupted");
+        }
+        return loaded;
+    }
+
+    // After a restart the in-memory history is gone, so the previous key is read back from its version stage.
+    private void loadPreviousEncryptionDetails() {
+        String secret = getPreviousSecret(SecretType.ENCRYPTION);
+        if (secret != null) {
+            previousEncryptionDetails = List.of(gson.fromJson(secret, EncryptionDetails.class));
+        }
+    }
+
+    // The current version was created when the previous key stopped signing.
+    private void loadPreviousSecretKey() {
+        String secret = getPreviousSecret(SecretType.JWT);
+        if (secret != null) {
+            Instant rotatedAt = getSecretValue(SecretType.JWT.getSecretId(), null).createdDate();
+            previousSecretKey = gson.fromJson(secret, JWTSecretKey.class);
+            secretKeyRotatedAt = rotatedAt != null ? rotatedAt : Instant.now();
+        }
+    }
+
+    private String getPreviousSecret(SecretType secretType) {
+        try {
+            String secret = getSecret(secretType.getSecretId(), PREVIOUS_VERSION_STAGE);
+            return Objects.equals(secret, rawSecrets.get(secretType)) ? null : secret;
+        } catch (SecretsManagerException e) {
+            log.info("No previous version of secret {}: {}", secretType.getSecretId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private String getSecret(String secretName) {
+        return getSecret(secretName, null);
+    }
 
+    private String getSecret(String secretName, String versionStage) {
+        return getSecretValue(secretName, versionStage).secretString();
+    }
+
+    private GetSecretValueResponse getSecretValue(String secretName, String versionStage) {
         GetSecretValueRequest getSecretValueRequest = GetSecretValueRequest.builder()
                 .secretId(secretName)
+                .versionStage(versionStage)
                 .build();
 
-        GetSecretValueResponse getSecretValueResponse;
-
-        getSecretValueResponse = client.getSecretValue(getSecretValueRequest);
+        return secretsManagerClient.getSecretValue(getSecretValueRequest);
+    }
 
-        return getSecretValueResponse.secretString();
+    private void apply(SecretType secretType, String secret) {
+        switch (secretType) {
+            case RDS -> rdsConnection = gson.fromJson(secret, AwsCredentialsRDS.class);
+            case JWT -> rotateSecretKey(gson.fromJson(secret, JWTSecretKey.class));
+            case MAIL -> javaMailSenderInfo = gson.fromJson(secret, JavaMailSenderDetails.class);
+            case ENCRYPTION -> rotateEncryptionDetails(gson.fromJson(secret, EncryptionDetails.class));
+        }
+        rawSecrets.put(secretType, secret);
     }
 
-    @Cacheable(value = "aws-secret", key = "'rds'")
-    public AwsCredentialsRDS getRdsConnection() {
-        String secretName = "RDS-connection-credentials-postgres";
+    private void rotateSecretKey(JWTSecretKey rotated) {
+        JWTSecretKey current = secretKey;
+        if (current != null) {
+            previousSecretKey = current;
+            secretKeyRotatedAt = Instant.now();
+        }
+        secretKey = rotated;
+    }
 
-        String secret = getSecret(secretName);
+    private void rotateEncryptionDetails(EncryptionDetails rotated) {
+        EncryptionDetails current = encryptionDetails;
+        if (current != null) {
+            List<EncryptionDetails> previous = new ArrayList<>(MAX_PREVIOUS_ENCRYPTION_KEYS + 1);
+            previous.add(current);
+            previous.addAll(previousEncryptionDetails);
+            previousEncryptionDetails = List.copyOf(previous.subList(0, Math.min(previous.size(), MAX_PREVIOUS_ENCRYPTION_KEYS)));
+        }
+        encryptionDetails = rotated;
+    }
 
-        return gson.fromJson(secret, AwsCredentialsRDS.class);
+    @Override
+    public AwsCredentialsRDS getRdsConnection() {
+        return rdsConnection;
     }
 
-    @Cacheable(value = "aws-secret", key = "'jwt'")
+    @Override
     public JWTSecretKey getSecretKey() {
-        String secretName = "jwt-secret-key";
+        return secretKey;
+    }
 
-        String secret = getSecret(secretName);
+    @Override
+    public JWTSecretKey getPreviousSecretKey() {
+        return previousSecretKey;
+    }
 
-        return gson.fromJson(secret, JWTSecretKey.class);
+    @Override
+    public Instant getSecretKeyRotatedAt() {
+        return secretKeyRotatedAt;
     }
 
-    @Cacheable(value = "aws-secret", key = "'mail'")
+    @Override
     public JavaMailSenderDetails getJavaMailSenderInfo() {
-        String secretName = "java-mail-sender-info";
-
-        String secret = getSecret(secretName);
-
-        return gson.fromJson(secret, JavaMailSenderDetails.class);
+        return javaMailSenderInfo;
     }
-    @Cacheable(value = "aws-secret", key = "'encryption'")
+
     @Override
     public EncryptionDetails getEncryptionDetails() {
-        String secretName = "Encryption-data";
-
-        String secret = getSecret(secretName);
+        return encryptionDetails;
+    }
 
-        return gson.fromJson(secret, EncryptionDetails.class);
+    @Override
+    public List<EncryptionDetails> getPreviousEncryptionDetails() {
+        return previousEncryptionDetails;
     }
 
 }
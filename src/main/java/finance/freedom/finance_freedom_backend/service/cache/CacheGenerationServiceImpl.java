@@ -0,0 +1,134 @@
+package finance.freedom.finance_freedom_backend.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import finance.freedom.finance_freedom_backend.cache.CacheInvalidationBus;
+import finance.freedom.finance_freedom_backend.cache.RedisCircuitBreaker;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICacheGenerationService;
+import finance.freedom.finance_freedom_backend.util.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class CacheGenerationServiceImpl implements ICacheGenerationService {
+
+    private static final String GENERATION_KEY_PREFIX = "cache-gen:";
+
+    private static final String GENERATION_CHANNEL_NAME = "cache-gen";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final CacheInvalidationBus invalidationBus;
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    // Generations only grow, so merging with max makes a late Redis read unable to roll a newer one back.
+    private final Cache<Integer, Long> localGenerations;
+
+    // Bumps Redis never saw because it was unreachable, or every generation when Redis is switched off.
+    private final Map<Integer, Long> localOnlyGenerations = new ConcurrentHashMap<>();
+
+    public CacheGenerationServiceImpl(StringRedisTemplate redisTemplate,
+                                      CacheInvalidationBus invalidationBus,
+                                      RedisCircuitBreaker circuitBreaker,
+                                      @Value("${cache.local.ttl:PT30S}") Duration localTtl) {
+        this.redisTemplate = redisTemplate;
+        this.invalidationBus = invalidationBus;
+        this.circuitBreaker = circuitBreaker;
+        this.localGenerations = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(localTtl)
+                .build();
+
+        invalidationBus.register(GENERATION_CHANNEL_NAME, this::onRemoteBump);
+        circuitBreaker.onRecovery(this::replayLocalBumps);
+    }
+
+    @Override
+    public long currentGeneration(Integer userId) {
+        return localGenerations.get(userId, this::readGeneration);
+    }
+
+    @Override
+    public void bumpGeneration(Integer userId) {
+        TransactionCallbacks.afterCommit(() -> increment(userId));
+    }
+
+    private long readGeneration(Integer userId) {
+        long localOnly = localOnlyGenerations.getOrDefault(userId, 0L);
+        if (!circuitBreaker.allowRequest()) {
+            return localOnly;
+        }
+        String generation;
+        try {
+            generation = redisTemplate.opsForValue().get(GENERATION_KEY_PREFIX + userId);
+        } catch (RuntimeException e) {
+            log.warn("Could not read cache generation for user {}: {}", userId, e.getMessage());
+            circuitBreaker.recordFailure(e);
+            return localOnly;
+        }
+        circuitBreaker.recordSuccess();
+        // Until the local bumps are replayed Redis can still be behind what this node handed out.
+        return Math.max(generation == null ? 0 : Long.parseLong(generation), localOnly);
+    }
+
+    private void increment(Integer userId) {
+        if (circuitBreaker.allowRequest()) {
+            try {
+                Long generation = redisTemplate.opsForValue().increment(GENERATION_KEY_PREFIX + userId);
+                circuitBreaker.recordSuccess();
+                advance(userId, generation);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Could not bump cache generation for user {}: {}", userId, e.getMessage());
+                circuitBreaker.recordFailure(e);
+            }
+        }
+
+        // Without Redis the bump only reaches this node, the others catch up through their local TTL.
+        long generation = currentGeneration(userId) + 1;
+        localOnlyGenerations.merge(userId, generation, Math::max);
+        localGenerations.asMap().merge(userId, generation, Math::max);
+    }
+
+    // Jumping Redis by the local generation keeps it ahead of every generation this node used during the outage.
+    private void replayLocalBumps() {
+        for (Map.Entry<Integer, Long> entry : localOnlyGenerations.entrySet()) {
+            if (!circuitBreaker.allowRequest()) {
+                return;
+            }
+            try {
+                Long generation = redisTemplate.opsForValue().increment(GENERATION_KEY_PREFIX + entry.getKey(), entry.getValue());
+                circuitBreaker.recordSuccess();
+                localOnlyGenerations.remove(entry.getKey(), entry.getValue());
+                advance(entry.getKey(), generation);
+            } catch (RuntimeException e) {
+                log.warn("Could not replay cache generation for user {}: {}", entry.getKey(), e.getMessage());
+                circuitBreaker.recordFailure(e);
+            }
+        }
+    }
+
+    private void advance(Integer userId, Long generation) {
+        if (generation == null) {
+            localGenerations.invalidate(userId);
+            return;
+        }
+
+        localGenerations.asMap().merge(userId, generation, Math::max);
+        invalidationBus.publish(GENERATION_CHANNEL_NAME, userId + ":" + generation);
+        log.debug("Cache generation for user {} moved to {}", userId, generation);
+    }
+
+    private void onRemoteBump(String message) {
+        String[] parts = message.split(":");
+        localGenerations.asMap().merge(Integer.valueOf(parts[0]), Long.valueOf(parts[1]), Math::max);
+    }
+}
@@ -0,0 +1,111 @@
+package finance.freedom.finance_freedom_backend.service.cache;
+
+import finance.freedom.finance_freedom_backend.cache.CachePrefetchTracker;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICachePrefetchService;
+import finance.freedom.finance_freedom_backend.interfaces.core.IBudgetService;
+import finance.freedom.finance_freedom_backend.interfaces.core.ISavingGoalService;
+import finance.freedom.finance_freedom_backend.interfaces.core.ITransactionService;
+import finance.freedom.finance_freedom_backend.interfaces.core.IUserService;
+import finance.freedom.finance_freedom_backend.model.core.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+@Service
+@Slf4j
+public class CachePrefetchServiceImpl implements ICachePrefetchService {
+
+    private final IUserService userService;
+
+    private final IBudgetService budgetService;
+
+    private final ISavingGoalService savingGoalService;
+
+    private final ITransactionService transactionService;
+
+    private final CachePrefetchTracker prefetchTracker;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Caps concurrent prefetches so a login storm can't take every database connection away from real requests.
+    private final Semaphore permits;
+
+    private final Counter started;
+
+    private final Counter skipped;
+
+    public CachePrefetchServiceImpl(IUserService userService,
+                                    IBudgetService budgetService,
+                                    ISavingGoalService savingGoalService,
+                                    ITransactionService transactionService,
+                                    CachePrefetchTracker prefetchTracker,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${cache.prefetch.max-concurrent:16}") int maxConcurrent) {
+        this.userService = userService;
+        this.budgetService = budgetService;
+        this.savingGoalService = savingGoalService;
+        this.transactionService = transactionService;
+        this.prefetchTracker = prefetchTracker;
+        this.permits = new Semaphore(maxConcurrent);
+        this.started = prefetches(meterRegistry, "started");
+        this.skipped = prefetches(meterRegistry, "skipped");
+    }
+
+    private static Counter prefetches(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.prefetch.logins")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Never blocks the caller: without a free permit the prefetch is dropped and the endpoints load on first use.
+    @Override
+    public void prefetch(User user) {
+        if (!permits.tryAcquire()) {
+            skipped.increment();
+            log.debug("Skipping cache prefetch for user {}, too many prefetches running", user.getUserId());
+            return;
+        }
+        started.increment();
+        try {
+            executor.execute(() -> {
+                try {
+                    prefetchTracker.prefetch(() -> warm(user));
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            log.warn("Could not start cache prefetch for user {}: {}", user.getUserId(), e.getMessage());
+        }
+    }
+
+    // Every read goes through the caching services, so entries that are already warm are served from the cache instead of reloaded.
+    private void warm(User user) {
+        log.debug("Attempting to prefetch caches for user {}", user.getUserId());
+        warmStep(user, "user details", () -> userService.getUserDetails(user));
+        warmStep(user, "budgets", () -> budgetService.getBudgetsByUser(user));
+        warmStep(user, "saving goals", () -> savingGoalService.getSavingGoal(user));
+        warmStep(user, "recent transactions", () -> transactionService.getTransactionPage(user, null, null, null, null, null));
+    }
+
+    private void warmStep(User user, String step, Runnable read) {
+        try {
+            read.run();
+        } catch (RuntimeException e) {
+            log.warn("Prefetch of {} for user {} failed: {}", step, user.getUserId(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -4,7 +4,9 @@ import finance.freedom.finance_freedom_backend.dto.email.EmailVerificationTokenD
 import finance.freedom.finance_freedom_backend.dto.user.*;
 import finance.freedom.finance_freedom_backend.enums.TokenPurpose;
 import finance.freedom.finance_freedom_backend.exception.customexceptions.UserNotFoundException;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICachePrefetchService;
 import finance.freedom.finance_freedom_backend.interfaces.core.IAuthService;
+import finance.freedom.finance_freedom_backend.interfaces.core.IUserActivityService;
 import finance.freedom.finance_freedom_backend.interfaces.email.IEmailService;
 import finance.freedom.finance_freedom_backend.interfaces.jwt.IJWTService;
 import finance.freedom.finance_freedom_backend.model.core.RefreshToken;
@@ -15,6 +17,7 @@ import finance.freedom.finance_freedom_backend.model.security.JWT;
 import finance.freedom.finance_freedom_backend.repository.RefreshTokenRepository;
 import finance.freedom.finance_freedom_backend.repository.UserRepository;
 import finance.freedom.finance_freedom_backend.util.PasswordUtil;
+import finance.freedom.finance_freedom_backend.util.TokenHashUtil;
 import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -44,6 +47,10 @@ public class AuthServiceImpl implements IAuthService {
 
     private final PasswordUtil passwordUtil;
 
+    private final ICachePrefetchService cachePrefetchService;
+
+    private final IUserActivityService userActivityService;
+
     @Override
     public CreateUserResponseDTO save(CreateUserDTO userDTO) throws MessagingException {
         log.info("Attempting to save user {}", userDTO.getEmail());
@@ -93,7 +100,7 @@ public class AuthServiceImpl implements IAuthService {
 
                RefreshToken token = new RefreshToken();
 
-               token.setRefreshToken(refreshToken.getToken());
+               token.setTokenHash(TokenHashUtil.sha256(refreshToken.getToken()));
                token.setUser(user);
                token.setCreatedAt(LocalDateTime.now());
 
@@ -112,7 +119,7 @@ public class AuthServiceImpl implements IAuthService {
 
             user.setLastLoginAt(LocalDateTime.now());
 
-            userRepository.save(user);
+            userActivityService.recordLogin(user.getUserId(), user.getLastLoginAt());
 
             authenticatedUserResponseDTO.setUserId(user.getUserId());
             authenticatedUserResponseDTO.setEmail(user.getEmail());
@@ -120,6 +127,9 @@ public class AuthServiceImpl implements IAuthService {
             authenticatedUserResponseDTO.setAccessToken(accessToken.getToken());
             authenticatedUserResponseDTO.setExpiresAt(accessToken.getExpiresAt());
 
+            // The client asks for these right after logging in, so start loading them while the response goes out.
+            cachePrefetchService.prefetch(user);
+
             log.info("User {} logged in successfully", user.getEmail());
 
             return authenticatedUserResponseDTO;
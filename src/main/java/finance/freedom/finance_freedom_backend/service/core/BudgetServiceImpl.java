@@ -1,9 +1,13 @@
 package finance.freedom.finance_freedom_backend.service.core;
 
+import finance.freedom.finance_freedom_backend.cache.EntityCache;
 import finance.freedom.finance_freedom_backend.dto.budget.BudgetResponseDTO;
+import finance.freedom.finance_freedom_backend.dto.budget.BudgetStatusDTO;
 import finance.freedom.finance_freedom_backend.dto.budget.CreateBudgetDTO;
 import finance.freedom.finance_freedom_backend.dto.budget.UpdateBudgetDTO;
+import finance.freedom.finance_freedom_backend.enums.CategoryType;
 import finance.freedom.finance_freedom_backend.exception.customexceptions.BudgetNotFoundException;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICacheGenerationService;
 import finance.freedom.finance_freedom_backend.interfaces.core.IBudgetService;
 import finance.freedom.finance_freedom_backend.model.core.Budget;
 import finance.freedom.finance_freedom_backend.model.core.User;
@@ -15,6 +19,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,8 +34,14 @@ import java.util.UUID;
 @Slf4j
 public class BudgetServiceImpl implements IBudgetService {
 
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
     private final BudgetRepository budgetRepository;
 
+    private final ICacheGenerationService cacheGenerationService;
+
+    private final EntityCache<BudgetResponseDTO> budgetEntityCache;
+
 
     @Override
     public BudgetResponseDTO save(User user, CreateBudgetDTO createBudgetDTO) {
@@ -41,6 +56,7 @@ public class BudgetServiceImpl implements IBudgetService {
         budget.setUser(user);
 
         budgetRepository.save(budget);
+        cacheGenerationService.bumpGeneration(user.getUserId());
         log.info("Budget saved successfully {}", budget.getBudgetId());
         return createDTO(budget);
     }
@@ -48,30 +64,32 @@ public class BudgetServiceImpl implements IBudgetService {
     @Override
     public BudgetResponseDTO getById(User user, Integer budgetId) {
         log.info("Attempting to get budget by id {}", budgetId);
-        Budget budget = budgetRepository.findByBudgetId(budgetId);
+        BudgetResponseDTO cached = budgetEntityCache.get(user.getUserId(), budgetId);
+        if (cached != null) {
+            log.info("Budget found in cache {}", budgetId);
+            return cached;
+        }
+
+        Budget budget = budgetRepository.findByBudgetIdAndUserId(budgetId, user.getUserId());
 
         if (budget == null) {
-            log.warn("Budget not found for id: {}", budgetId);
-            throw new BudgetNotFoundException("Budget not found");
+            throw budgetMissOrDenied(user, budgetId);
         }
-        AuthorizationUtils.validateOwnership(budget.getUser().getUserId(), user.getUserId());
+        BudgetResponseDTO budgetResponseDTO = createDTO(budget);
+        budgetEntityCache.fill(user.getUserId(), Map.of(budgetId, budgetResponseDTO));
+
         log.info("Budget found successfully {}", budget.getBudgetId());
-        return createDTO(budget);
+        return budgetResponseDTO;
     }
 
     @Override
     public GenericResponse deleteById(User user, Integer budgetId) {
         log.info("Attempting to delete budget by id {}", budgetId);
-        Budget budget = budgetRepository.findByBudgetId(budgetId);
-
-        if (budget == null) {
-            log.warn("Budget not found for id: {}", budgetId);
-            throw new BudgetNotFoundException("Budget not found");
+        if (budgetRepository.deleteByBudgetIdAndUserId(budgetId, user.getUserId()) == 0) {
+            throw budgetMissOrDenied(user, budgetId);
         }
-
-        AuthorizationUtils.validateOwnership(budget.getUser().getUserId(), user.getUserId());
-
-        budgetRepository.delete(budget);
+        budgetEntityCache.evict(user.getUserId(), budgetId);
+        cacheGenerationService.bumpGeneration(user.getUserId());
 
         log.info("Budget deleted successfully {}", budgetId);
 
@@ -82,59 +100,96 @@ public class BudgetServiceImpl implements IBudgetService {
     @Override
     public BudgetResponseDTO update(User user, Integer budgetId, UpdateBudgetDTO updateBudgetDTO) {
         log.info("Attempting to update budget by id {}", budgetId);
-        Budget budget = budgetRepository.findByBudgetId(budgetId);
+        Budget budget = budgetRepository.updateByBudgetIdAndUserId(
+                budgetId,
+                user.getUserId(),
+                updateBudgetDTO.getBudgetAmount(),
+                updateBudgetDTO.getCategory() == null ? null : updateBudgetDTO.getCategory().name(),
+                updateBudgetDTO.getStartDate(),
+                updateBudgetDTO.getEndDate(),
+                updateBudgetDTO.getNotifyThresholdPercentage());
 
         if (budget == null) {
-            log.warn("Budget not found for id: {}", budgetId);
-            throw new BudgetNotFoundException("Budget not found");
-        }
-
-        AuthorizationUtils.validateOwnership(budget.getUser().getUserId(), user.getUserId());
-
-        if(updateBudgetDTO.getBudgetAmount() != null) {
-            budget.setBudgetAmount(updateBudgetDTO.getBudgetAmount());
-        }
-
-        if(updateBudgetDTO.getCategory() != null) {
-            budget.setCategory(updateBudgetDTO.getCategory());
-        }
-        if(updateBudgetDTO.getEndDate() != null) {
-            budget.setEndDate(updateBudgetDTO.getEndDate());
-        }
-        if(updateBudgetDTO.getStartDate() != null) {
-            budget.setStartDate(updateBudgetDTO.getStartDate());
+            throw budgetMissOrDenied(user, budgetId);
         }
-        if(updateBudgetDTO.getNotifyThresholdPercentage() != null) {
-            budget.setNotifyThresholdPercentage(updateBudgetDTO.getNotifyThresholdPercentage());
-        }
-
-        budgetRepository.save(budget);
+        BudgetResponseDTO budgetResponseDTO = createDTO(budget);
+        budgetEntityCache.put(user.getUserId(), budgetId, budgetResponseDTO);
+        cacheGenerationService.bumpGeneration(user.getUserId());
 
         log.info("Budget updated successfully {}", budget.getBudgetId());
 
-        return createDTO(budget);
+        return budgetResponseDTO;
     }
 
-    @Cacheable(value = "budget", key = "#user.userId")
     @Override
     public Map<Integer, BudgetResponseDTO> getBudgetsByUser(User user) {
         log.info("Attempting to get budgets for user {}", user.getEmail());
-        List<Budget> budgets = budgetRepository.findByUser(user);
+        List<Integer> budgetIds = budgetRepository.findBudgetIdsByUserId(user.getUserId());
 
-        if(budgets.isEmpty()) {
+        if(budgetIds.isEmpty()) {
             log.warn("Budgets for user not found");
             throw new BudgetNotFoundException("Budgets for user not found");
         }
 
-        Map<Integer, BudgetResponseDTO> result = new HashMap<>();
+        Map<Integer, BudgetResponseDTO> result = budgetEntityCache.getAll(user.getUserId(), budgetIds, missing -> {
+            Map<Integer, BudgetResponseDTO> loaded = new HashMap<>();
+            for (Budget budget : budgetRepository.findByUserIdAndBudgetIdIn(user.getUserId(), missing)) {
+                loaded.put(budget.getBudgetId(), createDTO(budget));
+            }
+            return loaded;
+        });
+        log.info("Budgets found successfully");
+        return result;
+    }
+
+    @Cacheable(value = "budgetStatus", keyGenerator = "userGenerationKeyGenerator", sync = true)
+    @Override
+    public List<BudgetStatusDTO> getBudgetStatus(User user) {
+        log.info("Attempting to get budget status for user {}", user.getEmail());
+        List<Object[]> rows = budgetRepository.findSpendByUserId(user.getUserId());
 
-        for(Budget budget : budgets) {
-            result.put(budget.getBudgetId(), createDTO(budget));
+        if (rows.isEmpty()) {
+            log.warn("Budgets for user not found");
+            throw new BudgetNotFoundException("Budgets for user not found");
         }
-        log.info("Budgets found successfully");
+
+        List<BudgetStatusDTO> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            BigDecimal budgetAmount = (BigDecimal) row[2];
+            BigDecimal notifyThresholdPercentage = (BigDecimal) row[5];
+            BigDecimal spent = (BigDecimal) row[6];
+
+            BigDecimal percentUsed = budgetAmount.signum() == 0
+                    ? (spent.signum() > 0 ? ONE_HUNDRED : BigDecimal.ZERO)
+                    : spent.multiply(ONE_HUNDRED).divide(budgetAmount, 2, RoundingMode.HALF_UP);
+
+            result.add(new BudgetStatusDTO(
+                    ((Number) row[0]).intValue(),
+                    CategoryType.valueOf((String) row[1]),
+                    budgetAmount,
+                    toLocalDateTime(row[3]),
+                    toLocalDateTime(row[4]),
+                    spent,
+                    budgetAmount.subtract(spent),
+                    percentUsed,
+                    percentUsed.compareTo(notifyThresholdPercentage) >= 0));
+        }
+        log.info("Budget status found successfully for {} budgets", result.size());
         return result;
     }
 
+    private LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    private BudgetNotFoundException budgetMissOrDenied(User user, Integer budgetId) {
+        AuthorizationUtils.denyIfResourceExists(budgetRepository.existsByBudgetId(budgetId), user.getUserId());
+        log.warn("Budget not found for id: {}", budgetId);
+        return new BudgetNotFoundException("Budget not found");
+    }
 
     public BudgetResponseDTO createDTO(Budget budget) {
         BudgetResponseDTO budgetResponseDTO = new BudgetResponseDTO();
@@ -73,32 +73,19 @@ public class LinkedAccountServiceImpl implements ILinkedAccountService {
     public LinkedAccountResponseDTO updateLinkedAccount(User user, Integer linkedAccountId, UpdateLinkedAccountDTO linkedAccountUpdateDTO) {
         log.info("Attempting to update linked account by id {}", linkedAccountId);
 
-        LinkedAccount linkedAccount = linkedAccountRepository.findByAccountId(linkedAccountId);
+        LinkedAccount linkedAccount = linkedAccountRepository.updateByAccountIdAndUserId(
+                linkedAccountId,
+                user.getUserId(),
+                linkedAccountUpdateDTO.getAccountName(),
+                linkedAccountUpdateDTO.getAccountType() == null ? null : linkedAccountUpdateDTO.getAccountType().name(),
+                linkedAccountUpdateDTO.getAccessToken(),
+                linkedAccountUpdateDTO.getInstitutionName(),
+                linkedAccountUpdateDTO.getBalance(),
+                LocalDateTime.now());
 
         if (linkedAccount == null) {
-            log.warn("Linked account not found for id: {}", linkedAccountId);
-            throw new LinkedAccountNotFoundException("Linked account not found");
+            throw linkedAccountMissOrDenied(user, linkedAccountId);
         }
-        AuthorizationUtils.validateOwnership(linkedAccount.getUser().getUserId(), user.getUserId());
-
-        if(linkedAccountUpdateDTO.getAccountName() != null) {
-            linkedAccount.setAccountName(linkedAccountUpdateDTO.getAccountName());
-        }
-        if(linkedAccountUpdateDTO.getAccountType() != null) {
-            linkedAccount.setAccountType(linkedAccountUpdateDTO.getAccountType());
-        }
-        if(linkedAccountUpdateDTO.getAccessToken() != null) {
-            linkedAccount.setAccessToken(linkedAccountUpdateDTO.getAccessToken());
-        }
-        if(linkedAccountUpdateDTO.getInstitutionName() != null) {
-            linkedAccount.setInstitutionName(linkedAccountUpdateDTO.getInstitutionName());
-        }
-        if(linkedAccountUpdateDTO.getBalance() != null) {
-            linkedAccount.setBalance(linkedAccountUpdateDTO.getBalance());
-        }
-        linkedAccount.setLastUpdate(LocalDateTime.now());
-
-        linkedAccountRepository.save(linkedAccount);
 
         log.info("Linked account updated successfully {}", linkedAccount.getAccountId());
 
@@ -108,13 +95,11 @@ public class LinkedAccountServiceImpl implements ILinkedAccountService {
     @Override
     public LinkedAccountResponseDTO getLinkedAccountById(User user, Integer linkedAccountId) {
         log.info("Attempting to get linked account by id {}", linkedAccountId);
-        LinkedAccount linkedAccount = linkedAccountRepository.findByAccountId(linkedAccountId);
+        LinkedAccount linkedAccount = linkedAccountRepository.findByAccountIdAndUserId(linkedAccountId, user.getUserId());
 
         if (linkedAccount == null) {
-            log.warn("Linked account not found for id: {}", linkedAccountId);
-            throw new LinkedAccountNotFoundException("Linked account not found");
+            throw linkedAccountMissOrDenied(user, linkedAccountId);
         }
-        AuthorizationUtils.validateOwnership(linkedAccount.getUser().getUserId(), user.getUserId());
 
         log.info("Linked account found successfully {}", linkedAccount.getAccountId());
         return createDTO(linkedAccount);
@@ -131,18 +116,19 @@ public class LinkedAccountServiceImpl implements ILinkedAccountService {
     public GenericResponse deleteLinkedAccount(User user, Integer linkedAccountId) {
         log.info("Attempting to delete linked account by id {}", linkedAccountId);
 
-        LinkedAccount linkedAccount = linkedAccountRepository.findByAccountId(linkedAccountId);
-        if (linkedAccount == null) {
-            log.warn("Linked account not found for id: {}", linkedAccountId);
-            throw new LinkedAccountNotFoundException("Linked account not found");
+        if (linkedAccountRepository.deleteByAccountIdAndUserId(linkedAccountId, user.getUserId()) == 0) {
+            throw linkedAccountMissOrDenied(user, linkedAccountId);
         }
-        AuthorizationUtils.validateOwnership(linkedAccount.getUser().getUserId(), user.getUserId());
-
-        linkedAccountRepository.delete(linkedAccount);
         log.info("Linked account deleted successfully {}", linkedAccountId);
         return new GenericResponse(String.format("Linked account with id: %s deleted successfully",linkedAccountId));
     }
 
+    private LinkedAccountNotFoundException linkedAccountMissOrDenied(User user, Integer linkedAccountId) {
+        AuthorizationUtils.denyIfResourceExists(linkedAccountRepository.existsByAccountId(linkedAccountId), user.getUserId());
+        log.warn("Linked account not found for id: {}", linkedAccountId);
+        return new LinkedAccountNotFoundException("Linked account not found");
+    }
+
     LinkedAccountResponseDTO createDTO(LinkedAccount linkedAccount) {
         LinkedAccountResponseDTO linkedAccountResponseDTO = new LinkedAccountResponseDTO();
 
@@ -0,0 +1,204 @@
+package finance.freedom.finance_freedom_backend.service.core;
+
+import finance.freedom.finance_freedom_backend.enums.RecurrenceInterval;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICacheGenerationService;
+import finance.freedom.finance_freedom_backend.interfaces.core.IRecurringTransactionService;
+import finance.freedom.finance_freedom_backend.interfaces.core.ITransactionRollupService;
+import finance.freedom.finance_freedom_backend.model.core.Transaction;
+import finance.freedom.finance_freedom_backend.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecurringTransactionServiceImpl implements IRecurringTransactionService {
+
+    private final TransactionRepository transactionRepository;
+
+    private final ITransactionRollupService rollupService;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final ICacheGenerationService cacheGenerationService;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transaction.recurrence.partitions:4}")
+    private int partitions;
+
+    @Value("${transaction.recurrence.claim-size:200}")
+    private int claimSize;
+
+    @Value("${transaction.recurrence.catch-up:true}")
+    private boolean catchUp;
+
+    @Value("${transaction.recurrence.max-occurrences-per-claim:100}")
+    private int maxOccurrencesPerClaim;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Scheduled(fixedDelayString = "${transaction.recurrence.poll-interval:PT1M}")
+    public void materializeDueOccurrences() {
+        materializeDueOccurrences(LocalDateTime.now());
+    }
+
+    @Override
+    public int materializeDueOccurrences(LocalDateTime now) {
+        Timer.Sample run = Timer.start(meterRegistry);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Future<Integer>> results = new ArrayList<>(partitions);
+        int posted = 0;
+
+        // Partitions split users by id, so no two workers on this node contend for the same templates.
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int partition = 0; partition < partitions; partition++) {
+                int current = partition;
+                results.add(executor.submit(() -> materializePartition(transactionTemplate, current, now)));
+            }
+
+            for (Future<Integer> result : results) {
+                try {
+                    posted += result.get();
+                } catch (ExecutionException e) {
+                    log.error("Recurring transaction partition failed: {}", e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Recurring transaction run interrupted");
+        }
+
+        long elapsedNanos = run.stop(meterRegistry.timer("transactions.recurring.run"));
+        if (posted > 0) {
+            log.info("Posted {} recurring transactions in {} ms", posted, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+        return posted;
+    }
+
+    private int materializePartition(TransactionTemplate transactionTemplate, int partition, LocalDateTime now) {
+        int posted = 0;
+
+        while (true) {
+            Claim claim = transactionTemplate.execute(status -> materializeClaim(partition, now));
+            if (claim == null || claim.claimed() == 0) {
+                return posted;
+            }
+
+            posted += claim.posted();
+            meterRegistry.counter("transactions.recurring.claimed").increment(claim.claimed());
+            meterRegistry.counter("transactions.recurring.posted").increment(claim.posted());
+            claim.userIds().forEach(cacheGenerationService::bumpGeneration);
+        }
+    }
+
+    private Claim materializeClaim(int partition, LocalDateTime now) {
+        List<Transaction> sources = transactionRepository.claimDueRecurring(now, partitions, partition, claimSize);
+        if (sources.isEmpty()) {
+            return new Claim(0, 0, Set.of());
+        }
+
+        Set<String> existing = existingOccurrences(sources);
+        List<Transaction> created = new ArrayList<>();
+        Set<Integer> userIds = new HashSet<>();
+
+        for (Transaction source : sources) {
+            RecurrenceInterval interval = source.getRecurrenceInterval();
+            LocalDateTime anchor = source.getTransactionDate();
+            LocalDateTime occurrence = source.getNextOccurrenceDate();
+
+            if (interval == null || interval == RecurrenceInterval.NONE) {
+                source.setNextOccurrenceDate(null);
+                continue;
+            }
+
+            if (!catchUp) {
+                // Without catch-up only the most recent missed occurrence is posted after downtime.
+                for (LocalDateTime following = interval.next(anchor, occurrence); !following.isAfter(now); following = interval.next(anchor, following)) {
+                    occurrence = following;
+                }
+            }
+
+            int occurrences = 0;
+            while (!occurrence.isAfter(now) && occurrences < maxOccurrencesPerClaim) {
+                if (existing.add(occurrenceKey(source.getTransactionId(), occurrence))) {
+                    Transaction copy = occurrenceOf(source, occurrence);
+                    entityManager.persist(copy);
+                    created.add(copy);
+                }
+                occurrence = interval.next(anchor, occurrence);
+                occurrences++;
+            }
+
+            source.setNextOccurrenceDate(occurrence);
+            userIds.add(source.getUser().getUserId());
+        }
+
+        entityManager.flush();
+        if (!created.isEmpty()) {
+            rollupService.recordCreated(created);
+        }
+        return new Claim(sources.size(), created.size(), userIds);
+    }
+
+    private Set<String> existingOccurrences(List<Transaction> sources) {
+        List<Integer> sourceIds = new ArrayList<>(sources.size());
+        LocalDateTime from = null;
+        for (Transaction source : sources) {
+            sourceIds.add(source.getTransactionId());
+            if (from == null || source.getNextOccurrenceDate().isBefore(from)) {
+                from = source.getNextOccurrenceDate();
+            }
+        }
+
+        Set<String> existing = new HashSet<>();
+        for (Object[] row : transactionRepository.findOccurrenceDates(sourceIds, from)) {
+            existing.add(occurrenceKey((Integer) row[0], (LocalDateTime) row[1]));
+        }
+        return existing;
+    }
+
+    private String occurrenceKey(Integer sourceId, LocalDateTime occurrence) {
+        return sourceId + "@" + occurrence;
+    }
+
+    private Transaction occurrenceOf(Transaction source, LocalDateTime occurrence) {
+        Transaction transaction = new Transaction();
+
+        transaction.setUser(source.getUser());
+        transaction.setAmount(source.getAmount());
+        transaction.setCategory(source.getCategory());
+        transaction.setDescription(source.getDescription());
+        transaction.setTransactionType(source.getTransactionType());
+        transaction.setTransactionDate(occurrence);
+        transaction.setRecurring(false);
+        transaction.setRecurrenceInterval(RecurrenceInterval.NONE);
+        transaction.setRecurrenceSourceId(source.getTransactionId());
+
+        return transaction;
+    }
+
+    private record Claim(int claimed, int posted, Set<Integer> userIds) {
+    }
+}
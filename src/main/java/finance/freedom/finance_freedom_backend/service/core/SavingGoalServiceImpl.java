@@ -1,5 +1,6 @@
 package finance.freedom.finance_freedom_backend.service.core;
 
+import finance.freedom.finance_freedom_backend.cache.EntityCache;
 import finance.freedom.finance_freedom_backend.dto.savinggoal.CreateSavingGoalDTO;
 import finance.freedom.finance_freedom_backend.dto.savinggoal.SavingGoalResponseDTO;
 import finance.freedom.finance_freedom_backend.dto.savinggoal.UpdateSavingGoalDTO;
@@ -13,7 +14,6 @@ import finance.freedom.finance_freedom_backend.util.AuthorizationUtils;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
@@ -28,6 +28,8 @@ public class SavingGoalServiceImpl implements ISavingGoalService {
 
     private final SavingGoalRepository savingGoalRepository;
 
+    private final EntityCache<SavingGoalResponseDTO> savingGoalEntityCache;
+
     @Override
     public SavingGoalResponseDTO save(User user, CreateSavingGoalDTO savingGoal) {
         log.info("Attempting to save saving goal for user {}", user.getEmail());
@@ -53,36 +55,43 @@ public class SavingGoalServiceImpl implements ISavingGoalService {
 
         log.info("Attempting to get saving goal by id {}", savingGoalId);
 
-        SavingGoal savingGoal = savingGoalRepository.findByGoalId(savingGoalId);
+        SavingGoalResponseDTO cached = savingGoalEntityCache.get(user.getUserId(), savingGoalId);
+        if (cached != null) {
+            log.info("Saving goal found in cache {}", savingGoalId);
+            return cached;
+        }
+
+        SavingGoal savingGoal = savingGoalRepository.findByGoalIdAndUserId(savingGoalId, user.getUserId());
 
         if (savingGoal == null) {
-            log.warn("Saving goal not found for id: {}", savingGoalId);
-            throw new SavingGoalNotFoundException("Saving goal not found");
+            throw savingGoalMissOrDenied(user, savingGoalId);
         }
 
-        AuthorizationUtils.validateOwnership(savingGoal.getUser().getUserId(), user.getUserId());
+        SavingGoalResponseDTO savingGoalResponseDTO = createDTO(savingGoal);
+        savingGoalEntityCache.fill(user.getUserId(), Map.of(savingGoalId, savingGoalResponseDTO));
 
         log.info("Saving goal found successfully {}", savingGoal.getGoalId());
-        return createDTO(savingGoal);
+        return savingGoalResponseDTO;
     }
 
-    @Cacheable(value = "savingGoal", key = "#user.userId")
     @Override
     public Map<Integer,SavingGoalResponseDTO> getSavingGoal(User user) {
         log.info("Attempting to get saving goals for user {}", user.getEmail());
 
-        List<SavingGoal> savingGoals = savingGoalRepository.findByUser(user);
+        List<Integer> goalIds = savingGoalRepository.findGoalIdsByUserId(user.getUserId());
 
-        if (savingGoals.isEmpty()) {
+        if (goalIds.isEmpty()) {
             log.warn("Saving goals for user not found");
             throw new SavingGoalNotFoundException("Saving goal for user not found");
         }
 
-        Map<Integer,SavingGoalResponseDTO> result = new HashMap<>();
-
-        for(SavingGoal savingGoal : savingGoals) {
-            result.put(savingGoal.getGoalId(), createDTO(savingGoal));
-        }
+        Map<Integer,SavingGoalResponseDTO> result = savingGoalEntityCache.getAll(user.getUserId(), goalIds, missing -> {
+            Map<Integer, SavingGoalResponseDTO> loaded = new HashMap<>();
+            for (SavingGoal savingGoal : savingGoalRepository.findByUserIdAndGoalIdIn(user.getUserId(), missing)) {
+                loaded.put(savingGoal.getGoalId(), createDTO(savingGoal));
+            }
+            return loaded;
+        });
 
         log.info("Saving goals found successfully");
         return result;
@@ -92,40 +101,25 @@ public class SavingGoalServiceImpl implements ISavingGoalService {
     public SavingGoalResponseDTO updateSavingGoal(User user,Integer savingGoalId, UpdateSavingGoalDTO savingGoal) {
         log.info("Attempting to update saving goal by id {}", savingGoalId);
 
-        SavingGoal goal = savingGoalRepository.findByGoalId(savingGoalId);
+        SavingGoal goal = savingGoalRepository.updateByGoalIdAndUserId(
+                savingGoalId,
+                user.getUserId(),
+                savingGoal.getGoalName(),
+                savingGoal.getCurrentAmount(),
+                savingGoal.getTargetAmount(),
+                savingGoal.getCompletionDate(),
+                savingGoal.isCompleted(),
+                savingGoal.getTargetDate());
 
         if (goal == null) {
-            log.warn("Saving goal not found for id: {}", savingGoalId);
-            throw new SavingGoalNotFoundException("Saving goal not found");
+            throw savingGoalMissOrDenied(user, savingGoalId);
         }
-
-        AuthorizationUtils.validateOwnership(goal.getUser().getUserId(), user.getUserId());
-
-
-        if(savingGoal.getGoalName() != null) {
-            goal.setGoalName(savingGoal.getGoalName());
-        }
-        if(savingGoal.getCurrentAmount() != null) {
-            goal.setCurrentAmount(savingGoal.getCurrentAmount());
-        }
-        if(savingGoal.getTargetAmount() != null) {
-            goal.setTargetAmount(savingGoal.getTargetAmount());
-        }
-        if(savingGoal.getCompletionDate() != null) {
-            goal.setCompletionDate(savingGoal.getCompletionDate());
-        }
-        if(savingGoal.isCompleted()){
-            goal.setCompleted(true);
-        }
-        if(savingGoal.getTargetDate() != null) {
-            goal.setTargetDate(savingGoal.getTargetDate());
-        }
-
-        savingGoalRepository.save(goal);
+        SavingGoalResponseDTO savingGoalResponseDTO = createDTO(goal);
+        savingGoalEntityCache.put(user.getUserId(), savingGoalId, savingGoalResponseDTO);
 
         log.info("Saving goal updated successfully {}", savingGoalId);
 
-        return createDTO(goal);
+        return savingGoalResponseDTO;
     }
 
     @Transactional
@@ -134,20 +128,22 @@ public class SavingGoalServiceImpl implements ISavingGoalService {
 
         log.info("Attempting to delete saving goal by id {}", savingGoalId);
 
-        SavingGoal goal = savingGoalRepository.findByGoalId(savingGoalId);
-        if (goal == null) {
-            log.warn("Saving goal not found for id: {}", savingGoalId);
-            throw new SavingGoalNotFoundException("Saving goal not found");
+        if (savingGoalRepository.deleteByGoalIdAndUserId(savingGoalId, user.getUserId()) == 0) {
+            throw savingGoalMissOrDenied(user, savingGoalId);
         }
-        AuthorizationUtils.validateOwnership(goal.getUser().getUserId(), user.getUserId());
-
-        savingGoalRepository.delete(goal);
+        savingGoalEntityCache.evict(user.getUserId(), savingGoalId);
 
         log.info("Saving goal deleted successfully {}", savingGoalId);
 
         return new GenericResponse(String.format("Saving goal with id: %s deleted successfully",savingGoalId));
     }
 
+    private SavingGoalNotFoundException savingGoalMissOrDenied(User user, Integer savingGoalId) {
+        AuthorizationUtils.denyIfResourceExists(savingGoalRepository.existsByGoalId(savingGoalId), user.getUserId());
+        log.warn("Saving goal not found for id: {}", savingGoalId);
+        return new SavingGoalNotFoundException("Saving goal not found");
+    }
+
     public SavingGoalResponseDTO createDTO(SavingGoal savingGoal) {
         SavingGoalResponseDTO savingGoalResponseDTO = new SavingGoalResponseDTO();
 
@@ -0,0 +1,126 @@
+package finance.freedom.finance_freedom_backend.service.core;
+
+import finance.freedom.finance_freedom_backend.interfaces.core.ITransactionRollupService;
+import finance.freedom.finance_freedom_backend.model.core.Transaction;
+import finance.freedom.finance_freedom_backend.model.core.TransactionMonthlyRollup;
+import finance.freedom.finance_freedom_backend.model.core.TransactionRollupDeltas;
+import finance.freedom.finance_freedom_backend.repository.TransactionMonthlyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionRollupServiceImpl implements ITransactionRollupService {
+
+    private static final int REBUILD_ATTEMPTS = 3;
+
+    private final TransactionMonthlyRollupRepository rollupRepository;
+
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${transaction.rollup.rebuild-chunk-users:1000}")
+    private int rebuildChunkUsers;
+
+    @Value("${transaction.rollup.rebuild-parallelism:4}")
+    private int rebuildParallelism;
+
+    @Override
+    @Transactional
+    public void recordCreated(Transaction transaction) {
+        rollupRepository.applyDelta(
+                transaction.getUser().getUserId(),
+                transaction.getTransactionDate(),
+                transaction.getCategory().name(),
+                transaction.getTransactionType().name(),
+                transaction.getAmount(),
+                1);
+    }
+
+    @Override
+    @Transactional
+    public void recordCreated(List<Transaction> transactions) {
+        TransactionRollupDeltas deltas = new TransactionRollupDeltas();
+        transactions.forEach(deltas::add);
+        recordCreated(deltas);
+    }
+
+    @Override
+    @Transactional
+    public void recordCreated(TransactionRollupDeltas deltas) {
+        for (TransactionMonthlyRollup delta : deltas.values()) {
+            rollupRepository.applyDelta(
+                    delta.getId().getUserId(),
+                    delta.getId().getMonth().atStartOfDay(),
+                    delta.getId().getCategory().name(),
+                    delta.getId().getTransactionType().name(),
+                    delta.getTotal(),
+                    delta.getTransactionCount());
+        }
+        log.debug("Applied {} rollup deltas for {} transactions", deltas.values().size(), deltas.getTransactionCount());
+    }
+
+    @Override
+    @Scheduled(cron = "${transaction.rollup.rebuild-cron:0 30 3 * * *}")
+    public void rebuildRollups() {
+        int maxUserId = rollupRepository.findMaxUserId();
+        log.info("Attempting to rebuild transaction rollups for user ids up to {}", maxUserId);
+
+        // Repeatable read makes a rebuild that raced a live write fail and retry instead of overwriting its delta.
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        List<Future<Integer>> chunks = new ArrayList<>();
+        int rows = 0;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(rebuildParallelism)) {
+            for (int fromUserId = 0; fromUserId <= maxUserId; fromUserId += rebuildChunkUsers) {
+                int from = fromUserId;
+                int to = fromUserId + rebuildChunkUsers;
+                chunks.add(executor.submit(() -> rebuildRange(transactionTemplate, from, to)));
+            }
+
+            for (Future<Integer> chunk : chunks) {
+                rows += chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Transaction rollup rebuild interrupted");
+            return;
+        } catch (ExecutionException e) {
+            log.error("Transaction rollup rebuild failed: {}", e.getCause().getMessage());
+            return;
+        }
+
+        log.info("Transaction rollups rebuilt with {} rows across {} chunks", rows, chunks.size());
+    }
+
+    private int rebuildRange(TransactionTemplate transactionTemplate, int fromUserId, int toUserId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Integer rows = transactionTemplate.execute(status -> rollupRepository.rebuildUserRange(fromUserId, toUserId));
+                return rows == null ? 0 : rows;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == REBUILD_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Rollup rebuild for user ids {} to {} raced a transaction write, retrying", fromUserId, toUserId - 1);
+            }
+        }
+    }
+}
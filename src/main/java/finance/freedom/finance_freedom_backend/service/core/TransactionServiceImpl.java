@@ -1,54 +1,190 @@
 package finance.freedom.finance_freedom_backend.service.core;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import finance.freedom.finance_freedom_backend.cache.EntityCache;
+import finance.freedom.finance_freedom_backend.dto.transaction.BatchTransactionResultDTO;
 import finance.freedom.finance_freedom_backend.dto.transaction.CreateTransactionDTO;
+import finance.freedom.finance_freedom_backend.dto.transaction.TransactionPageDTO;
 import finance.freedom.finance_freedom_backend.dto.transaction.TransactionResponseDTO;
+import finance.freedom.finance_freedom_backend.dto.transaction.TransactionSummaryDTO;
 import finance.freedom.finance_freedom_backend.dto.transaction.UpdateTransactionDTO;
+import finance.freedom.finance_freedom_backend.enums.BatchItemStatus;
+import finance.freedom.finance_freedom_backend.enums.CategoryType;
+import finance.freedom.finance_freedom_backend.enums.ExportFormat;
 import finance.freedom.finance_freedom_backend.enums.RecurrenceInterval;
+import finance.freedom.finance_freedom_backend.enums.SummaryGroupBy;
 import finance.freedom.finance_freedom_backend.enums.TransactionType;
 import finance.freedom.finance_freedom_backend.exception.customexceptions.TransactionNotFoundException;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICacheGenerationService;
+import finance.freedom.finance_freedom_backend.interfaces.core.ITransactionRollupService;
 import finance.freedom.finance_freedom_backend.interfaces.core.ITransactionService;
 import finance.freedom.finance_freedom_backend.model.core.Transaction;
+import finance.freedom.finance_freedom_backend.model.core.TransactionRollupDeltas;
 import finance.freedom.finance_freedom_backend.model.core.User;
 import finance.freedom.finance_freedom_backend.model.exception.GenericResponse;
+import finance.freedom.finance_freedom_backend.model.pagination.TransactionCursor;
 import finance.freedom.finance_freedom_backend.repository.TransactionRepository;
 import finance.freedom.finance_freedom_backend.util.AuthorizationUtils;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Service
 @Slf4j
 public class TransactionServiceImpl implements ITransactionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    private static final String CSV_HEADER = "transactionId,transactionDate,transactionType,category,amount,description,isRecurring,recurrenceInterval\n";
+
+
+    private static final String RECURRENCE_INTERVAL_REQUIRED = "Recurrence interval is required when recurring transaction is true";
+
     private final TransactionRepository transactionRepository;
 
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final ICacheGenerationService cacheGenerationService;
+
+    private final ITransactionRollupService rollupService;
+
+    private final EntityCache<TransactionResponseDTO> transactionEntityCache;
+
+    @Value("${transaction.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${transaction.batch.max-items:10000}")
+    private int batchMaxItems;
+
     @PersistenceContext
     private EntityManager entityManager;
 
     @Override
+    @Transactional
     public TransactionResponseDTO save(User user, CreateTransactionDTO transaction) {
 
         log.info("Attempting to save transaction for user {}", user.getEmail());
 
-        Transaction transactionEntity = new Transaction();
-
         if (transaction.isRecurring() && transaction.getRecurrenceInterval() == null ) {
             log.warn("Recurrence interval is required when recurring transaction is true");
-            throw new IllegalArgumentException("Recurrence interval is required when recurring transaction is true");
+            throw new IllegalArgumentException(RECURRENCE_INTERVAL_REQUIRED);
         }
 
+        Transaction transactionEntity = buildTransaction(user, transaction);
+
+        transactionRepository.save(transactionEntity);
+        rollupService.recordCreated(transactionEntity);
+        cacheGenerationService.bumpGeneration(user.getUserId());
+
+        log.info("Transaction saved successfully {}", transactionEntity.getTransactionId());
+
+        return createDTO(transactionEntity);
+    }
+
+    @Override
+    @Transactional
+    public List<BatchTransactionResultDTO> saveBatch(User user, List<CreateTransactionDTO> transactions) {
+
+        log.info("Attempting to save batch of {} transactions for user {}", transactions.size(), user.getEmail());
+
+        if (transactions.isEmpty() || transactions.size() > batchMaxItems) {
+            log.warn("Rejected batch of {} transactions for user {}", transactions.size(), user.getEmail());
+            throw new IllegalArgumentException(String.format("A batch must contain between 1 and %s transactions", batchMaxItems));
+        }
+
+        List<BatchTransactionResultDTO> results = new ArrayList<>(transactions.size());
+        // Entities are dropped with every clear(), only their rollup buckets are carried across chunks.
+        TransactionRollupDeltas created = new TransactionRollupDeltas();
+        int pending = 0;
+
+        for (int index = 0; index < transactions.size(); index++) {
+            CreateTransactionDTO transaction = transactions.get(index);
+
+            List<String> errors = validateBatchItem(transaction);
+            if (!errors.isEmpty()) {
+                results.add(new BatchTransactionResultDTO(index, BatchItemStatus.REJECTED, null, errors));
+                continue;
+            }
+
+            // The id comes from the pooled sequence on persist, so the INSERT itself can wait for the batch.
+            Transaction transactionEntity = buildTransaction(user, transaction);
+            entityManager.persist(transactionEntity);
+            results.add(new BatchTransactionResultDTO(index, BatchItemStatus.CREATED, transactionEntity.getTransactionId(), List.of()));
+            created.add(transactionEntity);
+
+            if (++pending == batchChunkSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        if (!created.isEmpty()) {
+            rollupService.recordCreated(created);
+        }
+        cacheGenerationService.bumpGeneration(user.getUserId());
+
+        log.info("Batch saved successfully with {} created and {} rejected transactions",
+                created.getTransactionCount(), transactions.size() - created.getTransactionCount());
+        return results;
+    }
+
+    private List<String> validateBatchItem(CreateTransactionDTO transaction) {
+        if (transaction == null) {
+            return List.of("Transaction can't be null");
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<CreateTransactionDTO> violation : validator.validate(transaction)) {
+            errors.add(violation.getMessage());
+        }
+        if (transaction.isRecurring() && transaction.getRecurrenceInterval() == null) {
+            errors.add(RECURRENCE_INTERVAL_REQUIRED);
+        }
+        Collections.sort(errors);
+        return errors;
+    }
+
+    private Transaction buildTransaction(User user, CreateTransactionDTO transaction) {
+        Transaction transactionEntity = new Transaction();
+
         LocalDateTime date = (transaction.getTransactionDate() == null)
                 ? LocalDateTime.now()
                 : transaction.getTransactionDate();
@@ -65,12 +201,11 @@ public class TransactionServiceImpl implements ITransactionService {
         transactionEntity.setTransactionDate(date);
         transactionEntity.setUser(user);
         transactionEntity.setRecurring(transaction.isRecurring());
+        if (transaction.isRecurring()) {
+            transactionEntity.setNextOccurrenceDate(interval.next(date, date));
+        }
 
-        transactionRepository.save(transactionEntity);
-
-        log.info("Transaction saved successfully {}", transactionEntity.getTransactionId());
-
-        return createDTO(transactionEntity);
+        return transactionEntity;
     }
 
     @Override
@@ -78,125 +213,396 @@ public class TransactionServiceImpl implements ITransactionService {
 
         log.info("Attempting to get transaction by id {}", transactionId);
 
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId);
+        TransactionResponseDTO cached = transactionEntityCache.get(user.getUserId(), transactionId);
+        if (cached != null) {
+            log.info("Transaction found in cache {}", transactionId);
+            return cached;
+        }
+
+        Transaction transaction = transactionRepository.findByTransactionIdAndUserId(transactionId, user.getUserId());
         if (transaction == null) {
-            log.warn("Transaction not found for id: {}", transactionId);
-            throw new TransactionNotFoundException(String.format("Transaction with id %s not found",transactionId.toString()));
+            throw transactionMissOrDenied(user, transactionId);
         }
 
-        AuthorizationUtils.validateOwnership(transaction.getUser().getUserId(), user.getUserId());
+        TransactionResponseDTO transactionResponseDTO = createDTO(transaction);
+        transactionEntityCache.fill(user.getUserId(), Map.of(transactionId, transactionResponseDTO));
 
         log.info("Transaction found successfully {}", transaction.getTransactionId());
 
-        return createDTO(transaction);
+        return transactionResponseDTO;
     }
 
     @Override
-    @Cacheable(
-            value = "transaction",
-            key = "T(String).format('%s-%s-%s-%s', #user.userId, #transactionType != null ? #transactionType.name() : 'null', #startDate != null ? #startDate.toString() : 'null', #endDate != null ? #endDate.toString() : 'null')"
-    )
     public Map<Integer, TransactionResponseDTO> getFilteredTransactions(User user, TransactionType transactionType, LocalDateTime startDate, LocalDateTime endDate) {
 
-        //Todo add pagination
-
         log.info("Attempting to get filtered transactions for user {}", user.getEmail());
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = builder.createQuery(Integer.class);
+        Root<Transaction> root = query.from(Transaction.class);
+
+        List<Predicate> predicates = buildFilterPredicates(builder, root, user, transactionType, startDate, endDate);
+
+        // Only the ids come from the database, the DTOs are assembled from per-transaction cache entries.
+        query.select(root.get("transactionId"));
+        query.where(builder.and(predicates.toArray(new Predicate[0])));
+        query.orderBy(builder.desc(root.get("transactionDate")));
+
+        List<Integer> transactionIds = entityManager.createQuery(query).getResultList();
+
+        if (transactionIds.isEmpty()) {
+            log.warn("No transactions found for user {}", user.getEmail());
+            throw new TransactionNotFoundException(String.format("No transactions found for user %s",user.getEmail()));
+        }
+
+        Map<Integer, TransactionResponseDTO> result = transactionEntityCache.getAll(user.getUserId(), transactionIds, missing -> {
+            Map<Integer, TransactionResponseDTO> loaded = new HashMap<>();
+            for (Transaction transaction : transactionRepository.findByUserIdAndTransactionIdIn(user.getUserId(), missing)) {
+                loaded.put(transaction.getTransactionId(), createDTO(transaction));
+            }
+            return loaded;
+        });
+
+        log.info("Transactions found successfully");
+        return result;
+    }
+
+    @Override
+    public TransactionPageDTO getTransactionPage(User user, TransactionType transactionType, LocalDateTime startDate, LocalDateTime endDate, String cursor, Integer pageSize) {
+
+        log.info("Attempting to get transaction page for user {}", user.getEmail());
+
+        int size = (pageSize == null) ? DEFAULT_PAGE_SIZE : pageSize;
+        if (size < 1) {
+            log.warn("Invalid page size {} requested by user {}", size, user.getEmail());
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        size = Math.min(size, MAX_PAGE_SIZE);
+
+        TransactionCursor after = (cursor == null || cursor.isBlank()) ? null : TransactionCursor.decode(cursor);
+
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Transaction> query = builder.createQuery(Transaction.class);
         Root<Transaction> root = query.from(Transaction.class);
 
-        List<Predicate> predicates = new ArrayList<>();
+        List<Predicate> predicates = buildFilterPredicates(builder, root, user, transactionType, startDate, endDate);
 
-        predicates.add(builder.equal(root.get("user").get("userId"), user.getUserId()));
+        if (after != null) {
+            Path<LocalDateTime> transactionDate = root.get("transactionDate");
+            Path<Integer> transactionId = root.get("transactionId");
+            predicates.add(builder.or(
+                    builder.lessThan(transactionDate, after.getTransactionDate()),
+                    builder.and(
+                            builder.equal(transactionDate, after.getTransactionDate()),
+                            builder.lessThan(transactionId, after.getTransactionId()))));
+        }
+
+        query.where(builder.and(predicates.toArray(new Predicate[0])));
+        query.orderBy(builder.desc(root.get("transactionDate")), builder.desc(root.get("transactionId")));
+
+        // One extra row tells us whether another page exists without a count query.
+        List<Transaction> transactionsQueried = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasMore = transactionsQueried.size() > size;
+        List<Transaction> page = hasMore ? transactionsQueried.subList(0, size) : transactionsQueried;
+
+        List<TransactionResponseDTO> transactions = new ArrayList<>(page.size());
+        Map<Integer, TransactionResponseDTO> loaded = new HashMap<>();
+        for (Transaction transaction : page) {
+            TransactionResponseDTO transactionResponseDTO = createDTO(transaction);
+            transactions.add(transactionResponseDTO);
+            loaded.put(transaction.getTransactionId(), transactionResponseDTO);
+        }
+        // A prefetched page also warms the per-transaction cache, ordinary page reads skip the Redis write.
+        transactionEntityCache.warm(user.getUserId(), loaded);
+
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = new TransactionCursor(last.getTransactionDate(), last.getTransactionId()).encode();
+        }
+
+        log.info("Transaction page with {} entries found successfully", transactions.size());
+        return new TransactionPageDTO(transactions, nextCursor);
+    }
+
+    @Override
+    @Cacheable(value = "transactionSummary", keyGenerator = "userGenerationKeyGenerator", sync = true)
+    @SuppressWarnings("unchecked")
+    public List<TransactionSummaryDTO> getTransactionSummary(User user, SummaryGroupBy groupBy, TransactionType transactionType, LocalDateTime startDate,
+                                                             LocalDateTime endDate, boolean endExclusive) {
+
+        log.info("Attempting to get transaction summary by {} for user {}", groupBy, user.getEmail());
+
+        Query query = servedByRollup(groupBy, startDate, endDate, endExclusive)
+                ? buildRollupSummaryQuery(user, groupBy, transactionType, startDate, endDate, endExclusive)
+                : buildTransactionSummaryQuery(user, groupBy, transactionType, startDate, endDate, endExclusive);
+
+        List<TransactionSummaryDTO> summary = new ArrayList<>();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            summary.add(new TransactionSummaryDTO(
+                    TransactionType.valueOf((String) row[0]),
+                    CategoryType.valueOf((String) row[1]),
+                    toPeriod(row[2]),
+                    (BigDecimal) row[3],
+                    ((Number) row[4]).longValue()));
+        }
+
+        log.info("Transaction summary with {} rows built for user {}", summary.size(), user.getEmail());
+        return summary;
+    }
+
+    private boolean servedByRollup(SummaryGroupBy groupBy, LocalDateTime startDate, LocalDateTime endDate, boolean endExclusive) {
+        if (groupBy == SummaryGroupBy.WEEK) {
+            return false;
+        }
+        // An inclusive end only covers rows stamped 23:59:59.xxx like the rollup does when it sits right before the next month.
+        return isMonthStart(startDate)
+                && isMonthStart(endDate == null || endExclusive ? endDate : endDate.plusNanos(1));
+    }
+
+    private boolean isMonthStart(LocalDateTime dateTime) {
+        return dateTime == null || (dateTime.getDayOfMonth() == 1 && dateTime.toLocalTime().equals(LocalTime.MIDNIGHT));
+    }
+
+    private Query buildRollupSummaryQuery(User user, SummaryGroupBy groupBy, TransactionType transactionType, LocalDateTime startDate,
+                                          LocalDateTime endDate, boolean endExclusive) {
+        // Whole-month ranges are answered from the rollup, roughly a dozen rows per user-year.
+        String period = (groupBy == SummaryGroupBy.MONTH) ? "CAST(month AS timestamp)" : "CAST(NULL AS timestamp)";
+
+        StringBuilder sql = new StringBuilder("SELECT transaction_type, category, ")
+                .append(period)
+                .append(" AS period, SUM(total), SUM(transaction_count) FROM transaction_monthly_rollup WHERE user_id = :userId");
 
         if (transactionType != null) {
-            predicates.add(builder.equal(root.get("transactionType"), transactionType));
+            sql.append(" AND transaction_type = :transactionType");
+        }
+        if (startDate != null) {
+            sql.append(" AND month >= :startMonth");
         }
+        if (endDate != null) {
+            sql.append(" AND month <= :endMonth");
+        }
+        sql.append(" GROUP BY transaction_type, category, period HAVING SUM(transaction_count) > 0 ORDER BY period, transaction_type, category");
 
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("userId", user.getUserId());
+        if (transactionType != null) {
+            query.setParameter("transactionType", transactionType.name());
+        }
         if (startDate != null) {
-            predicates.add(builder.greaterThanOrEqualTo(root.get("transactionDate"), Timestamp.valueOf(startDate)));
+            query.setParameter("startMonth", startDate.toLocalDate());
         }
+        if (endDate != null) {
+            query.setParameter("endMonth", (endExclusive ? endDate.minusNanos(1) : endDate).toLocalDate().withDayOfMonth(1));
+        }
+        return query;
+    }
+
+    private Query buildTransactionSummaryQuery(User user, SummaryGroupBy groupBy, TransactionType transactionType, LocalDateTime startDate,
+                                               LocalDateTime endDate, boolean endExclusive) {
+        String period = (groupBy.getDateTruncUnit() == null)
+                ? "CAST(NULL AS timestamp)"
+                : String.format("date_trunc('%s', transaction_date)", groupBy.getDateTruncUnit());
 
+        StringBuilder sql = new StringBuilder("SELECT transaction_type, category, ")
+                .append(period)
+                .append(" AS period, SUM(amount), COUNT(*) FROM transactions WHERE user_id = :userId");
+
+        if (transactionType != null) {
+            sql.append(" AND transaction_type = :transactionType");
+        }
+        if (startDate != null) {
+            sql.append(" AND transaction_date >= :startDate");
+        }
         if (endDate != null) {
-            predicates.add(builder.lessThanOrEqualTo(root.get("transactionDate"), Timestamp.valueOf(endDate)));
+            sql.append(endExclusive ? " AND transaction_date < :endDate" : " AND transaction_date <= :endDate");
+        }
+        sql.append(" GROUP BY transaction_type, category, period ORDER BY period, transaction_type, category");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("userId", user.getUserId());
+        if (transactionType != null) {
+            query.setParameter("transactionType", transactionType.name());
+        }
+        if (startDate != null) {
+            query.setParameter("startDate", startDate);
+        }
+        if (endDate != null) {
+            query.setParameter("endDate", endDate);
         }
+        return query;
+    }
+    private LocalDate toPeriod(Object period) {
+        if (period instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        if (period instanceof LocalDateTime localDateTime) {
+            return localDateTime.toLocalDate();
+        }
+        return null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTransactions(User user, TransactionType transactionType, LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, OutputStream outputStream) throws IOException {
+
+        log.info("Attempting to export transactions as {} for user {}", format, user.getEmail());
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = builder.createQuery(Transaction.class);
+        Root<Transaction> root = query.from(Transaction.class);
+
+        List<Predicate> predicates = buildFilterPredicates(builder, root, user, transactionType, startDate, endDate);
 
         query.where(builder.and(predicates.toArray(new Predicate[0])));
-        query.orderBy(builder.desc(root.get("transactionDate")));
+        query.orderBy(builder.desc(root.get("transactionDate")), builder.desc(root.get("transactionId")));
 
-        List<Transaction> transactionsQueried = entityManager.createQuery(query).getResultList();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long exported = 0;
 
-        if (transactionsQueried.isEmpty()) {
-            log.warn("No transactions found for user {}", user.getEmail());
-            throw new TransactionNotFoundException(String.format("No transactions found for user %s",user.getEmail()));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
         }
 
-        Map<Integer,TransactionResponseDTO> result = new HashMap<>();
+        // The fetch size makes the driver read through a server-side cursor instead of buffering every row,
+        // and clearing the persistence context per chunk keeps only one chunk of entities on the heap.
+        try (Stream<Transaction> transactions = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_CHUNK_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                TransactionResponseDTO transaction = createDTO(iterator.next());
+
+                if (format == ExportFormat.CSV) {
+                    writer.write(toCsvRow(transaction));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(transaction));
+                    writer.write('\n');
+                }
+
+                if (++exported % EXPORT_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
 
-        for (Transaction transaction : transactionsQueried) {
-            result.put(transaction.getTransactionId() ,createDTO(transaction));
+        writer.flush();
+        log.info("Exported {} transactions for user {}", exported, user.getEmail());
+    }
 
+    private String toCsvRow(TransactionResponseDTO transaction) {
+        return String.join(",",
+                String.valueOf(transaction.getTransactionId()),
+                String.valueOf(transaction.getTransactionDate()),
+                String.valueOf(transaction.getTransactionType()),
+                String.valueOf(transaction.getCategory()),
+                transaction.getAmount() == null ? "" : transaction.getAmount().toPlainString(),
+                escapeCsv(transaction.getDescription()),
+                String.valueOf(transaction.isRecurring()),
+                String.valueOf(transaction.getRecurrenceInterval())) + "\n";
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
         }
-        log.info("Transactions found successfully");
-        return result;
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private List<Predicate> buildFilterPredicates(CriteriaBuilder builder, Root<Transaction> root, User user,
+                                                  TransactionType transactionType, LocalDateTime startDate, LocalDateTime endDate) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        predicates.add(builder.equal(root.get("user").get("userId"), user.getUserId()));
+
+        if (transactionType != null) {
+            predicates.add(builder.equal(root.get("transactionType"), transactionType));
+        }
+
+        if (startDate != null) {
+            predicates.add(builder.greaterThanOrEqualTo(root.get("transactionDate"), Timestamp.valueOf(startDate)));
+        }
+
+        if (endDate != null) {
+            predicates.add(builder.lessThanOrEqualTo(root.get("transactionDate"), Timestamp.valueOf(endDate)));
+        }
+
+        return predicates;
     }
 
     public GenericResponse deleteTransaction(User user, Integer transactionId) {
         log.info("Attempting to delete transaction by id {}", transactionId);
 
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId);
-        if (transaction == null) {
-            log.warn("Transaction not found for id: {}", transactionId);
-            throw new TransactionNotFoundException(String.format("Transaction with id %s not found",transactionId.toString()));
+        if (transactionRepository.deleteByTransactionIdAndUserId(transactionId, user.getUserId()) == 0) {
+            throw transactionMissOrDenied(user, transactionId);
         }
-        AuthorizationUtils.validateOwnership(transaction.getUser().getUserId(), user.getUserId());
-
-        transactionRepository.delete(transaction);
+        transactionEntityCache.evict(user.getUserId(), transactionId);
+        cacheGenerationService.bumpGeneration(user.getUserId());
 
         log.info("Transaction deleted successfully {}", transactionId);
         return new GenericResponse(String.format("Transaction with id: %s deleted successfully",transactionId));
     }
 
     @Override
+    @Transactional
     public TransactionResponseDTO updateTransaction(User user,Integer transactionId,UpdateTransactionDTO updatedTransaction) {
 
         log.info("Attempting to update transaction by id {}", transactionId);
 
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId);
+        Transaction transaction = transactionRepository.updateByTransactionIdAndUserId(
+                transactionId,
+                user.getUserId(),
+                updatedTransaction.getAmount(),
+                enumName(updatedTransaction.getCategory()),
+                updatedTransaction.getDescription(),
+                enumName(updatedTransaction.getTransactionType()),
+                updatedTransaction.getTransactionDate(),
+                enumName(updatedTransaction.getRecurrenceInterval()));
+
         if (transaction == null) {
-            log.warn("Transaction not found for id: {}", transactionId);
-            throw new TransactionNotFoundException(String.format("Transaction with id %s not found",transactionId));
+            throw transactionMissOrDenied(user, transactionId);
         }
+        if (transaction.isRecurring() && transaction.getRecurrenceInterval() != null
+                && (updatedTransaction.getTransactionDate() != null || updatedTransaction.getRecurrenceInterval() != null)) {
+            rescheduleRecurrence(transaction);
+        }
+        TransactionResponseDTO transactionResponseDTO = createDTO(transaction);
+        transactionEntityCache.put(user.getUserId(), transactionId, transactionResponseDTO);
+        cacheGenerationService.bumpGeneration(user.getUserId());
 
-        AuthorizationUtils.validateOwnership(transaction.getUser().getUserId(), user.getUserId());
+        log.info("Transaction updated successfully {}", transactionId);
 
+        return transactionResponseDTO;
+    }
 
-        if(updatedTransaction.getAmount() != null) {
-            transaction.setAmount(updatedTransaction.getAmount());
-        }
-        if(updatedTransaction.getCategory() != null) {
-            transaction.setCategory(updatedTransaction.getCategory());
-        }
-        if(updatedTransaction.getDescription() != null) {
-            transaction.setDescription(updatedTransaction.getDescription());
-        }
-        if(updatedTransaction.getTransactionDate() != null) {
-            transaction.setTransactionDate(updatedTransaction.getTransactionDate());
-        }
-        if(updatedTransaction.getTransactionType() != null) {
-            transaction.setTransactionType(updatedTransaction.getTransactionType());
-        }
-        if(updatedTransaction.getRecurrenceInterval() != null){
-            transaction.setRecurrenceInterval(updatedTransaction.getRecurrenceInterval());
-        }
 
-        transactionRepository.save(transaction);
+    private void rescheduleRecurrence(Transaction transaction) {
+        // A changed schedule applies from now on, occurrences already posted under the old one stay as they are.
+        LocalDateTime anchor = transaction.getTransactionDate();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextOccurrence = transaction.getRecurrenceInterval().next(anchor, anchor.isAfter(now) ? anchor : now);
 
-        log.info("Transaction updated successfully {}", transactionId);
+        transactionRepository.updateNextOccurrenceDate(transaction.getTransactionId(), nextOccurrence);
+        transaction.setNextOccurrenceDate(nextOccurrence);
+    }
 
-        return createDTO(transaction);
+    private TransactionNotFoundException transactionMissOrDenied(User user, Integer transactionId) {
+        // The owner-scoped statement matched nothing, so only now pay for telling "missing" apart from "not yours".
+        AuthorizationUtils.denyIfResourceExists(transactionRepository.existsByTransactionId(transactionId), user.getUserId());
+        log.warn("Transaction not found for id: {}", transactionId);
+        return new TransactionNotFoundException(String.format("Transaction with id %s not found",transactionId));
     }
 
+    private static String enumName(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
 
     private TransactionResponseDTO createDTO(Transaction transaction) {
         TransactionResponseDTO transactionResponseDTO = new TransactionResponseDTO();
@@ -0,0 +1,127 @@
+package finance.freedom.finance_freedom_backend.service.core;
+
+import finance.freedom.finance_freedom_backend.interfaces.core.IUserActivityService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Login touches are buffered per user and written in batches, so a login doesn't wait on an UPDATE of its users row.
+@Service
+@Slf4j
+public class UserActivityServiceImpl implements IUserActivityService {
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final int batchSize;
+
+    // Repeated logins between flushes collapse into the latest one.
+    private final Map<Integer, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+
+    private final DistributionSummary flushSize;
+
+    private final Timer flushLag;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public UserActivityServiceImpl(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                   @Value("${user.activity.batch-size:500}") int batchSize) {
+        this.transactionManager = transactionManager;
+        this.batchSize = batchSize;
+        this.flushSize = DistributionSummary.builder("users.activity.flush.size")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder("users.activity.flush.lag")
+                .register(meterRegistry);
+        Gauge.builder("users.activity.pending", pendingLogins, Map::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordLogin(Integer userId, LocalDateTime loggedInAt) {
+        pendingLogins.merge(userId, loggedInAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    @Scheduled(fixedDelayString = "${user.activity.flush-interval:PT5S}")
+    @Override
+    public int flush() {
+        if (pendingLogins.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<Integer, LocalDateTime>> drained = new ArrayList<>(pendingLogins.size());
+        LocalDateTime oldest = null;
+        for (Integer userId : pendingLogins.keySet()) {
+            LocalDateTime loggedInAt = pendingLogins.remove(userId);
+            if (loggedInAt != null) {
+                drained.add(Map.entry(userId, loggedInAt));
+                oldest = (oldest == null || loggedInAt.isBefore(oldest)) ? loggedInAt : oldest;
+            }
+        }
+        if (drained.isEmpty()) {
+            return 0;
+        }
+        flushLag.record(Duration.between(oldest, LocalDateTime.now()));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int written = 0;
+        for (int from = 0; from < drained.size(); from += batchSize) {
+            List<Map.Entry<Integer, LocalDateTime>> batch = drained.subList(from, Math.min(from + batchSize, drained.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> updateLastLogins(batch));
+                flushSize.record(batch.size());
+                written += batch.size();
+            } catch (RuntimeException e) {
+                // Put the batch back for the next flush; a newer login recorded meanwhile wins the merge.
+                log.warn("Could not write {} login times, retrying on next flush: {}", batch.size(), e.getMessage());
+                batch.forEach(entry -> recordLogin(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        log.debug("Flushed {} login times", written);
+        return written;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Flushing {} pending login times before shutdown", pendingLogins.size());
+        flush();
+    }
+
+    private void updateLastLogins(List<Map.Entry<Integer, LocalDateTime>> batch) {
+        StringBuilder sql = new StringBuilder("UPDATE users AS u SET last_login_at = v.last_login_at FROM (VALUES ");
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(CAST(:userId").append(i).append(" AS integer), CAST(:loggedInAt").append(i).append(" AS timestamp))");
+        }
+        // The guard keeps a retried, older batch from moving last_login_at backwards.
+        sql.append(") AS v(user_id, last_login_at) WHERE u.user_id = v.user_id")
+                .append(" AND (u.last_login_at IS NULL OR u.last_login_at < v.last_login_at)");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        for (int i = 0; i < batch.size(); i++) {
+            query.setParameter("userId" + i, batch.get(i).getKey());
+            query.setParameter("loggedInAt" + i, batch.get(i).getValue());
+        }
+        query.executeUpdate();
+    }
+}
@@ -16,6 +16,7 @@ import finance.freedom.finance_freedom_backend.repository.RefreshTokenRepository
 import finance.freedom.finance_freedom_backend.repository.UserRepository;
 import finance.freedom.finance_freedom_backend.service.security.CustomUserDetailsService;
 import finance.freedom.finance_freedom_backend.util.AuthorizationUtils;
+import io.jsonwebtoken.Claims;
 import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -42,7 +43,7 @@ public class UserServiceImpl implements IUserService {
 
     private final IEmailService emailService;
 
-    @Cacheable(value = "user", key = "#user.userId")
+    @Cacheable(value = "user", keyGenerator = "userGenerationKeyGenerator")
     @Override
     public UserDetailsRequestDTO getUserDetails(User user) {
         log.info("Attempting to get user details for user {}", user.getEmail());
@@ -65,7 +66,8 @@ public class UserServiceImpl implements IUserService {
     public JWT refresh(User user, RefreshTokenRequest refreshTokenRequest) {
         log.info("Attempting to refresh token");
         String token = refreshTokenRequest.getRefreshToken();
-        String email = jwtService.extractUserName(token);
+        Claims claims = jwtService.extractAllClaims(token);
+        String email = claims.getSubject();
 
         RefreshToken refreshToken = refreshTokenRepository.findByRefreshToken(token);
 
@@ -77,7 +79,7 @@ public class UserServiceImpl implements IUserService {
         }
 
         UserDetails userDetails = customUserDetailsService.loadUserByUsername(user.getEmail());
-        if (!jwtService.validateToken(token, userDetails)) {
+        if (!jwtService.validateClaims(claims, userDetails)) {
             log.warn("Invalid refresh token");
             throw new IllegalArgumentException("Invalid refresh token");
         }
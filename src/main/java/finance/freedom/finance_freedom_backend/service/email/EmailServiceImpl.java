@@ -3,7 +3,9 @@ package finance.freedom.finance_freedom_backend.service.email;
 import finance.freedom.finance_freedom_backend.dto.email.EmailVerificationTokenDTO;
 import finance.freedom.finance_freedom_backend.enums.TokenPurpose;
 import finance.freedom.finance_freedom_backend.interfaces.aws.IAwsS3Service;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICacheGenerationService;
 import finance.freedom.finance_freedom_backend.interfaces.email.IEmailService;
+import finance.freedom.finance_freedom_backend.interfaces.security.IUserSnapshotService;
 import finance.freedom.finance_freedom_backend.model.core.User;
 import finance.freedom.finance_freedom_backend.model.email.EmailVerificationToken;
 import finance.freedom.finance_freedom_backend.model.exception.GenericResponse;
@@ -11,6 +13,7 @@ import finance.freedom.finance_freedom_backend.repository.EmailVerificationToken
 import finance.freedom.finance_freedom_backend.repository.RefreshTokenRepository;
 import finance.freedom.finance_freedom_backend.repository.UserRepository;
 import finance.freedom.finance_freedom_backend.util.PasswordUtil;
+import finance.freedom.finance_freedom_backend.util.TokenHashUtil;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +23,7 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -38,6 +42,10 @@ public class EmailServiceImpl implements IEmailService {
 
     private final PasswordUtil passwordUtil;
 
+    private final ICacheGenerationService cacheGenerationService;
+
+    private final IUserSnapshotService userSnapshotService;
+
 
 
     @Override
@@ -61,7 +69,8 @@ public class EmailServiceImpl implements IEmailService {
 
         EmailVerificationToken token = new EmailVerificationToken();
         token.setUser(user);
-        token.setToken(java.util.UUID.randomUUID().toString());
+        String rawToken = UUID.randomUUID().toString();
+        token.setTokenHash(TokenHashUtil.sha256(rawToken));
 
         token.setCreatedAt(LocalDateTime.now());
         token.setExpiresAt(LocalDateTime.now().plusMinutes(15));
@@ -71,12 +80,12 @@ public class EmailServiceImpl implements IEmailService {
 
         log.info("Email verification token generated successfully");
 
-        return createDTO(token);
+        return createDTO(token, rawToken);
     }
 
     @Override
     public GenericResponse verifyToken(String token, TokenPurpose purpose, String newPassword, String oldPassword) {
-        log.info("Verifying token {}", token);
+        log.info("Verifying token for purpose {}", purpose);
         EmailVerificationToken emailVerificationToken = emailVerificationTokenRepository.findByToken(token);
 
         if (emailVerificationToken == null) {
@@ -122,6 +131,7 @@ public class EmailServiceImpl implements IEmailService {
                 }
 
                 user.setPasswordHash(passwordUtil.hash(newPassword));
+                user.setSecurityStamp(UUID.randomUUID());
                 userRepository.save(user);
                 refreshTokenRepository.deleteAllByUser(user);
                 log.info("Password changed for {}", user.getEmail());
@@ -132,6 +142,7 @@ public class EmailServiceImpl implements IEmailService {
                     throw new IllegalArgumentException("New password must not be null for password reset");
                 }
                 user.setPasswordHash(passwordUtil.hash(newPassword));
+                user.setSecurityStamp(UUID.randomUUID());
                 userRepository.save(user);
                 refreshTokenRepository.deleteAllByUser(user);
                 log.info("Password reset for {}", user.getEmail());
@@ -141,6 +152,8 @@ public class EmailServiceImpl implements IEmailService {
         if(emailVerificationToken != null){
             emailVerificationTokenRepository.delete(emailVerificationToken);
         }
+        cacheGenerationService.bumpGeneration(user.getUserId());
+        userSnapshotService.evict(user.getUserId());
 
         log.info("Token verification for purpose {} completed for user {}", purpose, user.getEmail());
         return new GenericResponse(purpose.getSuccessMessage());
@@ -259,10 +272,11 @@ public class EmailServiceImpl implements IEmailService {
     }
 
 
-    public EmailVerificationTokenDTO createDTO(EmailVerificationToken token){
+    // Only the digest is stored, so the raw token the email carries is passed in separately.
+    public EmailVerificationTokenDTO createDTO(EmailVerificationToken token, String rawToken){
         EmailVerificationTokenDTO dto = new EmailVerificationTokenDTO();
 
-        dto.setToken(token.getToken());
+        dto.setToken(rawToken);
         dto.setPurpose(token.getPurpose());
         dto.setExpiresAt(token.getExpiresAt());
 
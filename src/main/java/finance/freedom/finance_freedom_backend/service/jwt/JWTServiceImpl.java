@@ -3,32 +3,54 @@ package finance.freedom.finance_freedom_backend.service.jwt;
 import finance.freedom.finance_freedom_backend.interfaces.aws.IAwsSecretsService;
 import finance.freedom.finance_freedom_backend.interfaces.jwt.IJWTService;
 import finance.freedom.finance_freedom_backend.model.aws.JWTSecretKey;
+import finance.freedom.finance_freedom_backend.model.aws.SecretRotatedEvent;
 import finance.freedom.finance_freedom_backend.model.core.User;
+import finance.freedom.finance_freedom_backend.model.security.CustomUserDetails;
 import finance.freedom.finance_freedom_backend.model.security.JWT;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class JWTServiceImpl implements IJWTService {
 
+    public static final String USER_ID_CLAIM = "userId";
+
+    public static final String SECURITY_STAMP_CLAIM = "securityStamp";
+
     private final IAwsSecretsService awsSecrets;
 
+    // Refresh tokens are the longest lived, so a rotated-out key has nothing left to verify after this.
+    @Value("${jwt.previous-key-retention:P7D}")
+    private Duration previousKeyRetention = Duration.ofDays(7);
+
+    // Key and parsers are built once and swapped together, so a request never verifies with a parser for the old key.
+    private final AtomicReference<SigningKey> signingKey = new AtomicReference<>();
+
+    // Only the current key signs, the previous one verifies tokens issued before the rotation until previousUntil.
+    private record SigningKey(SecretKey key, JwtParser parser, JwtParser previousParser, Instant previousUntil) {
+    }
 
     public JWT generateToken(User user, Duration duration) {
         log.info("Generating token for user {}", user.getEmail());
@@ -37,6 +59,10 @@ public class JWTServiceImpl implements IJWTService {
 
         claims.put("email", user.getEmail());
         claims.put("username", user.getFullName());
+        claims.put(USER_ID_CLAIM, user.getUserId());
+        if (user.getSecurityStamp() != null) {
+            claims.put(SECURITY_STAMP_CLAIM, user.getSecurityStamp().toString());
+        }
 
         LocalDateTime issuedAt = LocalDateTime.now();
         LocalDateTime expiration = issuedAt.plus(duration);
@@ -44,12 +70,14 @@ public class JWTServiceImpl implements IJWTService {
         Date issuedAtDate = java.util.Date.from(issuedAt.atZone(java.time.ZoneId.systemDefault()).toInstant());
         Date expirationDate = java.util.Date.from(expiration.atZone(java.time.ZoneId.systemDefault()).toInstant());
 
+        // Without a random id two tokens issued to one user in the same second are identical and collide on token_hash.
         String token = Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .claims(claims)
                 .subject(user.getEmail())
                 .issuedAt(issuedAtDate)
                 .expiration(expirationDate)
-                .signWith(getKey())
+                .signWith(getSigningKey().key())
                 .compact();
 
         jwt.setToken(token);
@@ -60,39 +88,78 @@ public class JWTServiceImpl implements IJWTService {
         return jwt;
     }
 
-    private SecretKey getKey(){
-        JWTSecretKey jwtSecretKey = awsSecrets.getSecretKey();
+    private SigningKey getSigningKey() {
+        SigningKey current = signingKey.get();
+        if (current == null) {
+            current = buildSigningKey();
+            if (!signingKey.compareAndSet(null, current)) {
+                current = signingKey.get();
+            }
+        }
+        return current;
+    }
+
+    private SigningKey buildSigningKey() {
+        SecretKey key = toKey(awsSecrets.getSecretKey());
+
+        JWTSecretKey previous = awsSecrets.getPreviousSecretKey();
+        Instant rotatedAt = awsSecrets.getSecretKeyRotatedAt();
+        if (previous == null || rotatedAt == null) {
+            return new SigningKey(key, Jwts.parser().verifyWith(key).build(), null, null);
+        }
+        return new SigningKey(key, Jwts.parser().verifyWith(key).build(),
+                Jwts.parser().verifyWith(toKey(previous)).build(), rotatedAt.plus(previousKeyRetention));
+    }
+
+    private SecretKey toKey(JWTSecretKey jwtSecretKey) {
         byte[] encodedKey = Base64.getEncoder().encode(jwtSecretKey.getJwtSecret().getBytes());
         return Keys.hmacShaKeyFor(encodedKey);
     }
 
-    public String extractUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
+    @EventListener(condition = "#event.secretType() == T(finance.freedom.finance_freedom_backend.enums.SecretType).JWT")
+    public void onJwtSecretRotated(SecretRotatedEvent event) {
+        log.info("JWT secret rotated, rebuilding signing key and keeping the previous one for verification");
+        signingKey.set(buildSigningKey());
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public String extractUserName(String token) {
+        return extractAllClaims(token).getSubject();
     }
 
+    // Verifies the signature and expiry; callers reuse the claims instead of parsing the token again.
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        SigningKey current = getSigningKey();
+        try {
+            return current.parser()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        } catch (SignatureException e) {
+            // A token signed before the last rotation is still honoured until the longest token lifetime has passed.
+            if (current.previousParser() == null || Instant.now().isAfter(current.previousUntil())) {
+                throw e;
+            }
+            return current.previousParser()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        }
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUserName(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateClaims(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date())
+                && hasCurrentSecurityStamp(claims, userDetails));
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    // Tokens issued before the stamp claim existed carry none and are accepted until they expire.
+    private boolean hasCurrentSecurityStamp(Claims claims, UserDetails userDetails) {
+        String stamp = claims.get(SECURITY_STAMP_CLAIM, String.class);
+        if (stamp == null || !(userDetails instanceof CustomUserDetails customUserDetails)) {
+            return true;
+        }
+        return stamp.equals(String.valueOf(customUserDetails.getUser().getSecurityStamp()));
     }
 }
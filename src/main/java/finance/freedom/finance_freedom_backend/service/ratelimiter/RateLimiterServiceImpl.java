@@ -1,34 +1,110 @@
 package finance.freedom.finance_freedom_backend.service.ratelimiter;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import finance.freedom.finance_freedom_backend.cache.RedisCircuitBreaker;
 import finance.freedom.finance_freedom_backend.enums.RateLimitType;
 import finance.freedom.finance_freedom_backend.exception.customexceptions.TooManyRequestsException;
 import finance.freedom.finance_freedom_backend.interfaces.ratelimiter.IRateLimiterService;
 import finance.freedom.finance_freedom_backend.model.security.CustomUserDetails;
 import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BlockingBucket;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.BucketListener;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.EstimationProbe;
+import io.github.bucket4j.SchedulingBucket;
+import io.github.bucket4j.TokensInheritanceStrategy;
+import io.github.bucket4j.VerboseBucket;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+// Buckets live in Redis so every node draws from the same limit; local buckets take over while Redis is unreachable.
 @Service
 @Slf4j
 public class RateLimiterServiceImpl implements IRateLimiterService {
 
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    // Prefetching is only allowed where the tokens a node may spend unsynchronized stay within a tenth of the capacity.
+    // With the default of 2 tokens that covers every limit of 20 and up, the small login and password limits stay exact.
+    private static final int PREFETCH_CAPACITY_FACTOR = 10;
+
     private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
 
+    private final RedisCircuitBreaker circuitBreaker;
+
+    private final ObjectProvider<LettuceConnectionFactory> connectionFactory;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean batching;
+
+    private final long prefetchTokens;
+
+    private final Duration prefetchTimeout;
+
+    // Proxies only hold the optimization state, the bucket itself is in Redis.
+    private final Cache<String, Bucket> remoteBuckets;
+
+    private volatile ProxyManager<String> proxyManager;
+
+    private StatefulConnection<String, byte[]> connection;
+
+    public RateLimiterServiceImpl(RedisCircuitBreaker circuitBreaker,
+                                  ObjectProvider<LettuceConnectionFactory> connectionFactory,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${rate-limit.redis.batching:true}") boolean batching,
+                                  @Value("${rate-limit.redis.prefetch-tokens:2}") long prefetchTokens,
+                                  @Value("${rate-limit.redis.prefetch-timeout:PT1S}") Duration prefetchTimeout,
+                                  @Value("${rate-limit.redis.maximum-buckets:100000}") long maximumBuckets) {
+        this.circuitBreaker = circuitBreaker;
+        this.connectionFactory = connectionFactory;
+        this.meterRegistry = meterRegistry;
+        this.batching = batching;
+        this.prefetchTokens = prefetchTokens;
+        this.prefetchTimeout = prefetchTimeout;
+        this.remoteBuckets = Caffeine.newBuilder()
+                .maximumSize(maximumBuckets)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
     @Override
     public Bucket resolveBucket(HttpServletRequest request, RateLimitType type) {
 
-        String key = resolveKeyFromContext(request, type);
-        return buckets.computeIfAbsent(key, k -> {
-            Bandwidth limit = getLimitForType(type);
-            return Bucket.builder().addLimit(limit).build();
-        });
+        return new FallbackBucket(resolveKeyFromContext(request, type), type);
     }
 
     @Override
@@ -75,10 +151,206 @@ public class RateLimiterServiceImpl implements IRateLimiterService {
 
     @Override
     public void enforceRateLimit(HttpServletRequest request, RateLimitType type, String action) {
-        Bucket bucket = resolveBucket(request, type);
-        if(!bucket.tryConsume(1)){
+        if(!tryConsume(resolveKeyFromContext(request, type), type)){
             log.warn("Too many {} attempts for user {}", action.toLowerCase(), getClientIP(request));
             throw new TooManyRequestsException(String.format("Too many %s attempts. Please try again later.", action.toLowerCase()));
         }
     }
+
+    private boolean tryConsume(String key, RateLimitType type) {
+        return withFallback(key, type, (store, bucket) -> record(store, bucket.tryConsume(1)));
+    }
+
+    // Every bucket call goes to Redis first and to the local bucket when Redis is off or the call fails.
+    private <R> R withFallback(String key, RateLimitType type, BiFunction<String, Bucket, R> call) {
+        ProxyManager<String> remote = remoteStore();
+        if (remote != null) {
+            try {
+                R result = call.apply("redis", remoteBucket(remote, key, type));
+                circuitBreaker.recordSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                // Each node then enforces the limit on its own until Redis is back.
+                log.warn("Could not check rate limit {} in Redis: {}", key, e.getMessage());
+                circuitBreaker.recordFailure(new RedisSystemException("Rate limit check failed", e));
+            }
+        }
+        return call.apply("local", localBucket(key, type));
+    }
+
+    private boolean record(String store, boolean consumed) {
+        meterRegistry.counter("rate_limit.checks", "store", store, "result", consumed ? "allowed" : "rejected").increment();
+        return consumed;
+    }
+
+    private Bucket localBucket(String key, RateLimitType type) {
+        return buckets.computeIfAbsent(key, k -> {
+            Bandwidth limit = getLimitForType(type);
+            return Bucket.builder().addLimit(limit).build();
+        });
+    }
+
+    private Bucket remoteBucket(ProxyManager<String> remote, String key, RateLimitType type) {
+        return remoteBuckets.get(key, k -> {
+            Bandwidth limit = getLimitForType(type);
+            RemoteBucketBuilder<String> builder = remote.builder();
+            if (prefetchTokens > 0 && limit.getCapacity() >= prefetchTokens * PREFETCH_CAPACITY_FACTOR) {
+                builder = builder.withOptimization(Optimizations.delaying(new DelayParameters(prefetchTokens, prefetchTimeout)));
+            } else if (batching) {
+                builder = builder.withOptimization(Optimizations.batching());
+            }
+            return builder.build(KEY_PREFIX + k, () -> BucketConfiguration.builder().addLimit(limit).build());
+        });
+    }
+
+    // Connects on first use rather than at startup, so the application still starts while Redis is down.
+    private ProxyManager<String> remoteStore() {
+        if (!circuitBreaker.allowRequest()) {
+            return null;
+        }
+        ProxyManager<String> current = proxyManager;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (proxyManager == null) {
+                LettuceConnectionFactory factory = connectionFactory.getIfAvailable();
+                if (factory == null) {
+                    return null;
+                }
+                try {
+                    proxyManager = connect(factory.getNativeClient());
+                    log.info("Rate limit buckets are now kept in Redis");
+                } catch (RuntimeException e) {
+                    log.warn("Could not connect rate limiter to Redis: {}", e.getMessage());
+                    circuitBreaker.recordFailure(new RedisSystemException("Rate limiter connection failed", e));
+                    return null;
+                }
+            }
+            return proxyManager;
+        }
+    }
+
+    private ProxyManager<String> connect(AbstractRedisClient client) {
+        RedisCodec<String, byte[]> codec = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+        // Keys outlive a full refill by a minute, so idle clients don't pile up in Redis.
+        ExpirationAfterWriteStrategy expiration = ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(Duration.ofMinutes(1));
+
+        if (client instanceof RedisClusterClient clusterClient) {
+            StatefulRedisClusterConnection<String, byte[]> clusterConnection = clusterClient.connect(codec);
+            connection = clusterConnection;
+            return LettuceBasedProxyManager.builderFor(clusterConnection).withExpirationStrategy(expiration).build();
+        }
+        StatefulRedisConnection<String, byte[]> redisConnection = ((RedisClient) client).connect(codec);
+        connection = redisConnection;
+        return LettuceBasedProxyManager.builderFor(redisConnection).withExpirationStrategy(expiration).build();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    // Resolves the store on every call, so a bucket handed out while Redis was up still falls back once it goes down.
+    private final class FallbackBucket implements Bucket {
+
+        private final String key;
+
+        private final RateLimitType type;
+
+        private FallbackBucket(String key, RateLimitType type) {
+            this.key = key;
+            this.type = type;
+        }
+
+        private <R> R call(Function<Bucket, R> call) {
+            return withFallback(key, type, (store, bucket) -> call.apply(bucket));
+        }
+
+        private void run(Consumer<Bucket> call) {
+            withFallback(key, type, (store, bucket) -> {
+                call.accept(bucket);
+                return null;
+            });
+        }
+
+        // The views below are bound to the store that is reachable right now.
+        @Override
+        public BlockingBucket asBlocking() {
+            return call(Bucket::asBlocking);
+        }
+
+        @Override
+        public SchedulingBucket asScheduler() {
+            return call(Bucket::asScheduler);
+        }
+
+        @Override
+        public VerboseBucket asVerbose() {
+            return call(Bucket::asVerbose);
+        }
+
+        @Override
+        public Bucket toListenable(BucketListener listener) {
+            return call(bucket -> bucket.toListenable(listener));
+        }
+
+        @Override
+        public boolean tryConsume(long numTokens) {
+            return call(bucket -> bucket.tryConsume(numTokens));
+        }
+
+        @Override
+        public long consumeIgnoringRateLimits(long tokens) {
+            return call(bucket -> bucket.consumeIgnoringRateLimits(tokens));
+        }
+
+        @Override
+        public ConsumptionProbe tryConsumeAndReturnRemaining(long numTokens) {
+            return call(bucket -> bucket.tryConsumeAndReturnRemaining(numTokens));
+        }
+
+        @Override
+        public EstimationProbe estimateAbilityToConsume(long numTokens) {
+            return call(bucket -> bucket.estimateAbilityToConsume(numTokens));
+        }
+
+        @Override
+        public long tryConsumeAsMuchAsPossible() {
+            return call(Bucket::tryConsumeAsMuchAsPossible);
+        }
+
+        @Override
+        public long tryConsumeAsMuchAsPossible(long limit) {
+            return call(bucket -> bucket.tryConsumeAsMuchAsPossible(limit));
+        }
+
+        @Override
+        public void addTokens(long tokensToAdd) {
+            run(bucket -> bucket.addTokens(tokensToAdd));
+        }
+
+        @Override
+        public void forceAddTokens(long tokensToAdd) {
+            run(bucket -> bucket.forceAddTokens(tokensToAdd));
+        }
+
+        @Override
+        public void reset() {
+            run(Bucket::reset);
+        }
+
+        @Override
+        public long getAvailableTokens() {
+            return call(Bucket::getAvailableTokens);
+        }
+
+        @Override
+        public void replaceConfiguration(BucketConfiguration newConfiguration, TokensInheritanceStrategy tokensInheritanceStrategy) {
+            run(bucket -> bucket.replaceConfiguration(newConfiguration, tokensInheritanceStrategy));
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package finance.freedom.finance_freedom_backend.service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import finance.freedom.finance_freedom_backend.cache.CacheInvalidationBus;
+import finance.freedom.finance_freedom_backend.interfaces.security.IUserSnapshotService;
+import finance.freedom.finance_freedom_backend.model.core.User;
+import finance.freedom.finance_freedom_backend.model.security.CustomUserDetails;
+import finance.freedom.finance_freedom_backend.model.security.UserSnapshot;
+import finance.freedom.finance_freedom_backend.repository.UserRepository;
+import finance.freedom.finance_freedom_backend.util.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+// Users behind authenticated requests, keyed by the userId claim so a request doesn't need the users table.
+@Service
+@Slf4j
+public class UserSnapshotServiceImpl implements IUserSnapshotService {
+
+    public static final String CACHE_NAME = "userSnapshot";
+
+    private final UserRepository userRepository;
+
+    private final CacheInvalidationBus invalidationBus;
+
+    private final Cache<Integer, UserSnapshot> snapshots;
+
+    public UserSnapshotServiceImpl(UserRepository userRepository, CacheInvalidationBus invalidationBus, MeterRegistry meterRegistry,
+                                   @Value("${security.user-snapshot.ttl:PT5M}") Duration ttl,
+                                   @Value("${security.user-snapshot.maximum-size:10000}") long maximumSize) {
+        this.userRepository = userRepository;
+        this.invalidationBus = invalidationBus;
+        // The TTL bounds how long another node keeps a changed user if the invalidation message is lost.
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, CACHE_NAME);
+
+        invalidationBus.register(CACHE_NAME, key -> {
+            if (key == null) {
+                snapshots.invalidateAll();
+            } else {
+                snapshots.invalidate(Integer.valueOf(key));
+            }
+        });
+    }
+
+    @Override
+    public CustomUserDetails loadUser(Integer userId) {
+        UserSnapshot snapshot = snapshots.get(userId, id -> {
+            log.debug("Loading user snapshot for user {}", id);
+            User user = userRepository.findByUserId(id);
+            return user == null ? null : UserSnapshot.from(user);
+        });
+        return snapshot == null ? null : new CustomUserDetails(snapshot.toUser());
+    }
+
+    @Override
+    public void evict(Integer userId) {
+        TransactionCallbacks.afterCommit(() -> {
+            snapshots.invalidate(userId);
+            invalidationBus.publish(CACHE_NAME, userId.toString());
+        });
+    }
+}
@@ -16,6 +16,13 @@ public class AuthorizationUtils {
         log.debug("Validating ownership of resourceOwnerId: {} and authenticatedUserId: {}", resourceOwnerId, authenticatedUserId);
     }
 
+    public static void denyIfResourceExists(boolean resourceExists, Integer authenticatedUserId) {
+        if (resourceExists) {
+            log.warn("Unauthorized access attempt on resource owned by another user, authenticatedUserId: {}", authenticatedUserId);
+            throw new AccessDeniedException("Unauthorized");
+        }
+    }
+
     public static void requireUser(CustomUserDetails userDetails){
         log.debug("Checking if user is authenticated");
         if (userDetails == null || userDetails.getUser() == null) {
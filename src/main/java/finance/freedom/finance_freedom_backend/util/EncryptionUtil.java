@@ -2,28 +2,63 @@ package finance.freedom.finance_freedom_backend.util;
 
 import finance.freedom.finance_freedom_backend.interfaces.aws.IAwsSecretsService;
 import finance.freedom.finance_freedom_backend.model.aws.EncryptionDetails;
+import finance.freedom.finance_freedom_backend.model.aws.SecretRotatedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.crypto.encrypt.Encryptors;
 import org.springframework.security.crypto.encrypt.TextEncryptor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @RequiredArgsConstructor
 @Component
 @Slf4j
 public class EncryptionUtil {
     private final IAwsSecretsService awsSecrets;
 
+    // Key derivation is slow, so encryptors are built once per secret value instead of per call.
+    // The newest key encrypts, older keys stay so values stored before a rotation still decrypt.
+    private volatile List<TextEncryptor> encryptors;
+
     public String encrypt(String token) {
-        return getEncryptor().encrypt(token);
+        return getEncryptors().getFirst().encrypt(token);
 
     }
     public String decrypt(String token) {
-        return getEncryptor().decrypt(token);
+        IllegalStateException failure = null;
+        for (TextEncryptor encryptor : getEncryptors()) {
+            try {
+                return encryptor.decrypt(token);
+            } catch (IllegalStateException e) {
+                // AES-GCM rejects a ciphertext written under another key, so move on to the next one.
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    private List<TextEncryptor> getEncryptors() {
+        List<TextEncryptor> current = encryptors;
+        if (current == null) {
+            List<TextEncryptor> built = new ArrayList<>();
+            built.add(buildEncryptor(awsSecrets.getEncryptionDetails()));
+            awsSecrets.getPreviousEncryptionDetails().forEach(details -> built.add(buildEncryptor(details)));
+            current = List.copyOf(built);
+            encryptors = current;
+        }
+        return current;
     }
 
-    private TextEncryptor getEncryptor() {
-        EncryptionDetails encryptionDetails = awsSecrets.getEncryptionDetails();
+    private TextEncryptor buildEncryptor(EncryptionDetails encryptionDetails) {
         return Encryptors.delux(encryptionDetails.getPassword(), encryptionDetails.getSalt());
     }
+
+    @EventListener(condition = "#event.secretType() == T(finance.freedom.finance_freedom_backend.enums.SecretType).ENCRYPTION")
+    public void onEncryptionSecretRotated(SecretRotatedEvent event) {
+        log.info("Encryption secret rotated, rebuilding encryptors with previous keys kept for decryption");
+        encryptors = null;
+    }
 }
@@ -0,0 +1,78 @@
+-- Schema as previously generated by Hibernate from the entities in model/.
+-- Existing databases are baselined at this version and skip it.
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id         integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    full_name       varchar(100) NOT NULL,
+    email           varchar(100) NOT NULL,
+    password_hash   varchar(255) NOT NULL,
+    oauth_provider  varchar(50),
+    oauth_id        varchar(100),
+    is_verified     boolean      NOT NULL DEFAULT false,
+    is_active       boolean      NOT NULL DEFAULT true,
+    last_login_at   timestamp(6),
+    created_at      timestamp(6),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    transaction_id      integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id             integer REFERENCES users (user_id) ON DELETE CASCADE,
+    amount              numeric(38, 2) NOT NULL,
+    category            varchar(50)    NOT NULL,
+    description         varchar(500)   NOT NULL,
+    transaction_type    varchar(255)   NOT NULL,
+    transaction_date    timestamp(6)   NOT NULL,
+    is_recurring        boolean        NOT NULL DEFAULT false,
+    recurrence_interval varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS budgets (
+    budget_id                integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id                  integer REFERENCES users (user_id) ON DELETE CASCADE,
+    category                 varchar(50)    NOT NULL,
+    budget_amount            numeric(38, 2) NOT NULL CHECK (budget_amount >= 0),
+    start_date               timestamp(6)   NOT NULL,
+    end_date                 timestamp(6)   NOT NULL,
+    notify_threshold_percent numeric(38, 2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS savings_goals (
+    goal_id         integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id         integer REFERENCES users (user_id) ON DELETE CASCADE,
+    goal_name       varchar(100)   NOT NULL,
+    target_amount   numeric(38, 2) NOT NULL CHECK (target_amount >= 0),
+    current_amount  decimal(10, 2) DEFAULT 0,
+    target_date     timestamp(6),
+    is_completed    boolean        NOT NULL DEFAULT false,
+    completion_date timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS linked_accounts (
+    account_id       integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id          integer REFERENCES users (user_id) ON DELETE CASCADE,
+    access_token     varchar(500)   NOT NULL,
+    institution_name varchar(100)   NOT NULL,
+    account_type     varchar(50)    NOT NULL,
+    account_name     varchar(100)   NOT NULL,
+    balance          numeric(38, 2),
+    last_update      timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    token_id      integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id       integer REFERENCES users (user_id) ON DELETE CASCADE,
+    refresh_token varchar(500) NOT NULL,
+    expires_at    timestamp(6) NOT NULL,
+    created_at    timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS email_verification_tokens (
+    id            integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token         varchar(255) NOT NULL,
+    user_id       integer REFERENCES users (user_id) ON DELETE CASCADE,
+    created_at    timestamp(6) NOT NULL,
+    token_purpose varchar(255) NOT NULL,
+    expires_at    timestamp(6) NOT NULL,
+    CONSTRAINT uk_email_verification_tokens_token UNIQUE (token)
+);
@@ -0,0 +1,26 @@
+-- CONCURRENTLY keeps the tables writable while the indexes build; Flyway runs
+-- this script outside a transaction because of it.
+
+-- getFilteredTransactions / keyset pages: filter on user, order by date.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_date_type
+    ON transactions (user_id, transaction_date DESC, transaction_type);
+
+-- findByUser on the per-user resources.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_budgets_user_id
+    ON budgets (user_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_savings_goals_user_id
+    ON savings_goals (user_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_linked_accounts_user_id
+    ON linked_accounts (user_id);
+
+-- findByRefreshToken, plus the per-user token deletes on password change and resend.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_refresh_token
+    ON refresh_tokens (refresh_token);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_user_id
+    ON refresh_tokens (user_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_email_verification_tokens_user_id
+    ON email_verification_tokens (user_id);
@@ -0,0 +1,11 @@
+-- Transaction ids come from Hibernate's pooled optimizer, which reserves 50 ids per nextval so batched
+-- inserts need no round trip per row. Identity sequences are hidden from information_schema, which schema
+-- validation reads, so the column moves to a plain sequence that steps by the allocation size.
+ALTER TABLE transactions ALTER COLUMN transaction_id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS transactions_transaction_id_seq INCREMENT BY 50 OWNED BY transactions.transaction_id;
+
+-- The pooled optimizer treats each value as the top of its block, so the first one must sit a full block above existing ids.
+SELECT setval('transactions_transaction_id_seq', COALESCE(MAX(transaction_id), 0) + 50, false) FROM transactions;
+
+ALTER TABLE transactions ALTER COLUMN transaction_id SET DEFAULT nextval('transactions_transaction_id_seq');
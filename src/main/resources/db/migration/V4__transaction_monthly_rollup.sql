@@ -0,0 +1,17 @@
+-- One row per user, month, category and type, kept current by the transaction writes.
+CREATE TABLE IF NOT EXISTS transaction_monthly_rollup (
+    user_id           integer        NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
+    month             date           NOT NULL,
+    category          varchar(50)    NOT NULL,
+    transaction_type  varchar(255)   NOT NULL,
+    total             numeric(38, 2) NOT NULL DEFAULT 0,
+    transaction_count bigint         NOT NULL DEFAULT 0,
+    CONSTRAINT pk_transaction_monthly_rollup PRIMARY KEY (user_id, month, category, transaction_type)
+);
+
+INSERT INTO transaction_monthly_rollup (user_id, month, category, transaction_type, total, transaction_count)
+SELECT user_id, CAST(date_trunc('month', transaction_date) AS date), category, transaction_type, SUM(amount), COUNT(*)
+FROM transactions
+WHERE user_id IS NOT NULL
+GROUP BY 1, 2, 3, 4
+ON CONFLICT DO NOTHING;
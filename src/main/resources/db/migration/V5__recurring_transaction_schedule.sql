@@ -0,0 +1,28 @@
+-- Recurring transactions act as templates: next_occurrence_date is when the materializer posts the next copy,
+-- and every copy points back at its template through recurrence_source_id.
+ALTER TABLE transactions
+    ADD COLUMN IF NOT EXISTS next_occurrence_date timestamp(6),
+    ADD COLUMN IF NOT EXISTS recurrence_source_id integer REFERENCES transactions (transaction_id) ON DELETE SET NULL;
+
+-- One copy per template and occurrence date, so a replayed or overlapping run can't double-post.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_transactions_recurrence_occurrence
+    ON transactions (recurrence_source_id, transaction_date)
+    WHERE recurrence_source_id IS NOT NULL;
+
+-- Due-template scan for the materializer.
+CREATE INDEX IF NOT EXISTS idx_transactions_recurring_due
+    ON transactions (next_occurrence_date)
+    WHERE is_recurring AND next_occurrence_date IS NOT NULL;
+
+-- Existing templates start one interval after their own date, the materializer catches up from there.
+UPDATE transactions
+SET next_occurrence_date = transaction_date + CASE recurrence_interval
+        WHEN 'DAILY' THEN interval '1 day'
+        WHEN 'WEEKLY' THEN interval '1 week'
+        WHEN 'BIWEEKLY' THEN interval '2 weeks'
+        WHEN 'MONTHLY' THEN interval '1 month'
+        WHEN 'YEARLY' THEN interval '1 year'
+    END
+WHERE is_recurring
+  AND recurrence_interval IN ('DAILY', 'WEEKLY', 'BIWEEKLY', 'MONTHLY', 'YEARLY')
+  AND next_occurrence_date IS NULL;
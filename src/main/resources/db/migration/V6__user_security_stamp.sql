@@ -0,0 +1,3 @@
+-- Access tokens carry the stamp, so rotating it on a password change or reset revokes every token issued before.
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS security_stamp uuid NOT NULL DEFAULT gen_random_uuid();
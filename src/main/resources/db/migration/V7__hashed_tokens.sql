@@ -0,0 +1,30 @@
+-- Tokens are stored as their SHA-256 digest: lookups compare 32 fixed bytes instead of a JWT-sized string,
+-- and a leaked row can no longer be replayed as a token.
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_hash bytea;
+UPDATE refresh_tokens SET token_hash = sha256(convert_to(refresh_token, 'UTF8')) WHERE token_hash IS NULL;
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_tokens DROP COLUMN IF EXISTS refresh_token;
+
+-- A login that somehow produced the same token twice kept both rows, the newest one wins.
+DELETE FROM refresh_tokens r
+WHERE EXISTS (SELECT 1 FROM refresh_tokens newer
+              WHERE newer.token_hash = r.token_hash AND newer.token_id > r.token_id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_tokens_token_hash
+    ON refresh_tokens (token_hash);
+
+ALTER TABLE email_verification_tokens ADD COLUMN IF NOT EXISTS token_hash bytea;
+UPDATE email_verification_tokens SET token_hash = sha256(convert_to(token, 'UTF8')) WHERE token_hash IS NULL;
+ALTER TABLE email_verification_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE email_verification_tokens DROP CONSTRAINT IF EXISTS uk_email_verification_tokens_token;
+ALTER TABLE email_verification_tokens DROP COLUMN IF EXISTS token;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_email_verification_tokens_token_hash
+    ON email_verification_tokens (token_hash);
+
+-- Expiry purge scans.
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at
+    ON refresh_tokens (expires_at);
+
+CREATE INDEX IF NOT EXISTS idx_email_verification_tokens_expires_at
+    ON email_verification_tokens (expires_at);
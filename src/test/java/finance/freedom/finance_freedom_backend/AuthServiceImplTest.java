@@ -4,6 +4,8 @@ import finance.freedom.finance_freedom_backend.dto.email.EmailVerificationTokenD
 import finance.freedom.finance_freedom_backend.dto.user.*;
 import finance.freedom.finance_freedom_backend.enums.TokenPurpose;
 import finance.freedom.finance_freedom_backend.exception.customexceptions.UserNotFoundException;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICachePrefetchService;
+import finance.freedom.finance_freedom_backend.interfaces.core.IUserActivityService;
 import finance.freedom.finance_freedom_backend.interfaces.email.IEmailService;
 import finance.freedom.finance_freedom_backend.model.core.RefreshToken;
 import finance.freedom.finance_freedom_backend.model.core.User;
@@ -42,6 +44,8 @@ class AuthServiceImplTest {
     @Mock private UserRepository userRepository;
     @Mock private RefreshTokenRepository refreshTokenRepository;
     @Mock private IEmailService emailService;
+    @Mock private ICachePrefetchService cachePrefetchService;
+    @Mock private IUserActivityService userActivityService;
 
     @InjectMocks private AuthServiceImpl authService;
 
@@ -73,6 +77,9 @@ class AuthServiceImplTest {
         assertNotNull(response);
         assertEquals("test@example.com", response.getEmail());
         assertNotNull(response.getAccessToken());
+        verify(cachePrefetchService).prefetch(user);
+        verify(userActivityService).recordLogin(user.getUserId(), user.getLastLoginAt());
+        verify(userRepository, never()).save(user);
     }
 
     @Test
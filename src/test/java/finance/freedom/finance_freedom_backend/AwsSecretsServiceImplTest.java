@@ -0,0 +1,135 @@
+package finance.freedom.finance_freedom_backend;
+
+import com.google.gson.Gson;
+import finance.freedom.finance_freedom_backend.enums.SecretType;
+import finance.freedom.finance_freedom_backend.model.aws.SecretRotatedEvent;
+import finance.freedom.finance_freedom_backend.service.aws.AwsSecretsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
+import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueResponse;
+import software.amazon.awssdk.services.secretsmanager.model.SecretsManagerException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AwsSecretsServiceImplTest {
+
+    @Mock private SecretsManagerClient secretsManagerClient;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, String> secrets = new HashMap<>();
+    private AwsSecretsServiceImpl awsSecretsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        secrets.put("RDS-connection-credentials-postgres", "{\"username\":\"app\",\"password\":\"first\"}");
+        secrets.put("jwt-secret-key", "{\"jwtSecret\":\"jwt\"}");
+        secrets.put("java-mail-sender-info", "{\"smtpHost\":\"smtp.example.com\"}");
+        secrets.put("Encryption-data", "{\"password\":\"secret\",\"salt\":\"abcd\"}");
+        when(secretsManagerClient.getSecretValue(any(GetSecretValueRequest.class))).thenAnswer(invocation -> {
+            GetSecretValueRequest request = invocation.getArgument(0);
+            String secretId = request.versionStage() == null ? request.secretId() : request.secretId() + ":" + request.versionStage();
+            if (!secrets.containsKey(secretId)) {
+                throw SecretsManagerException.builder().message("not found").build();
+            }
+            return GetSecretValueResponse.builder().secretString(secrets.get(secretId)).build();
+        });
+        awsSecretsService = new AwsSecretsServiceImpl(secretsManagerClient, new Gson(), eventPublisher);
+    }
+
+    @Test
+    void loadSecrets_shouldHoldEverySecretInMemory() {
+        awsSecretsService.loadSecrets();
+
+        assertEquals("first", awsSecretsService.getRdsConnection().getPassword());
+        assertEquals("jwt", awsSecretsService.getSecretKey().getJwtSecret());
+        assertEquals("smtp.example.com", awsSecretsService.getJavaMailSenderInfo().getSmtpHost());
+        assertEquals("abcd", awsSecretsService.getEncryptionDetails().getSalt());
+        assertTrue(awsSecretsService.getPreviousEncryptionDetails().isEmpty());
+        assertNull(awsSecretsService.getPreviousSecretKey());
+        verify(secretsManagerClient, times(6)).getSecretValue(any(GetSecretValueRequest.class));
+    }
+
+    @Test
+    void loadSecrets_shouldLoadThePreviousJwtKey() {
+        secrets.put("jwt-secret-key:AWSPREVIOUS", "{\"jwtSecret\":\"old-jwt\"}");
+
+        awsSecretsService.loadSecrets();
+
+        assertEquals("old-jwt", awsSecretsService.getPreviousSecretKey().getJwtSecret());
+        assertNotNull(awsSecretsService.getSecretKeyRotatedAt());
+    }
+
+    @Test
+    void refreshSecrets_shouldKeepTheRotatedOutJwtKey() {
+        awsSecretsService.loadSecrets();
+        secrets.put("jwt-secret-key", "{\"jwtSecret\":\"rotated-jwt\"}");
+
+        awsSecretsService.refreshSecrets();
+
+        assertEquals("rotated-jwt", awsSecretsService.getSecretKey().getJwtSecret());
+        assertEquals("jwt", awsSecretsService.getPreviousSecretKey().getJwtSecret());
+        assertNotNull(awsSecretsService.getSecretKeyRotatedAt());
+    }
+
+    @Test
+    void loadSecrets_shouldLoadThePreviousEncryptionKey() {
+        secrets.put("Encryption-data:AWSPREVIOUS", "{\"password\":\"old\",\"salt\":\"beef\"}");
+
+        awsSecretsService.loadSecrets();
+
+        assertEquals("beef", awsSecretsService.getPreviousEncryptionDetails().getFirst().getSalt());
+    }
+
+    @Test
+    void refreshSecrets_shouldKeepRotatedEncryptionKeys() {
+        awsSecretsService.loadSecrets();
+        secrets.put("Encryption-data", "{\"password\":\"rotated\",\"salt\":\"cafe\"}");
+
+        awsSecretsService.refreshSecrets();
+
+        assertEquals("cafe", awsSecretsService.getEncryptionDetails().getSalt());
+        assertEquals("abcd", awsSecretsService.getPreviousEncryptionDetails().getFirst().getSalt());
+        verify(eventPublisher).publishEvent(new SecretRotatedEvent(SecretType.ENCRYPTION));
+    }
+
+    @Test
+    void loadSecrets_shouldFailStartupWhenASecretIsMissing() {
+        secrets.remove("jwt-secret-key");
+
+        assertThrows(IllegalStateException.class, () -> awsSecretsService.loadSecrets());
+    }
+
+    @Test
+    void refreshSecrets_shouldPublishOnlyRotatedSecrets() {
+        awsSecretsService.loadSecrets();
+        secrets.put("RDS-connection-credentials-postgres", "{\"username\":\"app\",\"password\":\"second\"}");
+
+        awsSecretsService.refreshSecrets();
+
+        assertEquals("second", awsSecretsService.getRdsConnection().getPassword());
+        verify(eventPublisher).publishEvent(new SecretRotatedEvent(SecretType.RDS));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void refreshSecrets_shouldKeepCurrentValueWhenRefreshFails() {
+        awsSecretsService.loadSecrets();
+        secrets.remove("Encryption-data");
+
+        awsSecretsService.refreshSecrets();
+
+        assertEquals("abcd", awsSecretsService.getEncryptionDetails().getSalt());
+        verifyNoInteractions(eventPublisher);
+    }
+}
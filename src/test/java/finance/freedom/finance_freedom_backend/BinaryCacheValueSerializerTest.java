@@ -0,0 +1,195 @@
+package finance.freedom.finance_freedom_backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import finance.freedom.finance_freedom_backend.cache.CacheEnvelope;
+import finance.freedom.finance_freedom_backend.cache.codec.BinaryCacheValueSerializer;
+import finance.freedom.finance_freedom_backend.cache.codec.BudgetStatusCodec;
+import finance.freedom.finance_freedom_backend.cache.codec.CacheValueCodec;
+import finance.freedom.finance_freedom_backend.cache.codec.CacheValueInput;
+import finance.freedom.finance_freedom_backend.cache.codec.CacheValueOutput;
+import finance.freedom.finance_freedom_backend.cache.codec.SavingGoalResponseCodec;
+import finance.freedom.finance_freedom_backend.cache.codec.TransactionResponseCodec;
+import finance.freedom.finance_freedom_backend.cache.codec.TransactionSummaryCodec;
+import finance.freedom.finance_freedom_backend.dto.budget.BudgetStatusDTO;
+import finance.freedom.finance_freedom_backend.dto.savinggoal.SavingGoalResponseDTO;
+import finance.freedom.finance_freedom_backend.dto.transaction.TransactionResponseDTO;
+import finance.freedom.finance_freedom_backend.dto.transaction.TransactionSummaryDTO;
+import finance.freedom.finance_freedom_backend.dto.user.UserDetailsRequestDTO;
+import finance.freedom.finance_freedom_backend.enums.CategoryType;
+import finance.freedom.finance_freedom_backend.enums.RecurrenceInterval;
+import finance.freedom.finance_freedom_backend.enums.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCacheValueSerializerTest {
+
+    private GenericJackson2JsonRedisSerializer jsonSerializer;
+    private BinaryCacheValueSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(), ObjectMapper.DefaultTyping.NON_FINAL);
+        jsonSerializer = new GenericJackson2JsonRedisSerializer(mapper);
+        serializer = new BinaryCacheValueSerializer(
+                List.of(new TransactionResponseCodec(), new TransactionSummaryCodec(), new BudgetStatusCodec(), new SavingGoalResponseCodec()),
+                jsonSerializer, 1024);
+    }
+
+    @Test
+    void transactionMap_shouldRoundTripAndShrinkSeveralFold() {
+        Map<Integer, TransactionResponseDTO> transactions = transactions(1000);
+
+        byte[] binary = serializer.serialize(transactions);
+        byte[] json = jsonSerializer.serialize(transactions);
+
+        @SuppressWarnings("unchecked")
+        Map<Integer, TransactionResponseDTO> decoded = (Map<Integer, TransactionResponseDTO>) serializer.deserialize(binary);
+        assertEquals(1000, decoded.size());
+        TransactionResponseDTO original = transactions.get(42);
+        TransactionResponseDTO copy = decoded.get(42);
+        assertEquals(original.getAmount(), copy.getAmount());
+        assertEquals(original.getCategory(), copy.getCategory());
+        assertEquals(original.getDescription(), copy.getDescription());
+        assertEquals(original.getTransactionType(), copy.getTransactionType());
+        assertEquals(original.getTransactionDate(), copy.getTransactionDate());
+        assertEquals(original.isRecurring(), copy.isRecurring());
+        assertEquals(original.getRecurrenceInterval(), copy.getRecurrenceInterval());
+        assertTrue(binary.length * 4 < json.length, () -> "binary " + binary.length + " bytes vs json " + json.length);
+    }
+
+    @Test
+    void summaryAndStatusLists_shouldRoundTripNullsAndLargeDecimals() {
+        BigDecimal huge = new BigDecimal("123456789012345678901234567890.12");
+        List<TransactionSummaryDTO> summary = List.of(
+                new TransactionSummaryDTO(TransactionType.EXPENSE, CategoryType.values()[0], LocalDate.of(2024, 1, 1), huge, 3),
+                new TransactionSummaryDTO(TransactionType.INCOME, null, null, null, 0));
+        List<BudgetStatusDTO> status = List.of(new BudgetStatusDTO(1, CategoryType.values()[0], new BigDecimal("-5.50"),
+                LocalDateTime.of(2024, 1, 1, 0, 0), null, BigDecimal.ZERO, null, new BigDecimal("0.00"), true));
+
+        @SuppressWarnings("unchecked")
+        List<TransactionSummaryDTO> decodedSummary = (List<TransactionSummaryDTO>) serializer.deserialize(serializer.serialize(summary));
+        @SuppressWarnings("unchecked")
+        List<BudgetStatusDTO> decodedStatus = (List<BudgetStatusDTO>) serializer.deserialize(serializer.serialize(status));
+
+        assertEquals(huge, decodedSummary.get(0).getTotal());
+        assertEquals(LocalDate.of(2024, 1, 1), decodedSummary.get(0).getPeriod());
+        assertNull(decodedSummary.get(1).getCategory());
+        assertNull(decodedSummary.get(1).getTotal());
+        assertEquals(new BigDecimal("-5.50"), decodedStatus.get(0).getBudgetAmount());
+        assertNull(decodedStatus.get(0).getEndDate());
+        assertTrue(decodedStatus.get(0).isThresholdCrossed());
+    }
+
+    @Test
+    void emptyMap_shouldRoundTrip() {
+        assertEquals(Map.of(), serializer.deserialize(serializer.serialize(new HashMap<Integer, SavingGoalResponseDTO>())));
+    }
+
+    @Test
+    void typesWithoutCodec_shouldUseJsonFallback() {
+        UserDetailsRequestDTO details = new UserDetailsRequestDTO("Jane Doe", "jane@example.com");
+
+        byte[] bytes = serializer.serialize(details);
+
+        assertEquals('[', bytes[0]);
+        UserDetailsRequestDTO decoded = (UserDetailsRequestDTO) serializer.deserialize(bytes);
+        assertEquals("jane@example.com", decoded.getEmail());
+    }
+
+    @Test
+    void entriesWrittenAsJson_shouldStillBeReadable() {
+        Map<Integer, TransactionResponseDTO> transactions = transactions(3);
+
+        Object decoded = serializer.deserialize(jsonSerializer.serialize(transactions));
+
+        assertEquals(3, ((Map<?, ?>) decoded).size());
+    }
+
+    @Test
+    void entriesFromAnotherCodecVersion_shouldReadAsMiss() {
+        byte[] bytes = serializer.serialize(transactions(3));
+        BinaryCacheValueSerializer upgraded = new BinaryCacheValueSerializer(
+                List.of(new TransactionResponseCodec() {
+                    @Override
+                    public int version() {
+                        return 2;
+                    }
+                }), jsonSerializer, 1024);
+
+        assertNull(upgraded.deserialize(bytes));
+    }
+
+    @Test
+    void truncatedEntries_shouldReadAsMiss() {
+        byte[] bytes = serializer.serialize(transactions(1000));
+
+        assertNull(serializer.deserialize(Arrays.copyOf(bytes, bytes.length / 2)));
+    }
+
+    @Test
+    void envelopes_shouldKeepLoadCostAndExpiryForBinaryAndJsonPayloads() {
+        CacheEnvelope binary = new CacheEnvelope(transactions(2000), 120, 1_700_000_000_000L);
+        CacheEnvelope json = new CacheEnvelope(new UserDetailsRequestDTO("Jane Doe", "jane@example.com"), 3, 1_700_000_000_000L);
+
+        CacheEnvelope decodedBinary = (CacheEnvelope) serializer.deserialize(serializer.serialize(binary));
+        CacheEnvelope decodedJson = (CacheEnvelope) serializer.deserialize(serializer.serialize(json));
+
+        assertEquals(120, decodedBinary.computeMillis());
+        assertEquals(1_700_000_000_000L, decodedBinary.expiresAtMillis());
+        assertEquals(2000, ((Map<?, ?>) decodedBinary.value()).size());
+        assertEquals(3, decodedJson.computeMillis());
+        assertEquals("jane@example.com", ((UserDetailsRequestDTO) decodedJson.value()).getEmail());
+    }
+
+    @Test
+    void duplicateTypeIds_shouldBeRejected() {
+        List<CacheValueCodec<?>> codecs = List.of(new TransactionResponseCodec(), new TransactionResponseCodec());
+
+        assertThrows(IllegalArgumentException.class, () -> new BinaryCacheValueSerializer(codecs, jsonSerializer, 1024));
+    }
+
+    @Test
+    void varLongs_shouldRoundTripAtTheEdges() {
+        CacheValueOutput out = new CacheValueOutput(16);
+        long[] values = {0, -1, 1, Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE};
+        for (long value : values) {
+            out.writeVarLong(value);
+        }
+
+        CacheValueInput in = new CacheValueInput(out.toByteArray(), 0, out.size());
+        for (long value : values) {
+            assertEquals(value, in.readVarLong());
+        }
+    }
+
+    private Map<Integer, TransactionResponseDTO> transactions(int count) {
+        Map<Integer, TransactionResponseDTO> transactions = new HashMap<>();
+        CategoryType[] categories = CategoryType.values();
+        for (int i = 0; i < count; i++) {
+            transactions.put(i, new TransactionResponseDTO(
+                    100_000 + i,
+                    BigDecimal.valueOf(1000 + i * 37L, 2),
+                    categories[i % categories.length],
+                    i % 3 == 0 ? null : "Card payment " + i,
+                    i % 5 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE,
+                    LocalDateTime.of(2024, 1, 1, 9, 30).plusHours(i),
+                    i % 7 == 0,
+                    i % 7 == 0 ? RecurrenceInterval.MONTHLY : RecurrenceInterval.NONE));
+        }
+        return transactions;
+    }
+}
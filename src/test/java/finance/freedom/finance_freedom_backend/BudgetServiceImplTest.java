@@ -1,21 +1,24 @@
 package finance.freedom.finance_freedom_backend;
 
+import finance.freedom.finance_freedom_backend.cache.EntityCache;
 import finance.freedom.finance_freedom_backend.dto.budget.*;
 import finance.freedom.finance_freedom_backend.enums.CategoryType;
 import finance.freedom.finance_freedom_backend.exception.customexceptions.*;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICacheGenerationService;
 import finance.freedom.finance_freedom_backend.model.core.Budget;
 import finance.freedom.finance_freedom_backend.model.core.User;
 import finance.freedom.finance_freedom_backend.model.exception.GenericResponse;
 import finance.freedom.finance_freedom_backend.repository.BudgetRepository;
 import finance.freedom.finance_freedom_backend.service.core.BudgetServiceImpl;
-import finance.freedom.finance_freedom_backend.util.AuthorizationUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import org.mockito.MockedStatic;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +26,8 @@ import static org.mockito.Mockito.*;
 class BudgetServiceImplTest {
 
     @Mock private BudgetRepository budgetRepository;
+    @Mock private ICacheGenerationService cacheGenerationService;
+    @Mock private EntityCache<BudgetResponseDTO> budgetEntityCache;
     @InjectMocks private BudgetServiceImpl budgetService;
     private User user;
     private Integer budgetId;
@@ -58,131 +63,141 @@ class BudgetServiceImplTest {
 
     @Test
     void getById_shouldReturnDTO() {
-        when(budgetRepository.findByBudgetId(budgetId)).thenReturn(budget);
+        when(budgetRepository.findByBudgetIdAndUserId(budgetId, user.getUserId())).thenReturn(budget);
 
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    eq(budget.getUser().getUserId()), eq(user.getUserId())
-            )).thenCallRealMethod();
-
-            BudgetResponseDTO result = budgetService.getById(user, budgetId);
-            assertEquals(CategoryType.FOOD, result.getCategory());
-        }
+        BudgetResponseDTO result = budgetService.getById(user, budgetId);
+        assertEquals(CategoryType.FOOD, result.getCategory());
     }
 
     @Test
     void getById_shouldThrowIfNotFound() {
-        when(budgetRepository.findByBudgetId(budgetId)).thenReturn(null);
+        when(budgetRepository.findByBudgetIdAndUserId(budgetId, user.getUserId())).thenReturn(null);
+        when(budgetRepository.existsByBudgetId(budgetId)).thenReturn(false);
         assertThrows(BudgetNotFoundException.class, () -> budgetService.getById(user, budgetId));
     }
 
     @Test
     void getById_shouldThrowIfUnauthorized() {
-        when(budgetRepository.findByBudgetId(budgetId)).thenReturn(budget);
-
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    any(), any()
-            )).thenThrow(new AccessDeniedException("Unauthorized"));
+        when(budgetRepository.findByBudgetIdAndUserId(budgetId, user.getUserId())).thenReturn(null);
+        when(budgetRepository.existsByBudgetId(budgetId)).thenReturn(true);
 
-            AccessDeniedException ex = assertThrows(AccessDeniedException.class, () ->
-                    budgetService.getById(user, budgetId));
+        AccessDeniedException ex = assertThrows(AccessDeniedException.class, () ->
+                budgetService.getById(user, budgetId));
 
-            assertEquals("Unauthorized", ex.getMessage());
-        }
+        assertEquals("Unauthorized", ex.getMessage());
     }
 
     @Test
     void deleteById_shouldDeleteAndReturnMessage() {
-        when(budgetRepository.findByBudgetId(budgetId)).thenReturn(budget);
+        when(budgetRepository.deleteByBudgetIdAndUserId(budgetId, user.getUserId())).thenReturn(1);
 
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    eq(budget.getUser().getUserId()), eq(user.getUserId())
-            )).thenCallRealMethod();
+        GenericResponse response = budgetService.deleteById(user, budgetId);
 
-            GenericResponse response = budgetService.deleteById(user, budgetId);
-
-            assertNotNull(response);
-            assertTrue(response.getMessage().contains("deleted successfully"));
-            assertNotNull(response.getTimestamp());
-        }
+        assertNotNull(response);
+        assertTrue(response.getMessage().contains("deleted successfully"));
+        assertNotNull(response.getTimestamp());
+        verify(budgetRepository, never()).existsByBudgetId(any());
     }
 
 
     @Test
     void deleteById_shouldThrowIfNotFound() {
-        when(budgetRepository.findByBudgetId(budgetId)).thenReturn(null);
+        when(budgetRepository.deleteByBudgetIdAndUserId(budgetId, user.getUserId())).thenReturn(0);
+        when(budgetRepository.existsByBudgetId(budgetId)).thenReturn(false);
         assertThrows(BudgetNotFoundException.class, () -> budgetService.deleteById(user, budgetId));
     }
 
     @Test
     void deleteById_shouldThrowIfUnauthorized() {
-        when(budgetRepository.findByBudgetId(budgetId)).thenReturn(budget);
-
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    any(), any()
-            )).thenThrow(new AccessDeniedException("Unauthorized"));
+        when(budgetRepository.deleteByBudgetIdAndUserId(budgetId, user.getUserId())).thenReturn(0);
+        when(budgetRepository.existsByBudgetId(budgetId)).thenReturn(true);
 
-            AccessDeniedException ex = assertThrows(AccessDeniedException.class, () ->
-                    budgetService.deleteById(user, budgetId));
+        AccessDeniedException ex = assertThrows(AccessDeniedException.class, () ->
+                budgetService.deleteById(user, budgetId));
 
-            assertEquals("Unauthorized", ex.getMessage());
-        }
+        assertEquals("Unauthorized", ex.getMessage());
     }
 
     @Test
     void update_shouldUpdateFieldsAndReturnDTO() {
         UpdateBudgetDTO dto = new UpdateBudgetDTO();
         dto.setBudgetAmount(BigDecimal.valueOf(500));
+        budget.setBudgetAmount(BigDecimal.valueOf(500));
 
-        when(budgetRepository.findByBudgetId(budgetId)).thenReturn(budget);
-        when(budgetRepository.save(any(Budget.class))).thenReturn(budget);
-
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    eq(budget.getUser().getUserId()), eq(user.getUserId())
-            )).thenCallRealMethod();
+        when(budgetRepository.updateByBudgetIdAndUserId(budgetId, user.getUserId(), BigDecimal.valueOf(500),
+                null, null, null, null)).thenReturn(budget);
 
-            BudgetResponseDTO result = budgetService.update(user, budgetId, dto);
-            assertEquals(BigDecimal.valueOf(500), result.getBudgetAmount());
-        }
+        BudgetResponseDTO result = budgetService.update(user, budgetId, dto);
+        assertEquals(BigDecimal.valueOf(500), result.getBudgetAmount());
     }
 
     @Test
     void update_shouldThrowIfNotFound() {
-        when(budgetRepository.findByBudgetId(budgetId)).thenReturn(null);
+        when(budgetRepository.existsByBudgetId(budgetId)).thenReturn(false);
         assertThrows(BudgetNotFoundException.class, () -> budgetService.update(user, budgetId, new UpdateBudgetDTO()));
     }
 
     @Test
     void update_shouldThrowIfUnauthorized() {
-        when(budgetRepository.findByBudgetId(budgetId)).thenReturn(budget);
-
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    any(), any()
-            )).thenThrow(new AccessDeniedException("Unauthorized"));
+        when(budgetRepository.existsByBudgetId(budgetId)).thenReturn(true);
 
-            AccessDeniedException ex = assertThrows(AccessDeniedException.class, () ->
-                    budgetService.update(user, budgetId, new UpdateBudgetDTO()));
+        AccessDeniedException ex = assertThrows(AccessDeniedException.class, () ->
+                budgetService.update(user, budgetId, new UpdateBudgetDTO()));
 
-            assertEquals("Unauthorized", ex.getMessage());
-        }
+        assertEquals("Unauthorized", ex.getMessage());
     }
 
     @Test
-    void getBudgetsByUser_shouldReturnMap() {
-        when(budgetRepository.findByUser(user)).thenReturn(List.of(budget));
+    void getBudgetsByUser_shouldLoadCacheMissesInOneQuery() {
+        when(budgetRepository.findBudgetIdsByUserId(user.getUserId())).thenReturn(List.of(budgetId));
+        when(budgetRepository.findByUserIdAndBudgetIdIn(user.getUserId(), List.of(budgetId))).thenReturn(List.of(budget));
+        when(budgetEntityCache.getAll(eq(user.getUserId()), eq(List.of(budgetId)), any())).thenAnswer(invocation ->
+                invocation.<Function<List<Integer>, Map<Integer, BudgetResponseDTO>>>getArgument(2).apply(invocation.getArgument(1)));
 
         Map<Integer, BudgetResponseDTO> result = budgetService.getBudgetsByUser(user);
         assertEquals(1, result.size());
+        assertEquals(CategoryType.FOOD, result.get(budgetId).getCategory());
+    }
+
+    @Test
+    void getById_shouldServeCachedEntryWithoutQuery() {
+        BudgetResponseDTO cached = new BudgetResponseDTO();
+        when(budgetEntityCache.get(user.getUserId(), budgetId)).thenReturn(cached);
+
+        assertSame(cached, budgetService.getById(user, budgetId));
+        verifyNoInteractions(budgetRepository);
     }
 
     @Test
     void getBudgetsByUser_shouldThrowIfEmpty() {
-        when(budgetRepository.findByUser(user)).thenReturn(List.of());
+        when(budgetRepository.findBudgetIdsByUserId(user.getUserId())).thenReturn(List.of());
         assertThrows(BudgetNotFoundException.class, () -> budgetService.getBudgetsByUser(user));
     }
+
+    @Test
+    void getBudgetStatus_shouldComputeUtilizationFromSpendRows() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 31, 23, 59);
+        when(budgetRepository.findSpendByUserId(user.getUserId())).thenReturn(List.of(
+                new Object[]{2, "FOOD", new BigDecimal("200.00"), Timestamp.valueOf(start), Timestamp.valueOf(end), new BigDecimal("80.00"), new BigDecimal("170.00")},
+                new Object[]{3, "RENT", new BigDecimal("1000.00"), Timestamp.valueOf(start), Timestamp.valueOf(end), new BigDecimal("90.00"), BigDecimal.ZERO}));
+
+        List<BudgetStatusDTO> status = budgetService.getBudgetStatus(user);
+
+        assertEquals(2, status.size());
+        assertEquals(new BigDecimal("30.00"), status.get(0).getRemaining());
+        assertEquals(new BigDecimal("85.00"), status.get(0).getPercentUsed());
+        assertTrue(status.get(0).isThresholdCrossed());
+        assertEquals(start, status.get(0).getStartDate());
+        assertEquals(new BigDecimal("1000.00"), status.get(1).getRemaining());
+        assertFalse(status.get(1).isThresholdCrossed());
+        verify(budgetRepository, times(1)).findSpendByUserId(user.getUserId());
+    }
+
+    @Test
+    void getBudgetStatus_shouldThrowIfUserHasNoBudgets() {
+        when(budgetRepository.findSpendByUserId(user.getUserId())).thenReturn(List.of());
+
+        assertThrows(BudgetNotFoundException.class, () -> budgetService.getBudgetStatus(user));
+    }
 }
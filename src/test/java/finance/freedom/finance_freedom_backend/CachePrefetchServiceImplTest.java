@@ -0,0 +1,80 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.cache.CachePrefetchTracker;
+import finance.freedom.finance_freedom_backend.interfaces.core.IBudgetService;
+import finance.freedom.finance_freedom_backend.interfaces.core.ISavingGoalService;
+import finance.freedom.finance_freedom_backend.interfaces.core.ITransactionService;
+import finance.freedom.finance_freedom_backend.interfaces.core.IUserService;
+import finance.freedom.finance_freedom_backend.model.core.User;
+import finance.freedom.finance_freedom_backend.service.cache.CachePrefetchServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachePrefetchServiceImplTest {
+
+    @Mock private IUserService userService;
+    @Mock private IBudgetService budgetService;
+    @Mock private ISavingGoalService savingGoalService;
+    @Mock private ITransactionService transactionService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachePrefetchServiceImpl prefetchService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        prefetchService = new CachePrefetchServiceImpl(userService, budgetService, savingGoalService, transactionService,
+                new CachePrefetchTracker(meterRegistry, Duration.ofMinutes(15), 1000), meterRegistry, 1);
+        user = new User();
+        user.setUserId(7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        prefetchService.shutdown();
+    }
+
+    @Test
+    void prefetch_shouldWarmEveryAreaEvenWhenOneFails() {
+        when(budgetService.getBudgetsByUser(user)).thenThrow(new IllegalStateException("database down"));
+
+        prefetchService.prefetch(user);
+
+        verify(userService, timeout(1000)).getUserDetails(user);
+        verify(budgetService, timeout(1000)).getBudgetsByUser(user);
+        verify(savingGoalService, timeout(1000)).getSavingGoal(user);
+        verify(transactionService, timeout(1000)).getTransactionPage(user, null, null, null, null, null);
+    }
+
+    @Test
+    void prefetch_shouldSkipWithoutBlockingWhenAllPermitsAreTaken() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        when(userService.getUserDetails(user)).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return null;
+        });
+
+        prefetchService.prefetch(user);
+        assertTrue(running.await(1, TimeUnit.SECONDS));
+        prefetchService.prefetch(user);
+        release.countDown();
+
+        assertEquals(1, meterRegistry.get("cache.prefetch.logins").tag("result", "started").counter().count());
+        assertEquals(1, meterRegistry.get("cache.prefetch.logins").tag("result", "skipped").counter().count());
+    }
+}
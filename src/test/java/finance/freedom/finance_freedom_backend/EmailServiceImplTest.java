@@ -3,6 +3,8 @@ package finance.freedom.finance_freedom_backend;
 import finance.freedom.finance_freedom_backend.dto.email.EmailVerificationTokenDTO;
 import finance.freedom.finance_freedom_backend.enums.TokenPurpose;
 import finance.freedom.finance_freedom_backend.interfaces.aws.IAwsS3Service;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICacheGenerationService;
+import finance.freedom.finance_freedom_backend.interfaces.security.IUserSnapshotService;
 import finance.freedom.finance_freedom_backend.model.core.User;
 import finance.freedom.finance_freedom_backend.model.email.EmailVerificationToken;
 import finance.freedom.finance_freedom_backend.model.exception.GenericResponse;
@@ -11,6 +13,7 @@ import finance.freedom.finance_freedom_backend.repository.RefreshTokenRepository
 import finance.freedom.finance_freedom_backend.repository.UserRepository;
 import finance.freedom.finance_freedom_backend.service.email.EmailServiceImpl;
 import finance.freedom.finance_freedom_backend.util.PasswordUtil;
+import finance.freedom.finance_freedom_backend.util.TokenHashUtil;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +22,7 @@ import org.mockito.*;
 import org.springframework.mail.javamail.JavaMailSender;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,6 +35,8 @@ class EmailServiceImplTest {
     @Mock private RefreshTokenRepository refreshTokenRepository;
     @Mock private IAwsS3Service s3Service;
     @Mock private PasswordUtil passwordUtil;
+    @Mock private ICacheGenerationService cacheGenerationService;
+    @Mock private IUserSnapshotService userSnapshotService;
 
     @InjectMocks private EmailServiceImpl emailService;
 
@@ -64,7 +70,7 @@ class EmailServiceImplTest {
 
         verify(tokenRepository, times(1)).save(captor.capture());
         assertNotNull(dto.getToken());
-        assertEquals(dto.getToken(), captor.getValue().getToken());
+        assertArrayEquals(TokenHashUtil.sha256(dto.getToken()), captor.getValue().getTokenHash());
         assertEquals(user, captor.getValue().getUser());
     }
 
@@ -142,15 +148,18 @@ class EmailServiceImplTest {
 
         when(tokenRepository.findByToken("reset-token")).thenReturn(token);
         when(passwordUtil.hash("new-reset-pass")).thenReturn("hashed-reset");
+        UUID oldStamp = user.getSecurityStamp();
 
         GenericResponse result = emailService.verifyToken("reset-token", TokenPurpose.PASSWORD_RESET, "new-reset-pass", null);
 
         assertEquals("Password changed successfully", result.getMessage());
         assertEquals("hashed-reset", user.getPasswordHash());
+        assertNotEquals(oldStamp, user.getSecurityStamp());
 
         verify(userRepository).save(user);
         verify(tokenRepository).delete(token);
         verify(passwordUtil).hash("new-reset-pass");
+        verify(userSnapshotService).evict(user.getUserId());
     }
 
 
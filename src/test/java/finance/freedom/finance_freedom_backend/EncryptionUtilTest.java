@@ -0,0 +1,61 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.enums.SecretType;
+import finance.freedom.finance_freedom_backend.interfaces.aws.IAwsSecretsService;
+import finance.freedom.finance_freedom_backend.model.aws.EncryptionDetails;
+import finance.freedom.finance_freedom_backend.model.aws.SecretRotatedEvent;
+import finance.freedom.finance_freedom_backend.util.EncryptionUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EncryptionUtilTest {
+
+    @Mock private IAwsSecretsService awsSecrets;
+
+    private final EncryptionDetails original = new EncryptionDetails("original", "abcd");
+    private final EncryptionDetails rotated = new EncryptionDetails("rotated", "cafe");
+    private EncryptionUtil encryptionUtil;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(awsSecrets.getEncryptionDetails()).thenReturn(original);
+        when(awsSecrets.getPreviousEncryptionDetails()).thenReturn(List.of());
+        encryptionUtil = new EncryptionUtil(awsSecrets);
+    }
+
+    @Test
+    void decrypt_shouldReadValuesEncryptedBeforeARotation() {
+        String stored = encryptionUtil.encrypt("access-token");
+        when(awsSecrets.getEncryptionDetails()).thenReturn(rotated);
+        when(awsSecrets.getPreviousEncryptionDetails()).thenReturn(List.of(original));
+
+        encryptionUtil.onEncryptionSecretRotated(new SecretRotatedEvent(SecretType.ENCRYPTION));
+
+        assertEquals("access-token", encryptionUtil.decrypt(stored));
+        String reencrypted = encryptionUtil.encrypt("access-token");
+        assertEquals("access-token", new EncryptionUtil(secretsWith(rotated)).decrypt(reencrypted));
+    }
+
+    @Test
+    void decrypt_shouldFailWhenNoKnownKeyMatches() {
+        String stored = new EncryptionUtil(secretsWith(rotated)).encrypt("access-token");
+
+        assertThrows(IllegalStateException.class, () -> encryptionUtil.decrypt(stored));
+    }
+
+    private IAwsSecretsService secretsWith(EncryptionDetails details) {
+        IAwsSecretsService secrets = mock(IAwsSecretsService.class);
+        when(secrets.getEncryptionDetails()).thenReturn(details);
+        when(secrets.getPreviousEncryptionDetails()).thenReturn(List.of());
+        return secrets;
+    }
+}
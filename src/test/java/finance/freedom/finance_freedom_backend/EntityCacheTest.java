@@ -0,0 +1,143 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.cache.CachePrefetchTracker;
+import finance.freedom.finance_freedom_backend.cache.EntityCache;
+import finance.freedom.finance_freedom_backend.cache.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EntityCacheTest {
+
+    @Mock private RedisTemplate<String, Object> redisTemplate;
+    @Mock private ValueOperations<String, Object> valueOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RedisCircuitBreaker circuitBreaker;
+    private EntityCache<String> cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new RedisCircuitBreaker(true, 1, Duration.ofMinutes(1), meterRegistry);
+        cache = new EntityCache<>("budget", String.class, redisTemplate, Duration.ofMinutes(30), meterRegistry,
+                new CachePrefetchTracker(meterRegistry, Duration.ofMinutes(15), 1000), circuitBreaker, Duration.ofSeconds(30), 1000);
+    }
+
+    @Test
+    void getAll_shouldKeepIdOrderAndLoadOnlyMisses() {
+        when(valueOperations.multiGet(List.of("budget:7:1", "budget:7:2", "budget:7:3")))
+                .thenReturn(Arrays.asList("one", null, "three"));
+        List<List<Integer>> loaderCalls = new ArrayList<>();
+
+        Map<Integer, String> result = cache.getAll(7, List.of(1, 2, 3), missing -> {
+            loaderCalls.add(List.copyOf(missing));
+            return Map.of(2, "two");
+        });
+
+        assertEquals(List.of(1, 2, 3), new ArrayList<>(result.keySet()));
+        assertEquals(List.of("one", "two", "three"), new ArrayList<>(result.values()));
+        assertEquals(List.of(List.of(2)), loaderCalls);
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        assertEquals(2, meterRegistry.get("cache.entity.requests").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("cache.entity.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void getAll_shouldSkipIdsDeletedBetweenQueries() {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+
+        Map<Integer, String> result = cache.getAll(7, List.of(1, 2), missing -> Map.of(1, "one"));
+
+        assertEquals(Map.of(1, "one"), result);
+    }
+
+    @Test
+    void getAll_shouldFallBackToLoaderWhenRedisIsDown() {
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new RedisConnectionFailureException("down"));
+
+        Map<Integer, String> result = cache.getAll(7, List.of(1), missing -> Map.of(1, "one"));
+
+        assertEquals(Map.of(1, "one"), result);
+        assertEquals(Map.of(1, "one"), cache.getAll(7, List.of(1), missing -> fail("loader should not run for a local copy")));
+        verify(valueOperations, times(1)).multiGet(anyList());
+    }
+
+    @Test
+    void warm_shouldWriteOnlyWhilePrefetching() {
+        CachePrefetchTracker prefetchTracker = new CachePrefetchTracker(meterRegistry, Duration.ofMinutes(15), 1000);
+        EntityCache<String> warmed = new EntityCache<>("budget", String.class, redisTemplate, Duration.ofMinutes(30), meterRegistry,
+                prefetchTracker, circuitBreaker, Duration.ofSeconds(30), 1000);
+
+        warmed.warm(7, Map.of(1, "one"));
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+
+        prefetchTracker.prefetch(() -> warmed.warm(7, Map.of(1, "one")));
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void evict_shouldReplayDeleteOnceRedisRecovers() {
+        doThrow(new RedisConnectionFailureException("down")).when(valueOperations).set(anyString(), any(), any(Duration.class));
+
+        cache.evict(7, 1);
+        circuitBreaker.recordSuccess();
+
+        verify(redisTemplate, timeout(1000)).delete(List.of("budget:7:1"));
+    }
+
+    @Test
+    void evict_shouldLeaveTombstoneThatReadsTreatAsMiss() {
+        cache.evict(7, 1);
+        when(valueOperations.multiGet(List.of("budget:7:1"))).thenReturn(Arrays.asList("entity-cache:deleted"));
+
+        assertNull(cache.get(7, 1));
+        verify(valueOperations).set("budget:7:1", "entity-cache:deleted", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void evict_shouldKeepStaleFillOutOfLocalCacheWhileRedisIsDown() {
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new RedisConnectionFailureException("down"));
+        cache.getAll(7, List.of(2), missing -> Map.of(2, "two"));
+
+        cache.evict(7, 1);
+        cache.fill(7, Map.of(1, "deleted"));
+
+        assertNull(cache.get(7, 1));
+    }
+
+    @Test
+    void evict_shouldWaitForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict(7, 1);
+            verify(valueOperations, never()).set(anyString(), any(), any(Duration.class));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(valueOperations).set("budget:7:1", "entity-cache:deleted", Duration.ofMinutes(1));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.exception.customexceptions.ServiceUnavailableException;
+import finance.freedom.finance_freedom_backend.security.ExecutorPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorPasswordEncoderTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ExecutorPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new ExecutorPasswordEncoder(new BCryptPasswordEncoder(4), executor, Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_shouldRunOnExecutorAndRecordTime() {
+        String hash = passwordEncoder.encode("secret");
+
+        assertTrue(passwordEncoder.matches("secret", hash));
+        assertFalse(passwordEncoder.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("security.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("security.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void encode_shouldFailFastWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        executor.execute(() -> awaitQuietly(release));
+
+        try {
+            assertThrows(ServiceUnavailableException.class, () -> passwordEncoder.encode("secret"));
+            assertEquals(1.0, meterRegistry.get("security.password.hash.rejected").counter().count());
+            assertEquals(1.0, meterRegistry.get("security.password.hash.queue").gauge().value());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void upgradeEncoding_shouldFlagHashesBelowTargetCost() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("secret");
+        ExecutorPasswordEncoder stronger = new ExecutorPasswordEncoder(new BCryptPasswordEncoder(5), executor,
+                Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        assertTrue(stronger.upgradeEncoding(weakHash));
+        assertFalse(passwordEncoder.upgradeEncoding(weakHash));
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,18 +1,29 @@
 package finance.freedom.finance_freedom_backend;
 
 import finance.freedom.finance_freedom_backend.interfaces.aws.IAwsSecretsService;
+import finance.freedom.finance_freedom_backend.enums.SecretType;
 import finance.freedom.finance_freedom_backend.model.aws.JWTSecretKey;
+import finance.freedom.finance_freedom_backend.model.aws.SecretRotatedEvent;
 import finance.freedom.finance_freedom_backend.model.core.User;
+import finance.freedom.finance_freedom_backend.model.security.CustomUserDetails;
 import finance.freedom.finance_freedom_backend.model.security.JWT;
 import finance.freedom.finance_freedom_backend.service.jwt.JWTServiceImpl;
+import finance.freedom.finance_freedom_backend.util.TokenHashUtil;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,6 +45,7 @@ class JWTServiceImplTest {
         MockitoAnnotations.openMocks(this);
 
         user = new User();
+        user.setUserId(7);
         user.setEmail("test@example.com");
         user.setFullName("Test User");
 
@@ -94,4 +106,89 @@ class JWTServiceImplTest {
 
         assertFalse(result);
     }
+
+    @Test
+    void extractAllClaims_shouldBuildSigningKeyOnce() {
+        JWT jwt = jwtService.generateToken(user, Duration.ofMinutes(30));
+
+        jwtService.extractAllClaims(jwt.getToken());
+        jwtService.extractAllClaims(jwt.getToken());
+
+        verify(awsSecrets, times(1)).getSecretKey();
+    }
+
+    @Test
+    void onJwtSecretRotated_shouldKeepVerifyingTokensSignedWithPreviousKey() {
+        JWT jwt = jwtService.generateToken(user, Duration.ofDays(7));
+
+        rotate(Instant.now());
+
+        assertEquals(user.getEmail(), jwtService.extractUserName(jwt.getToken()));
+        JWT rotatedJwt = jwtService.generateToken(user, Duration.ofMinutes(30));
+        assertEquals(user.getEmail(), jwtService.extractUserName(rotatedJwt.getToken()));
+        assertThrows(SignatureException.class, () -> verifyWithSecret("mock_test_jwt_secret_key_123456789012", rotatedJwt));
+    }
+
+    @Test
+    void onJwtSecretRotated_shouldRejectPreviousKeyOnceTheLongestLifetimeHasPassed() {
+        JWT jwt = jwtService.generateToken(user, Duration.ofDays(7));
+
+        rotate(Instant.now().minus(Duration.ofDays(8)));
+
+        assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(jwt.getToken()));
+    }
+
+    @Test
+    void onJwtSecretRotated_shouldRejectTokensWithoutAPreviousKey() {
+        JWT jwt = jwtService.generateToken(user, Duration.ofMinutes(30));
+
+        JWTSecretKey rotated = new JWTSecretKey();
+        rotated.setJwtSecret("rotated_test_jwt_secret_key_1234567890");
+        when(awsSecrets.getSecretKey()).thenReturn(rotated);
+        jwtService.onJwtSecretRotated(new SecretRotatedEvent(SecretType.JWT));
+
+        assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(jwt.getToken()));
+    }
+
+    private void rotate(Instant rotatedAt) {
+        JWTSecretKey rotated = new JWTSecretKey();
+        rotated.setJwtSecret("rotated_test_jwt_secret_key_1234567890");
+        when(awsSecrets.getSecretKey()).thenReturn(rotated);
+        when(awsSecrets.getPreviousSecretKey()).thenReturn(jwtSecretKey);
+        when(awsSecrets.getSecretKeyRotatedAt()).thenReturn(rotatedAt);
+        jwtService.onJwtSecretRotated(new SecretRotatedEvent(SecretType.JWT));
+    }
+
+    private void verifyWithSecret(String secret, JWT jwt) {
+        byte[] encodedKey = Base64.getEncoder().encode(secret.getBytes());
+        Jwts.parser().verifyWith(Keys.hmacShaKeyFor(encodedKey)).build().parseSignedClaims(jwt.getToken());
+    }
+
+    @Test
+    void generateToken_shouldCarryUserIdAndSecurityStamp() {
+        JWT jwt = jwtService.generateToken(user, Duration.ofMinutes(30));
+        Claims claims = jwtService.extractAllClaims(jwt.getToken());
+
+        assertEquals(7, claims.get(JWTServiceImpl.USER_ID_CLAIM, Integer.class));
+        assertEquals(user.getSecurityStamp().toString(), claims.get(JWTServiceImpl.SECURITY_STAMP_CLAIM, String.class));
+    }
+
+    @Test
+    void validateClaims_shouldRejectTokenIssuedBeforeStampRotation() {
+        JWT jwt = jwtService.generateToken(user, Duration.ofMinutes(30));
+        Claims claims = jwtService.extractAllClaims(jwt.getToken());
+
+        user.setSecurityStamp(UUID.randomUUID());
+
+        assertFalse(jwtService.validateClaims(claims, new CustomUserDetails(user)));
+    }
+
+    @Test
+    void generateToken_shouldIssueDistinctTokensWithinOneSecond() {
+        JWT first = jwtService.generateToken(user, Duration.ofDays(7));
+        JWT second = jwtService.generateToken(user, Duration.ofDays(7));
+
+        assertFalse(Arrays.equals(TokenHashUtil.sha256(first.getToken()), TokenHashUtil.sha256(second.getToken())));
+        assertNotEquals(jwtService.extractAllClaims(first.getToken()).getId(), jwtService.extractAllClaims(second.getToken()).getId());
+    }
 }
@@ -3,6 +3,7 @@ package finance.freedom.finance_freedom_backend;
 import finance.freedom.finance_freedom_backend.dto.linkedaccount.CreateLinkedAccountDTO;
 import finance.freedom.finance_freedom_backend.dto.linkedaccount.LinkedAccountResponseDTO;
 import finance.freedom.finance_freedom_backend.dto.linkedaccount.UpdateLinkedAccountDTO;
+import finance.freedom.finance_freedom_backend.exception.customexceptions.AccessDeniedException;
 import finance.freedom.finance_freedom_backend.exception.customexceptions.LinkedAccountNotFoundException;
 import finance.freedom.finance_freedom_backend.model.core.LinkedAccount;
 import finance.freedom.finance_freedom_backend.model.core.User;
@@ -83,6 +84,7 @@ class LinkedAccountServiceImplTest {
         LinkedAccount linkedAccount = new LinkedAccount();
         linkedAccount.setAccountId(accountId);
         linkedAccount.setUser(user);
+        linkedAccount.setAccountName("Updated Name");
 
         UpdateLinkedAccountDTO updateDTO = new UpdateLinkedAccountDTO();
         updateDTO.setAccountName("Updated Name");
@@ -91,30 +93,40 @@ class LinkedAccountServiceImplTest {
         updateDTO.setInstitutionName("New Inst");
         updateDTO.setBalance(BigDecimal.valueOf(200));
 
-        when(linkedAccountRepository.findByAccountId(accountId)).thenReturn(linkedAccount);
+        when(linkedAccountRepository.updateByAccountIdAndUserId(eq(accountId), eq(user.getUserId()), eq("Updated Name"),
+                eq("CREDIT"), eq("new-token"), eq("New Inst"), eq(BigDecimal.valueOf(200)), any())).thenReturn(linkedAccount);
 
         LinkedAccountResponseDTO result = linkedAccountService.updateLinkedAccount(user, accountId, updateDTO);
 
         assertEquals(updateDTO.getAccountName(), result.getAccountName());
-        verify(linkedAccountRepository).save(linkedAccount);
+        verify(linkedAccountRepository, never()).save(any());
     }
 
     @Test
     void updateLinkedAccount_notFound_throwsException() {
-        when(linkedAccountRepository.findByAccountId(accountId)).thenReturn(null);
+        when(linkedAccountRepository.existsByAccountId(accountId)).thenReturn(false);
 
         assertThrows(LinkedAccountNotFoundException.class, () ->
                 linkedAccountService.updateLinkedAccount(user, accountId, new UpdateLinkedAccountDTO())
         );
     }
 
+    @Test
+    void updateLinkedAccount_otherOwner_throwsAccessDenied() {
+        when(linkedAccountRepository.existsByAccountId(accountId)).thenReturn(true);
+
+        assertThrows(AccessDeniedException.class, () ->
+                linkedAccountService.updateLinkedAccount(user, accountId, new UpdateLinkedAccountDTO())
+        );
+    }
+
     @Test
     void getLinkedAccountById_validInput_returnsDTO() {
         LinkedAccount linkedAccount = new LinkedAccount();
         linkedAccount.setAccountId(accountId);
         linkedAccount.setUser(user);
 
-        when(linkedAccountRepository.findByAccountId(accountId)).thenReturn(linkedAccount);
+        when(linkedAccountRepository.findByAccountIdAndUserId(accountId, user.getUserId())).thenReturn(linkedAccount);
 
         LinkedAccountResponseDTO result = linkedAccountService.getLinkedAccountById(user, accountId);
 
@@ -123,21 +135,18 @@ class LinkedAccountServiceImplTest {
 
     @Test
     void deleteLinkedAccount_validInput_deletesSuccessfully() {
-        LinkedAccount linkedAccount = new LinkedAccount();
-        linkedAccount.setAccountId(accountId);
-        linkedAccount.setUser(user);
-
-        when(linkedAccountRepository.findByAccountId(accountId)).thenReturn(linkedAccount);
+        when(linkedAccountRepository.deleteByAccountIdAndUserId(accountId, user.getUserId())).thenReturn(1);
 
         GenericResponse response = linkedAccountService.deleteLinkedAccount(user, accountId);
 
         assertTrue(response.getMessage().contains("deleted successfully"));
-        verify(linkedAccountRepository).delete(linkedAccount);
+        verify(linkedAccountRepository).deleteByAccountIdAndUserId(accountId, user.getUserId());
     }
 
     @Test
     void deleteLinkedAccount_notFound_throwsException() {
-        when(linkedAccountRepository.findByAccountId(accountId)).thenReturn(null);
+        when(linkedAccountRepository.deleteByAccountIdAndUserId(accountId, user.getUserId())).thenReturn(0);
+        when(linkedAccountRepository.existsByAccountId(accountId)).thenReturn(false);
 
         assertThrows(LinkedAccountNotFoundException.class, () ->
                 linkedAccountService.deleteLinkedAccount(user, accountId)
@@ -0,0 +1,90 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.cache.RedisCircuitBreaker;
+import finance.freedom.finance_freedom_backend.enums.RateLimitType;
+import finance.freedom.finance_freedom_backend.exception.customexceptions.TooManyRequestsException;
+import finance.freedom.finance_freedom_backend.service.ratelimiter.RateLimiterServiceImpl;
+import io.github.bucket4j.Bucket;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.RedisCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RateLimiterServiceImplTest {
+
+    @Mock private RedisCircuitBreaker circuitBreaker;
+    @Mock private ObjectProvider<LettuceConnectionFactory> connectionFactoryProvider;
+    @Mock private LettuceConnectionFactory connectionFactory;
+    @Mock private HttpServletRequest request;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiterServiceImpl rateLimiterService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
+        when(connectionFactoryProvider.getIfAvailable()).thenReturn(connectionFactory);
+
+        rateLimiterService = new RateLimiterServiceImpl(circuitBreaker, connectionFactoryProvider, meterRegistry,
+                true, 0, Duration.ofSeconds(1), 1000);
+    }
+
+    @Test
+    void enforceRateLimit_shouldUseLocalBucketsWhenRedisIsDisabled() {
+        when(circuitBreaker.allowRequest()).thenReturn(false);
+
+        for (int i = 0; i < 5; i++) {
+            rateLimiterService.enforceRateLimit(request, RateLimitType.LOGIN, "login");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> rateLimiterService.enforceRateLimit(request, RateLimitType.LOGIN, "login"));
+        verifyNoInteractions(connectionFactory);
+        assertEquals(5.0, meterRegistry.get("rate_limit.checks").tag("store", "local").tag("result", "allowed").counter().count());
+        assertEquals(1.0, meterRegistry.get("rate_limit.checks").tag("store", "local").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void enforceRateLimit_shouldFallBackToLocalBucketsWhenRedisIsUnreachable() {
+        when(circuitBreaker.allowRequest()).thenReturn(true);
+        when(connectionFactory.getNativeClient()).thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        rateLimiterService.enforceRateLimit(request, RateLimitType.PASSWORD_CHANGE, "password change");
+
+        assertThrows(TooManyRequestsException.class,
+                () -> rateLimiterService.enforceRateLimit(request, RateLimitType.PASSWORD_CHANGE, "password change"));
+        verify(circuitBreaker, times(2)).recordFailure(any(DataAccessException.class));
+        verify(circuitBreaker, never()).recordSuccess();
+    }
+
+    @Test
+    void resolveBucket_shouldFallBackToLocalBucketWhenRedisCallFails() {
+        RedisClient client = mock(RedisClient.class);
+        when(client.connect(any(RedisCodec.class))).thenReturn(mock(StatefulRedisConnection.class));
+        when(connectionFactory.getNativeClient()).thenReturn(client);
+        when(circuitBreaker.allowRequest()).thenReturn(true);
+
+        Bucket bucket = rateLimiterService.resolveBucket(request, RateLimitType.PASSWORD_CHANGE);
+
+        assertTrue(bucket.tryConsume(1));
+        assertFalse(bucket.tryConsume(1));
+        verify(circuitBreaker, times(2)).recordFailure(any(DataAccessException.class));
+        verify(circuitBreaker, never()).recordSuccess();
+    }
+}
@@ -0,0 +1,125 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.enums.CategoryType;
+import finance.freedom.finance_freedom_backend.enums.RecurrenceInterval;
+import finance.freedom.finance_freedom_backend.enums.TransactionType;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICacheGenerationService;
+import finance.freedom.finance_freedom_backend.interfaces.core.ITransactionRollupService;
+import finance.freedom.finance_freedom_backend.model.core.Transaction;
+import finance.freedom.finance_freedom_backend.model.core.User;
+import finance.freedom.finance_freedom_backend.repository.TransactionRepository;
+import finance.freedom.finance_freedom_backend.service.core.RecurringTransactionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RecurringTransactionServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 4, 15, 12, 0);
+
+    @Mock private TransactionRepository transactionRepository;
+    @Mock private ITransactionRollupService rollupService;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private ICacheGenerationService cacheGenerationService;
+    @Mock private EntityManager entityManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecurringTransactionServiceImpl recurringService;
+    private Transaction rent;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        recurringService = new RecurringTransactionServiceImpl(transactionRepository, rollupService, transactionManager, cacheGenerationService, meterRegistry);
+
+        setField("partitions", 1);
+        setField("claimSize", 200);
+        setField("catchUp", true);
+        setField("maxOccurrencesPerClaim", 100);
+        setField("entityManager", entityManager);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        User user = new User();
+        user.setUserId(1);
+
+        rent = new Transaction();
+        rent.setTransactionId(10);
+        rent.setUser(user);
+        rent.setAmount(new BigDecimal("900.00"));
+        rent.setCategory(CategoryType.RENT);
+        rent.setDescription("Rent");
+        rent.setTransactionType(TransactionType.EXPENSE);
+        rent.setTransactionDate(LocalDateTime.of(2024, 1, 31, 9, 0));
+        rent.setRecurring(true);
+        rent.setRecurrenceInterval(RecurrenceInterval.MONTHLY);
+        rent.setNextOccurrenceDate(LocalDateTime.of(2024, 2, 29, 9, 0));
+    }
+
+    @Test
+    void materialize_shouldCatchUpMissedOccurrencesAndSkipPostedOnes() {
+        when(transactionRepository.claimDueRecurring(NOW, 1, 0, 200)).thenReturn(List.of(rent), List.of());
+        when(transactionRepository.findOccurrenceDates(List.of(10), rent.getNextOccurrenceDate()))
+                .thenReturn(List.<Object[]>of(new Object[]{10, LocalDateTime.of(2024, 2, 29, 9, 0)}));
+
+        int posted = recurringService.materializeDueOccurrences(NOW);
+
+        ArgumentCaptor<Transaction> copy = ArgumentCaptor.forClass(Transaction.class);
+        verify(entityManager).persist(copy.capture());
+        assertEquals(1, posted);
+        assertEquals(LocalDateTime.of(2024, 3, 31, 9, 0), copy.getValue().getTransactionDate());
+        assertEquals(10, copy.getValue().getRecurrenceSourceId());
+        assertFalse(copy.getValue().isRecurring());
+        assertEquals(LocalDateTime.of(2024, 4, 30, 9, 0), rent.getNextOccurrenceDate());
+        verify(rollupService).recordCreated(List.of(copy.getValue()));
+        assertEquals(1.0, meterRegistry.counter("transactions.recurring.posted").count());
+        verify(cacheGenerationService).bumpGeneration(1);
+    }
+
+    @Test
+    void materialize_withoutCatchUp_shouldOnlyPostLatestMissedOccurrence() throws Exception {
+        setField("catchUp", false);
+        rent.setRecurrenceInterval(RecurrenceInterval.WEEKLY);
+        rent.setNextOccurrenceDate(LocalDateTime.of(2024, 2, 7, 9, 0));
+        when(transactionRepository.claimDueRecurring(NOW, 1, 0, 200)).thenReturn(List.of(rent), List.of());
+        when(transactionRepository.findOccurrenceDates(anyCollection(), any())).thenReturn(List.of());
+
+        recurringService.materializeDueOccurrences(NOW);
+
+        ArgumentCaptor<Transaction> copy = ArgumentCaptor.forClass(Transaction.class);
+        verify(entityManager).persist(copy.capture());
+        assertEquals(LocalDateTime.of(2024, 4, 10, 9, 0), copy.getValue().getTransactionDate());
+        assertEquals(LocalDateTime.of(2024, 4, 17, 9, 0), rent.getNextOccurrenceDate());
+    }
+
+    @Test
+    void recurrenceInterval_shouldCountFromAnchorWithoutDrifting() {
+        LocalDateTime anchor = LocalDateTime.of(2024, 1, 31, 9, 0);
+
+        assertEquals(LocalDateTime.of(2024, 2, 29, 9, 0), RecurrenceInterval.MONTHLY.next(anchor, anchor));
+        assertEquals(LocalDateTime.of(2024, 3, 31, 9, 0), RecurrenceInterval.MONTHLY.next(anchor, LocalDateTime.of(2024, 2, 29, 9, 0)));
+        assertEquals(LocalDateTime.of(2024, 2, 14, 9, 0), RecurrenceInterval.BIWEEKLY.next(anchor, LocalDateTime.of(2024, 2, 1, 0, 0)));
+        assertNull(RecurrenceInterval.NONE.next(anchor, anchor));
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = RecurringTransactionServiceImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(recurringService, value);
+    }
+}
@@ -0,0 +1,79 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.cache.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisCircuitBreakerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void recordFailure_shouldOpenAfterThresholdOfConsecutiveFailures() {
+        RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(true, 3, Duration.ofMinutes(1), meterRegistry);
+
+        circuitBreaker.recordFailure(new RedisConnectionFailureException("down"));
+        circuitBreaker.recordFailure(new RedisConnectionFailureException("down"));
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure(new RedisConnectionFailureException("down"));
+        circuitBreaker.recordFailure(new RedisConnectionFailureException("down"));
+        assertTrue(circuitBreaker.allowRequest());
+
+        circuitBreaker.recordFailure(new RedisConnectionFailureException("down"));
+
+        assertFalse(circuitBreaker.allowRequest());
+        assertEquals(1, meterRegistry.get("cache.redis.circuit.open").gauge().value());
+    }
+
+    @Test
+    void recordFailure_shouldIgnoreErrorsThatAreNotAboutRedis() {
+        RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(true, 1, Duration.ofMinutes(1), meterRegistry);
+
+        circuitBreaker.recordFailure(new IllegalStateException("bug"));
+
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void allowRequest_shouldLetOneProbeThroughPerOpenInterval() {
+        RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(true, 1, Duration.ZERO, meterRegistry);
+        circuitBreaker.recordFailure(new RedisConnectionFailureException("down"));
+
+        assertTrue(circuitBreaker.isOpen());
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void recordSuccess_shouldCloseAndRunRecoveryActions() throws InterruptedException {
+        RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(true, 1, Duration.ZERO, meterRegistry);
+        CountDownLatch recovered = new CountDownLatch(1);
+        circuitBreaker.onRecovery(recovered::countDown);
+        circuitBreaker.recordFailure(new RedisConnectionFailureException("down"));
+
+        circuitBreaker.recordSuccess();
+
+        assertTrue(recovered.await(1, TimeUnit.SECONDS));
+        assertFalse(circuitBreaker.isOpen());
+    }
+
+    @Test
+    void allowRequest_shouldAlwaysRefuseWhenRedisIsSwitchedOff() {
+        RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(false, 1, Duration.ZERO, meterRegistry);
+
+        assertFalse(circuitBreaker.allowRequest());
+        assertTrue(circuitBreaker.isOpen());
+    }
+}
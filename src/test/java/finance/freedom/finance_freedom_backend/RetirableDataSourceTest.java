@@ -0,0 +1,57 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.config.RetirableDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class RetirableDataSourceTest {
+
+    @Mock private DataSource target;
+
+    private RetirableDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(target.getConnection(anyString(), anyString())).thenAnswer(invocation -> {
+            Connection physical = mock(Connection.class);
+            when(physical.isValid(anyInt())).thenReturn(true);
+            return physical;
+        });
+        dataSource = new RetirableDataSource(target);
+    }
+
+    @Test
+    void retire_shouldInvalidateOnlyOldConnectionsAFewAtATime() throws Exception {
+        Connection first = dataSource.getConnection("app", "old");
+        Connection second = dataSource.getConnection("app", "old");
+        long generation = dataSource.nextGeneration();
+        Connection rotated = dataSource.getConnection("app", "new");
+
+        assertEquals(2, dataSource.retire(generation, 1));
+        assertEquals(1, (first.isValid(1) ? 0 : 1) + (second.isValid(1) ? 0 : 1));
+        assertTrue(rotated.isValid(1));
+
+        Connection retired = first.isValid(1) ? second : first;
+        Connection pending = retired == first ? second : first;
+        assertEquals(2, dataSource.retire(generation, 1));
+        assertTrue(pending.isValid(1));
+
+        retired.close();
+        assertEquals(1, dataSource.retire(generation, 1));
+        assertFalse(pending.isValid(1));
+
+        pending.close();
+        assertEquals(0, dataSource.retire(generation, 1));
+        assertTrue(rotated.isValid(1));
+    }
+}
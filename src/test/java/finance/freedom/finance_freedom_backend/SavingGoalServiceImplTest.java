@@ -1,5 +1,6 @@
 package finance.freedom.finance_freedom_backend;
 
+import finance.freedom.finance_freedom_backend.cache.EntityCache;
 import finance.freedom.finance_freedom_backend.dto.savinggoal.CreateSavingGoalDTO;
 import finance.freedom.finance_freedom_backend.dto.savinggoal.SavingGoalResponseDTO;
 import finance.freedom.finance_freedom_backend.dto.savinggoal.UpdateSavingGoalDTO;
@@ -10,16 +11,15 @@ import finance.freedom.finance_freedom_backend.model.core.User;
 import finance.freedom.finance_freedom_backend.model.exception.GenericResponse;
 import finance.freedom.finance_freedom_backend.repository.SavingGoalRepository;
 import finance.freedom.finance_freedom_backend.service.core.SavingGoalServiceImpl;
-import finance.freedom.finance_freedom_backend.util.AuthorizationUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +27,7 @@ import static org.mockito.Mockito.*;
 class SavingGoalServiceImplTest {
 
     @Mock private SavingGoalRepository savingGoalRepository;
+    @Mock private EntityCache<SavingGoalResponseDTO> savingGoalEntityCache;
     @InjectMocks private SavingGoalServiceImpl savingGoalService;
 
     private User user;
@@ -53,44 +54,38 @@ class SavingGoalServiceImplTest {
 
     @Test
     void getSavingGoalById_shouldThrowIfUnauthorized() {
-        when(savingGoalRepository.findByGoalId(goalId)).thenReturn(goal);
+        when(savingGoalRepository.findByGoalIdAndUserId(goalId, user.getUserId())).thenReturn(null);
+        when(savingGoalRepository.existsByGoalId(goalId)).thenReturn(true);
 
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    any(), any()
-            )).thenThrow(new AccessDeniedException("Unauthorized"));
-
-            AccessDeniedException ex = assertThrows(AccessDeniedException.class, () ->
-                    savingGoalService.getSavingGoalById(user, goalId));
+        AccessDeniedException ex = assertThrows(AccessDeniedException.class, () ->
+                savingGoalService.getSavingGoalById(user, goalId));
 
-            assertEquals("Unauthorized", ex.getMessage());
-        }
+        assertEquals("Unauthorized", ex.getMessage());
     }
 
     @Test
     void getSavingGoalById_shouldReturnDTO() {
-        when(savingGoalRepository.findByGoalId(goalId)).thenReturn(goal);
+        when(savingGoalRepository.findByGoalIdAndUserId(goalId, user.getUserId())).thenReturn(goal);
 
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    eq(goal.getUser().getUserId()), eq(user.getUserId())
-            )).thenCallRealMethod();
-
-            SavingGoalResponseDTO dto = savingGoalService.getSavingGoalById(user, goalId);
-            assertEquals("Vacation", dto.getGoalName());
-        }
+        SavingGoalResponseDTO dto = savingGoalService.getSavingGoalById(user, goalId);
+        assertEquals("Vacation", dto.getGoalName());
     }
 
     @Test
     void getSavingGoalById_shouldThrowIfNotFound() {
-        when(savingGoalRepository.findByGoalId(goalId)).thenReturn(null);
+        when(savingGoalRepository.findByGoalIdAndUserId(goalId, user.getUserId())).thenReturn(null);
+        when(savingGoalRepository.existsByGoalId(goalId)).thenReturn(false);
         assertThrows(SavingGoalNotFoundException.class, () ->
                 savingGoalService.getSavingGoalById(user, goalId));
     }
 
     @Test
     void getSavingGoal_shouldReturnMapOfDTOs() {
-        when(savingGoalRepository.findByUser(user)).thenReturn(List.of(goal));
+        when(savingGoalRepository.findGoalIdsByUserId(user.getUserId())).thenReturn(List.of(goalId));
+        when(savingGoalRepository.findByUserIdAndGoalIdIn(user.getUserId(), List.of(goalId))).thenReturn(List.of(goal));
+        when(savingGoalEntityCache.getAll(eq(user.getUserId()), eq(List.of(goalId)), any())).thenAnswer(invocation ->
+                invocation.<Function<List<Integer>, Map<Integer, SavingGoalResponseDTO>>>getArgument(2).apply(invocation.getArgument(1)));
+
         Map<Integer, SavingGoalResponseDTO> result = savingGoalService.getSavingGoal(user);
         assertTrue(result.containsKey(goalId));
         assertEquals("Vacation", result.get(goalId).getGoalName());
@@ -101,41 +96,42 @@ class SavingGoalServiceImplTest {
         UpdateSavingGoalDTO dto = new UpdateSavingGoalDTO();
         dto.setGoalName("Emergency Fund");
         dto.setCurrentAmount(BigDecimal.valueOf(500));
+        goal.setGoalName("Emergency Fund");
+        goal.setCurrentAmount(BigDecimal.valueOf(500));
 
-        when(savingGoalRepository.findByGoalId(goalId)).thenReturn(goal);
+        when(savingGoalRepository.updateByGoalIdAndUserId(goalId, user.getUserId(), "Emergency Fund",
+                BigDecimal.valueOf(500), null, null, false, null)).thenReturn(goal);
 
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    eq(goal.getUser().getUserId()), eq(user.getUserId())
-            )).thenCallRealMethod();
+        SavingGoalResponseDTO updated = savingGoalService.updateSavingGoal(user, goalId, dto);
+        assertEquals("Emergency Fund", updated.getGoalName());
+        verify(savingGoalEntityCache).put(user.getUserId(), goalId, updated);
+        assertEquals(BigDecimal.valueOf(500), updated.getCurrentAmount());
+    }
+
+    @Test
+    void updateSavingGoal_shouldThrowIfUnauthorized() {
+        when(savingGoalRepository.existsByGoalId(goalId)).thenReturn(true);
 
-            SavingGoalResponseDTO updated = savingGoalService.updateSavingGoal(user, goalId, dto);
-            assertEquals("Emergency Fund", updated.getGoalName());
-            assertEquals(BigDecimal.valueOf(500), updated.getCurrentAmount());
-        }
+        assertThrows(AccessDeniedException.class, () ->
+                savingGoalService.updateSavingGoal(user, goalId, new UpdateSavingGoalDTO()));
     }
 
     @Test
     void deleteSavingGoal_shouldReturnSuccessMessage() {
-        when(savingGoalRepository.findByGoalId(goalId)).thenReturn(goal);
-
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    eq(goal.getUser().getUserId()), eq(user.getUserId())
-            )).thenCallRealMethod();
+        when(savingGoalRepository.deleteByGoalIdAndUserId(goalId, user.getUserId())).thenReturn(1);
 
-            GenericResponse response = savingGoalService.deleteSavingGoal(user, goalId);
+        GenericResponse response = savingGoalService.deleteSavingGoal(user, goalId);
 
-            assertNotNull(response);
-            assertTrue(response.getMessage().contains("deleted successfully"));
-            assertNotNull(response.getTimestamp());
-            verify(savingGoalRepository).delete(goal);
-        }
+        assertNotNull(response);
+        assertTrue(response.getMessage().contains("deleted successfully"));
+        assertNotNull(response.getTimestamp());
+        verify(savingGoalRepository).deleteByGoalIdAndUserId(goalId, user.getUserId());
     }
 
     @Test
     void deleteSavingGoal_shouldThrowIfNotFound() {
-        when(savingGoalRepository.findByGoalId(goalId)).thenReturn(null);
+        when(savingGoalRepository.deleteByGoalIdAndUserId(goalId, user.getUserId())).thenReturn(0);
+        when(savingGoalRepository.existsByGoalId(goalId)).thenReturn(false);
         assertThrows(SavingGoalNotFoundException.class, () ->
                 savingGoalService.deleteSavingGoal(user, goalId));
     }
@@ -0,0 +1,108 @@
+package finance.freedom.finance_freedom_backend;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaIndexUsageTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private Connection connection;
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        // Test tables are tiny, so take sequential scans off the table and check the planner can use the index at all.
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void filteredTransactions_shouldUseUserDateTypeIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM transactions WHERE user_id = 1 AND transaction_type = 'EXPENSE' "
+                        + "AND transaction_date >= now() - interval '30 days' ORDER BY transaction_date DESC",
+                "idx_transactions_user_date_type");
+    }
+
+    @Test
+    void budgetsByUser_shouldUseUserIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM budgets WHERE user_id = 1", "idx_budgets_user_id");
+    }
+
+    @Test
+    void savingGoalsByUser_shouldUseUserIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM savings_goals WHERE user_id = 1", "idx_savings_goals_user_id");
+    }
+
+    @Test
+    void linkedAccountsByUser_shouldUseUserIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM linked_accounts WHERE user_id = 1", "idx_linked_accounts_user_id");
+    }
+
+    @Test
+    void refreshTokenLookup_shouldUseTokenHashIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM refresh_tokens WHERE token_hash = sha256('token')", "uk_refresh_tokens_token_hash");
+    }
+
+    @Test
+    void verificationTokenLookup_shouldUseTokenHashIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM email_verification_tokens WHERE token_hash = sha256('token')",
+                "uk_email_verification_tokens_token_hash");
+    }
+
+    @Test
+    void expiredRefreshTokenPurge_shouldUseExpiryIndex() throws SQLException {
+        assertUsesIndex("SELECT ctid FROM refresh_tokens WHERE expires_at < now() LIMIT 1000", "idx_refresh_tokens_expires_at");
+    }
+
+    @Test
+    void expiredVerificationTokenPurge_shouldUseExpiryIndex() throws SQLException {
+        assertUsesIndex("SELECT ctid FROM email_verification_tokens WHERE expires_at < now() LIMIT 1000",
+                "idx_email_verification_tokens_expires_at");
+    }
+
+    private void assertUsesIndex(String query, String indexName) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + query)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+
+        assertFalse(plan.toString().contains("Seq Scan"), () -> "Unexpected sequential scan:\n" + plan);
+        assertTrue(plan.toString().contains(indexName), () -> "Expected " + indexName + " in plan:\n" + plan);
+    }
+}
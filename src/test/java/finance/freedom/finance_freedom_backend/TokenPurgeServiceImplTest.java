@@ -0,0 +1,60 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.repository.EmailVerificationTokenRepository;
+import finance.freedom.finance_freedom_backend.repository.RefreshTokenRepository;
+import finance.freedom.finance_freedom_backend.service.core.TokenPurgeServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenPurgeServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 4, 15, 12, 0);
+
+    @Mock private RefreshTokenRepository refreshTokenRepository;
+    @Mock private EmailVerificationTokenRepository emailVerificationTokenRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenPurgeServiceImpl tokenPurgeService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        tokenPurgeService = new TokenPurgeServiceImpl(refreshTokenRepository, emailVerificationTokenRepository, meterRegistry);
+
+        Field field = TokenPurgeServiceImpl.class.getDeclaredField("batchSize");
+        field.setAccessible(true);
+        field.set(tokenPurgeService, 100);
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteInBatchesUntilShortBatch() {
+        when(refreshTokenRepository.deleteExpiredBatch(NOW, 100)).thenReturn(100, 100, 42);
+        when(emailVerificationTokenRepository.deleteExpiredBatch(NOW, 100)).thenReturn(7);
+
+        int purged = tokenPurgeService.purgeExpired(NOW);
+
+        assertEquals(249, purged);
+        verify(refreshTokenRepository, times(3)).deleteExpiredBatch(NOW, 100);
+        verify(emailVerificationTokenRepository, times(1)).deleteExpiredBatch(NOW, 100);
+        assertEquals(242.0, meterRegistry.get("tokens.purged").tag("table", "refresh_tokens").counter().count());
+        assertEquals(7.0, meterRegistry.get("tokens.purged").tag("table", "email_verification_tokens").counter().count());
+    }
+
+    @Test
+    void purgeExpired_shouldStopWhenNothingIsExpired() {
+        assertEquals(0, tokenPurgeService.purgeExpired(NOW));
+
+        verify(refreshTokenRepository, times(1)).deleteExpiredBatch(NOW, 100);
+        verify(emailVerificationTokenRepository, times(1)).deleteExpiredBatch(NOW, 100);
+    }
+}
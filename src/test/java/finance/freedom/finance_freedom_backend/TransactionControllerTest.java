@@ -0,0 +1,121 @@
+package finance.freedom.finance_freedom_backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import finance.freedom.finance_freedom_backend.controller.transaction.TransactionController;
+import finance.freedom.finance_freedom_backend.dto.transaction.CreateTransactionDTO;
+import finance.freedom.finance_freedom_backend.enums.SummaryGroupBy;
+import finance.freedom.finance_freedom_backend.interfaces.core.ITransactionService;
+import finance.freedom.finance_freedom_backend.interfaces.ratelimiter.IRateLimiterService;
+import finance.freedom.finance_freedom_backend.model.core.User;
+import finance.freedom.finance_freedom_backend.model.security.CustomUserDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransactionControllerTest {
+
+    private static final String ITEM = "{\"amount\":12.50,\"category\":\"GROCERIES\",\"description\":\"Milk\",\"transactionType\":\"EXPENSE\"}";
+
+    @Mock private ITransactionService transactionService;
+    @Mock private IRateLimiterService rateLimiterService;
+
+    private TransactionController controller;
+    private CustomUserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        controller = new TransactionController(transactionService, rateLimiterService, objectMapper);
+        ReflectionTestUtils.setField(controller, "batchMaxItems", 2);
+        ReflectionTestUtils.setField(controller, "batchMaxRequestSize", DataSize.ofKilobytes(1));
+
+        User user = new User();
+        user.setUserId(7);
+        userDetails = new CustomUserDetails(user);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createBatch_shouldBindItemsFromTheArray() throws Exception {
+        controller.createBatch(request("[" + ITEM + ",null]", true), userDetails);
+
+        ArgumentCaptor<List<CreateTransactionDTO>> batch = ArgumentCaptor.forClass(List.class);
+        verify(transactionService).saveBatch(eq(userDetails.getUser()), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertEquals("Milk", batch.getValue().get(0).getDescription());
+        assertNull(batch.getValue().get(1));
+    }
+
+    @Test
+    void createBatch_shouldRejectTooManyItemsBeforeBindingTheRest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> controller.createBatch(request("[" + ITEM + "," + ITEM + "," + ITEM + ",{\"amount\":", true), userDetails));
+        verify(transactionService, never()).saveBatch(any(), any());
+    }
+
+    @Test
+    void createBatch_shouldRejectOversizedBodies() {
+        String body = "[" + ITEM + ",{\"amount\":1,\"description\":\"" + "x".repeat(2048) + "\"}]";
+
+        assertThrows(IllegalArgumentException.class, () -> controller.createBatch(request(body, true), userDetails));
+        assertThrows(IllegalArgumentException.class, () -> controller.createBatch(request(body, false), userDetails));
+        verify(transactionService, never()).saveBatch(any(), any());
+    }
+
+    @Test
+    void createBatch_shouldRejectBodiesThatAreNotAnArray() {
+        assertThrows(IllegalArgumentException.class, () -> controller.createBatch(request(ITEM, true), userDetails));
+        assertThrows(IllegalArgumentException.class, () -> controller.createBatch(request("[" + ITEM, true), userDetails));
+    }
+
+    @Test
+    void getSummary_shouldPassAMonthAlignedBeforeAsAnExclusiveEnd() {
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime before = LocalDateTime.of(2026, 4, 1, 0, 0);
+
+        controller.getSummary(request("", true), userDetails, "month", null, from, null, before);
+
+        verify(transactionService).getTransactionSummary(userDetails.getUser(), SummaryGroupBy.MONTH, null, from, before, true);
+    }
+
+    @Test
+    void getSummary_shouldKeepToInclusiveAndRejectBothBounds() {
+        LocalDateTime to = LocalDateTime.of(2026, 3, 31, 23, 59, 59);
+
+        controller.getSummary(request("", true), userDetails, "month", null, null, to, null);
+
+        verify(transactionService).getTransactionSummary(userDetails.getUser(), SummaryGroupBy.MONTH, null, null, to, false);
+        assertThrows(IllegalArgumentException.class,
+                () -> controller.getSummary(request("", true), userDetails, "month", null, null, to, to.plusSeconds(1)));
+    }
+
+    // A chunked body reports no content length.
+    private MockHttpServletRequest request(String body, boolean withLength) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transaction/batch") {
+            @Override
+            public long getContentLengthLong() {
+                return withLength ? super.getContentLengthLong() : -1;
+            }
+        };
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,95 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.enums.CategoryType;
+import finance.freedom.finance_freedom_backend.enums.TransactionType;
+import finance.freedom.finance_freedom_backend.model.core.Transaction;
+import finance.freedom.finance_freedom_backend.model.core.User;
+import finance.freedom.finance_freedom_backend.repository.TransactionMonthlyRollupRepository;
+import finance.freedom.finance_freedom_backend.service.core.TransactionRollupServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TransactionRollupServiceImplTest {
+
+    @Mock private TransactionMonthlyRollupRepository rollupRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+    @InjectMocks private TransactionRollupServiceImpl rollupService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        user = new User();
+        user.setUserId(1);
+
+        setField("rebuildChunkUsers", 1000);
+        setField("rebuildParallelism", 2);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void recordCreated_shouldApplyOneDeltaPerMonthlyBucket() {
+        rollupService.recordCreated(List.of(
+                transaction("10.00", CategoryType.FOOD, LocalDateTime.of(2024, 1, 5, 12, 0)),
+                transaction("2.50", CategoryType.FOOD, LocalDateTime.of(2024, 1, 20, 8, 30)),
+                transaction("900.00", CategoryType.RENT, LocalDateTime.of(2024, 1, 1, 0, 0))));
+
+        verify(rollupRepository).applyDelta(1, LocalDateTime.of(2024, 1, 1, 0, 0), "FOOD", "EXPENSE", new BigDecimal("12.50"), 2);
+        verify(rollupRepository).applyDelta(1, LocalDateTime.of(2024, 1, 1, 0, 0), "RENT", "EXPENSE", new BigDecimal("900.00"), 1);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void rebuildRollups_shouldRecomputeEveryUserRangeInChunks() {
+        when(rollupRepository.findMaxUserId()).thenReturn(2500);
+
+        rollupService.rebuildRollups();
+
+        verify(rollupRepository).rebuildUserRange(0, 1000);
+        verify(rollupRepository).rebuildUserRange(1000, 2000);
+        verify(rollupRepository).rebuildUserRange(2000, 3000);
+    }
+
+    @Test
+    void rebuildRollups_shouldRetryRangeThatRacedAWrite() {
+        when(rollupRepository.findMaxUserId()).thenReturn(10);
+        when(rollupRepository.rebuildUserRange(0, 1000))
+                .thenThrow(new CannotAcquireLockException("could not serialize access"))
+                .thenReturn(4);
+
+        rollupService.rebuildRollups();
+
+        verify(rollupRepository, times(2)).rebuildUserRange(0, 1000);
+    }
+
+    private Transaction transaction(String amount, CategoryType category, LocalDateTime date) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setCategory(category);
+        transaction.setTransactionType(TransactionType.EXPENSE);
+        transaction.setTransactionDate(date);
+        return transaction;
+    }
+
+    private void setField(String name, int value) throws Exception {
+        Field field = TransactionRollupServiceImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.setInt(rollupService, value);
+    }
+}
@@ -1,28 +1,37 @@
 package finance.freedom.finance_freedom_backend;
 
+import finance.freedom.finance_freedom_backend.cache.EntityCache;
 import finance.freedom.finance_freedom_backend.dto.transaction.*;
+import finance.freedom.finance_freedom_backend.enums.BatchItemStatus;
 import finance.freedom.finance_freedom_backend.enums.CategoryType;
+import finance.freedom.finance_freedom_backend.enums.ExportFormat;
 import finance.freedom.finance_freedom_backend.enums.RecurrenceInterval;
+import finance.freedom.finance_freedom_backend.enums.SummaryGroupBy;
 import finance.freedom.finance_freedom_backend.enums.TransactionType;
 import finance.freedom.finance_freedom_backend.exception.customexceptions.AccessDeniedException;
 import finance.freedom.finance_freedom_backend.exception.customexceptions.TransactionNotFoundException;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICacheGenerationService;
+import finance.freedom.finance_freedom_backend.interfaces.core.ITransactionRollupService;
 import finance.freedom.finance_freedom_backend.model.core.Transaction;
+import finance.freedom.finance_freedom_backend.model.core.TransactionRollupDeltas;
 import finance.freedom.finance_freedom_backend.model.core.User;
 import finance.freedom.finance_freedom_backend.model.exception.GenericResponse;
+import finance.freedom.finance_freedom_backend.model.pagination.TransactionCursor;
 import finance.freedom.finance_freedom_backend.repository.TransactionRepository;
 import finance.freedom.finance_freedom_backend.service.core.TransactionServiceImpl;
 import jakarta.persistence.*;
 import jakarta.persistence.criteria.*;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import finance.freedom.finance_freedom_backend.util.AuthorizationUtils;
-import org.mockito.MockedStatic;
 
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,6 +40,10 @@ class TransactionServiceImplTest {
 
     @Mock private TransactionRepository transactionRepository;
     @Mock private EntityManager entityManager;
+    @Mock private Validator validator;
+    @Mock private ICacheGenerationService cacheGenerationService;
+    @Mock private ITransactionRollupService rollupService;
+    @Mock private EntityCache<TransactionResponseDTO> transactionEntityCache;
     @InjectMocks private TransactionServiceImpl transactionService;
 
     private User user;
@@ -45,26 +58,22 @@ class TransactionServiceImplTest {
         Field emField = TransactionServiceImpl.class.getDeclaredField("entityManager");
         emField.setAccessible(true);
         emField.set(transactionService, entityManager);
+
+        setField("batchChunkSize", 500);
+        setField("batchMaxItems", 10000);
     }
 
     @Test
     void getTransaction_shouldThrowIfUnauthorized() {
         Integer id = 2;
-        Transaction tx = new Transaction();
-        tx.setTransactionId(id);
-        tx.setUser(user);
 
-        when(transactionRepository.findByTransactionId(id)).thenReturn(tx);
+        when(transactionRepository.findByTransactionIdAndUserId(id, user.getUserId())).thenReturn(null);
+        when(transactionRepository.existsByTransactionId(id)).thenReturn(true);
 
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(any(), any()))
-                    .thenThrow(new AccessDeniedException("Unauthorized"));
+        RuntimeException ex = assertThrows(AccessDeniedException.class, () ->
+                transactionService.getTransaction(user, id));
 
-            RuntimeException ex = assertThrows(RuntimeException.class, () ->
-                    transactionService.getTransaction(user, id));
-
-            assertEquals("Unauthorized", ex.getMessage());
-        }
+        assertEquals("Unauthorized", ex.getMessage());
     }
 
     @Test
@@ -88,6 +97,7 @@ class TransactionServiceImplTest {
 
         assertNotNull(result.getTransactionId());
         assertEquals(100, result.getTransactionId());
+        verify(rollupService).recordCreated(argThat((Transaction saved) -> saved.getTransactionId() == 100));
     }
 
     @Test
@@ -102,6 +112,64 @@ class TransactionServiceImplTest {
         assertEquals("Recurrence interval is required when recurring transaction is true", ex.getMessage());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveBatch_shouldPersistValidItemsAndRejectInvalidOnes() {
+        CreateTransactionDTO valid = new CreateTransactionDTO(BigDecimal.TEN, CategoryType.GROCERIES, "Shopping",
+                TransactionType.EXPENSE, LocalDateTime.now(), false, null);
+        CreateTransactionDTO invalid = new CreateTransactionDTO();
+        CreateTransactionDTO recurringWithoutInterval = new CreateTransactionDTO(BigDecimal.ONE, CategoryType.GROCERIES, "Rent",
+                TransactionType.EXPENSE, null, true, null);
+
+        ConstraintViolation<CreateTransactionDTO> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("Amount can't be null");
+        when(validator.validate(valid)).thenReturn(Set.of());
+        when(validator.validate(invalid)).thenReturn(Set.of(violation));
+        when(validator.validate(recurringWithoutInterval)).thenReturn(Set.of());
+
+        List<BatchTransactionResultDTO> results = transactionService.saveBatch(user,
+                Arrays.asList(valid, invalid, recurringWithoutInterval, null));
+
+        assertEquals(4, results.size());
+        assertEquals(BatchItemStatus.CREATED, results.get(0).getStatus());
+        assertEquals(BatchItemStatus.REJECTED, results.get(1).getStatus());
+        assertEquals(List.of("Amount can't be null"), results.get(1).getErrors());
+        assertEquals(BatchItemStatus.REJECTED, results.get(2).getStatus());
+        assertEquals(BatchItemStatus.REJECTED, results.get(3).getStatus());
+        assertEquals(3, results.get(3).getIndex());
+        verify(entityManager, times(1)).persist(any(Transaction.class));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void saveBatch_shouldFlushAndClearEveryChunk() throws Exception {
+        setField("batchChunkSize", 2);
+        when(validator.validate(any(CreateTransactionDTO.class))).thenReturn(Set.of());
+
+        List<CreateTransactionDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            batch.add(new CreateTransactionDTO(BigDecimal.ONE, CategoryType.GROCERIES, "Item " + i,
+                    TransactionType.EXPENSE, LocalDateTime.now(), false, null));
+        }
+
+        transactionService.saveBatch(user, batch);
+
+        verify(entityManager, times(5)).persist(any(Transaction.class));
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(rollupService).recordCreated(argThat((TransactionRollupDeltas created) -> created.getTransactionCount() == 5));
+    }
+
+    @Test
+    void saveBatch_shouldRejectEmptyOrOversizedBatch() throws Exception {
+        setField("batchMaxItems", 1);
+
+        assertThrows(IllegalArgumentException.class, () -> transactionService.saveBatch(user, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.saveBatch(user,
+                List.of(new CreateTransactionDTO(), new CreateTransactionDTO())));
+        verifyNoInteractions(entityManager);
+    }
+
     @Test
     void getTransaction_shouldReturnDTOIfFound() {
         Integer id = 10;
@@ -114,54 +182,52 @@ class TransactionServiceImplTest {
         tx.setTransactionDate(LocalDateTime.now());
         tx.setUser(user);
 
-        when(transactionRepository.findByTransactionId(id)).thenReturn(tx);
-
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    eq(tx.getUser().getUserId()), eq(user.getUserId())
-            )).thenCallRealMethod();
+        when(transactionRepository.findByTransactionIdAndUserId(id, user.getUserId())).thenReturn(tx);
 
-            TransactionResponseDTO result = transactionService.getTransaction(user, id);
+        TransactionResponseDTO result = transactionService.getTransaction(user, id);
 
-            assertNotNull(result);
-            assertEquals(CategoryType.GROCERIES, result.getCategory());
-        }
+        assertNotNull(result);
+        assertEquals(CategoryType.GROCERIES, result.getCategory());
+        verify(transactionRepository, never()).existsByTransactionId(any());
     }
 
     @Test
     void getTransaction_shouldThrowIfNotFound() {
         Integer id = 999;
-        when(transactionRepository.findByTransactionId(id)).thenReturn(null);
+        when(transactionRepository.findByTransactionIdAndUserId(id, user.getUserId())).thenReturn(null);
+        when(transactionRepository.existsByTransactionId(id)).thenReturn(false);
         assertThrows(TransactionNotFoundException.class, () -> transactionService.getTransaction(user, id));
     }
 
     @Test
     void deleteTransaction_shouldDeleteIfExists() {
         Integer id = 20;
-        Transaction tx = new Transaction();
-        tx.setTransactionId(id);
-        tx.setUser(user);
 
-        when(transactionRepository.findByTransactionId(id)).thenReturn(tx);
+        when(transactionRepository.deleteByTransactionIdAndUserId(id, user.getUserId())).thenReturn(1);
 
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    eq(tx.getUser().getUserId()), eq(user.getUserId())
-            )).thenCallRealMethod();
+        GenericResponse response = transactionService.deleteTransaction(user, id);
 
-            GenericResponse response = transactionService.deleteTransaction(user, id);
+        assertNotNull(response);
+        assertTrue(response.getMessage().contains("deleted successfully"));
+        assertNotNull(response.getTimestamp());
+        verify(transactionRepository, never()).existsByTransactionId(any());
+    }
 
-            assertNotNull(response);
-            assertTrue(response.getMessage().contains("deleted successfully"));
-            assertNotNull(response.getTimestamp());
-            verify(transactionRepository).delete(tx);
-        }
+    @Test
+    void deleteTransaction_shouldThrowIfUnauthorized() {
+        Integer id = 21;
+
+        when(transactionRepository.deleteByTransactionIdAndUserId(id, user.getUserId())).thenReturn(0);
+        when(transactionRepository.existsByTransactionId(id)).thenReturn(true);
+
+        assertThrows(AccessDeniedException.class, () -> transactionService.deleteTransaction(user, id));
     }
 
     @Test
     void deleteTransaction_shouldThrowIfNotFound() {
         Integer id = 999;
-        when(transactionRepository.findByTransactionId(id)).thenReturn(null);
+        when(transactionRepository.deleteByTransactionIdAndUserId(id, user.getUserId())).thenReturn(0);
+        when(transactionRepository.existsByTransactionId(id)).thenReturn(false);
         assertThrows(TransactionNotFoundException.class, () -> transactionService.deleteTransaction(user, id));
     }
 
@@ -171,37 +237,43 @@ class TransactionServiceImplTest {
         Transaction tx = new Transaction();
         tx.setTransactionId(id);
         tx.setUser(user);
+        tx.setAmount(BigDecimal.valueOf(50));
+        tx.setCategory(CategoryType.GROCERIES);
 
         UpdateTransactionDTO dto = new UpdateTransactionDTO();
         dto.setAmount(BigDecimal.valueOf(50));
         dto.setCategory(CategoryType.GROCERIES);
 
-        when(transactionRepository.findByTransactionId(id)).thenReturn(tx);
-        when(transactionRepository.save(any(Transaction.class))).thenReturn(tx);
+        when(transactionRepository.updateByTransactionIdAndUserId(id, user.getUserId(), BigDecimal.valueOf(50),
+                "GROCERIES", null, null, null, null)).thenReturn(tx);
 
-        try (MockedStatic<AuthorizationUtils> utils = mockStatic(AuthorizationUtils.class)) {
-            utils.when(() -> AuthorizationUtils.validateOwnership(
-                    eq(tx.getUser().getUserId()), eq(user.getUserId())
-            )).thenCallRealMethod();
+        TransactionResponseDTO result = transactionService.updateTransaction(user, id, dto);
 
-            TransactionResponseDTO result = transactionService.updateTransaction(user, id, dto);
+        assertNotNull(result);
+        assertEquals(CategoryType.GROCERIES, result.getCategory());
+    }
 
-            assertNotNull(result);
-            assertEquals(CategoryType.GROCERIES, result.getCategory());
-        }
+    @Test
+    void updateTransaction_shouldThrowIfUnauthorized() {
+        Integer id = 124;
+
+        when(transactionRepository.existsByTransactionId(id)).thenReturn(true);
+
+        assertThrows(AccessDeniedException.class, () ->
+                transactionService.updateTransaction(user, id, new UpdateTransactionDTO()));
     }
 
     @Test
-    void getFilteredTransactions_shouldReturnFilteredMap() {
+    void getFilteredTransactions_shouldAssembleCachedAndLoadedEntries() {
         LocalDateTime start = LocalDateTime.now().minusDays(5);
         LocalDateTime end = LocalDateTime.now();
 
         CriteriaBuilder builder = mock(CriteriaBuilder.class);
-        CriteriaQuery<Transaction> query = mock(CriteriaQuery.class);
+        CriteriaQuery<Integer> query = mock(CriteriaQuery.class);
         Root<Transaction> root = mock(Root.class);
         Path<Object> userPath = mock(Path.class);
         Path<Object> userIdPath = mock(Path.class);
-        TypedQuery<Transaction> typedQuery = mock(TypedQuery.class);
+        TypedQuery<Integer> typedQuery = mock(TypedQuery.class);
 
         Transaction tx = new Transaction();
         tx.setTransactionId(321);
@@ -212,13 +284,14 @@ class TransactionServiceImplTest {
         tx.setTransactionType(TransactionType.EXPENSE);
         tx.setTransactionDate(LocalDateTime.now());
 
-        List<Transaction> transactions = List.of(tx);
+        TransactionResponseDTO cached = new TransactionResponseDTO();
+        cached.setTransactionId(654);
 
         when(entityManager.getCriteriaBuilder()).thenReturn(builder);
-        when(builder.createQuery(Transaction.class)).thenReturn(query);
+        when(builder.createQuery(Integer.class)).thenReturn(query);
         when(query.from(Transaction.class)).thenReturn(root);
         when(entityManager.createQuery(query)).thenReturn(typedQuery);
-        when(typedQuery.getResultList()).thenReturn(transactions);
+        when(typedQuery.getResultList()).thenReturn(List.of(654, 321));
 
         when(root.get("user")).thenReturn(userPath);
         when(userPath.get("userId")).thenReturn(userIdPath);
@@ -226,8 +299,200 @@ class TransactionServiceImplTest {
         when(builder.and(any(Predicate[].class))).thenReturn(mock(Predicate.class));
         when(query.orderBy((Order) any())).thenReturn(query);
 
+        when(transactionRepository.findByUserIdAndTransactionIdIn(user.getUserId(), List.of(321))).thenReturn(List.of(tx));
+        when(transactionEntityCache.getAll(eq(user.getUserId()), eq(List.of(654, 321)), any())).thenAnswer(invocation -> {
+            Map<Integer, TransactionResponseDTO> loaded =
+                    invocation.<Function<List<Integer>, Map<Integer, TransactionResponseDTO>>>getArgument(2).apply(List.of(321));
+            Map<Integer, TransactionResponseDTO> result = new LinkedHashMap<>();
+            result.put(654, cached);
+            result.putAll(loaded);
+            return result;
+        });
+
         Map<Integer, TransactionResponseDTO> result = transactionService.getFilteredTransactions(user, null, start, end);
 
-        assertEquals(1, result.size());
+        assertEquals(List.of(654, 321), new ArrayList<>(result.keySet()));
+        assertEquals("Test desc", result.get(321).getDescription());
+    }
+
+    @Test
+    void getTransaction_shouldServeCachedEntryWithoutQuery() {
+        TransactionResponseDTO cached = new TransactionResponseDTO();
+        cached.setTransactionId(77);
+        when(transactionEntityCache.get(user.getUserId(), 77)).thenReturn(cached);
+
+        assertSame(cached, transactionService.getTransaction(user, 77));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getTransactionPage_shouldRejectMalformedCursor() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+                transactionService.getTransactionPage(user, null, null, null, "not-a-cursor", 20));
+
+        assertEquals("Invalid cursor", ex.getMessage());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void getTransactionPage_shouldRejectNonPositivePageSize() {
+        assertThrows(IllegalArgumentException.class, () ->
+                transactionService.getTransactionPage(user, null, null, null, null, 0));
+    }
+
+    @Test
+    void transactionCursor_shouldRoundTrip() {
+        LocalDateTime date = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+        TransactionCursor decoded = TransactionCursor.decode(new TransactionCursor(date, 42).encode());
+
+        assertEquals(date, decoded.getTransactionDate());
+        assertEquals(42, decoded.getTransactionId());
+    }
+
+    @Test
+    void exportTransactions_shouldStreamCsvRows() throws Exception {
+        CriteriaBuilder builder = mock(CriteriaBuilder.class);
+        CriteriaQuery<Transaction> query = mock(CriteriaQuery.class);
+        Root<Transaction> root = mock(Root.class);
+        Path<Object> userPath = mock(Path.class);
+        Path<Object> userIdPath = mock(Path.class);
+        TypedQuery<Transaction> typedQuery = mock(TypedQuery.class);
+
+        Transaction tx = new Transaction();
+        tx.setTransactionId(7);
+        tx.setUser(user);
+        tx.setAmount(new BigDecimal("12.50"));
+        tx.setCategory(CategoryType.FOOD);
+        tx.setDescription("Dinner, \"downtown\"");
+        tx.setTransactionType(TransactionType.EXPENSE);
+        tx.setTransactionDate(LocalDateTime.of(2024, 1, 2, 19, 0));
+        tx.setRecurrenceInterval(RecurrenceInterval.NONE);
+
+        when(entityManager.getCriteriaBuilder()).thenReturn(builder);
+        when(builder.createQuery(Transaction.class)).thenReturn(query);
+        when(query.from(Transaction.class)).thenReturn(root);
+        when(root.get("user")).thenReturn(userPath);
+        when(userPath.get("userId")).thenReturn(userIdPath);
+        when(entityManager.createQuery(query)).thenReturn(typedQuery);
+        when(typedQuery.setHint(anyString(), any())).thenReturn(typedQuery);
+        when(typedQuery.getResultStream()).thenReturn(java.util.stream.Stream.of(tx));
+
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        transactionService.exportTransactions(user, null, null, null, ExportFormat.CSV, out);
+
+        String[] lines = out.toString(java.nio.charset.StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("transactionId,"));
+        assertEquals("7,2024-01-02T19:00,EXPENSE,FOOD,12.50,\"Dinner, \"\"downtown\"\"\",false,NONE", lines[1]);
+    }
+
+    @Test
+    void getTransactionSummary_shouldGroupInSql() {
+        Query query = mock(Query.class);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{"EXPENSE", "GROCERIES", java.sql.Timestamp.valueOf("2024-01-01 00:00:00"), new BigDecimal("15.00"), 2L}));
+
+        List<TransactionSummaryDTO> summary = transactionService.getTransactionSummary(user, SummaryGroupBy.MONTH, TransactionType.EXPENSE,
+                LocalDateTime.of(2024, 1, 15, 0, 0), null, false);
+
+        assertEquals(1, summary.size());
+        assertEquals(CategoryType.GROCERIES, summary.get(0).getCategory());
+        assertEquals(java.time.LocalDate.of(2024, 1, 1), summary.get(0).getPeriod());
+        assertEquals(2L, summary.get(0).getCount());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createNativeQuery(sql.capture());
+        assertTrue(sql.getValue().contains("date_trunc('month', transaction_date)"));
+        assertTrue(sql.getValue().contains("GROUP BY"));
+        verify(query).setParameter("transactionType", "EXPENSE");
+    }
+
+    @Test
+    void getTransactionSummary_shouldReadRollupForWholeMonthRanges() {
+        Query query = mock(Query.class);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{"EXPENSE", "RENT", java.sql.Timestamp.valueOf("2024-02-01 00:00:00"), new BigDecimal("900.00"), 1L}));
+
+        List<TransactionSummaryDTO> summary = transactionService.getTransactionSummary(user, SummaryGroupBy.MONTH, null,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 3, 31, 23, 59, 59, 999_999_999), false);
+
+        assertEquals(1, summary.size());
+        assertEquals(new BigDecimal("900.00"), summary.get(0).getTotal());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createNativeQuery(sql.capture());
+        assertTrue(sql.getValue().contains("FROM transaction_monthly_rollup"));
+        verify(query).setParameter("startMonth", java.time.LocalDate.of(2024, 1, 1));
+        verify(query).setParameter("endMonth", java.time.LocalDate.of(2024, 3, 1));
+    }
+
+    @Test
+    void getTransactionSummary_shouldReadRawRowsWhenEndSkipsTheLastSecond() {
+        Query query = mock(Query.class);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+
+        transactionService.getTransactionSummary(user, SummaryGroupBy.MONTH, null,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 3, 31, 23, 59, 59), false);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createNativeQuery(sql.capture());
+        assertTrue(sql.getValue().contains("FROM transactions"));
+        assertTrue(sql.getValue().contains("transaction_date <= :endDate"));
+    }
+
+    @Test
+    void getTransactionSummary_shouldReadRollupForAnExclusiveEndAtTheNextMonth() {
+        Query query = mock(Query.class);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+
+        transactionService.getTransactionSummary(user, SummaryGroupBy.MONTH, null,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 4, 1, 0, 0), true);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createNativeQuery(sql.capture());
+        assertTrue(sql.getValue().contains("FROM transaction_monthly_rollup"));
+        verify(query).setParameter("startMonth", java.time.LocalDate.of(2024, 1, 1));
+        verify(query).setParameter("endMonth", java.time.LocalDate.of(2024, 3, 1));
+    }
+
+    @Test
+    void getTransactionSummary_shouldExcludeAnExclusiveEndFromRawRows() {
+        Query query = mock(Query.class);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+
+        transactionService.getTransactionSummary(user, SummaryGroupBy.MONTH, null,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 3, 15, 0, 0), true);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createNativeQuery(sql.capture());
+        assertTrue(sql.getValue().contains("transaction_date < :endDate"));
+    }
+
+    @Test
+    void deleteTransaction_shouldBumpUserCacheGeneration() {
+        Integer id = 30;
+        when(transactionRepository.deleteByTransactionIdAndUserId(id, user.getUserId())).thenReturn(1);
+
+        transactionService.deleteTransaction(user, id);
+
+        verify(transactionEntityCache).evict(user.getUserId(), id);
+        verify(cacheGenerationService).bumpGeneration(user.getUserId());
+    }
+
+    @Test
+    void summaryGroupBy_shouldParseCaseInsensitiveAndRejectUnknown() {
+        assertEquals(SummaryGroupBy.WEEK, SummaryGroupBy.fromValue("week"));
+        assertThrows(IllegalArgumentException.class, () -> SummaryGroupBy.fromValue("year"));
+    }
+
+    private void setField(String name, int value) throws Exception {
+        Field field = TransactionServiceImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.setInt(transactionService, value);
     }
 }
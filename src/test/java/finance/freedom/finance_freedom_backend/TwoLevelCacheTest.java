@@ -0,0 +1,359 @@
+package finance.freedom.finance_freedom_backend;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import finance.freedom.finance_freedom_backend.cache.CacheEnvelope;
+import finance.freedom.finance_freedom_backend.cache.CacheInvalidationBus;
+import finance.freedom.finance_freedom_backend.cache.CacheLoadLock;
+import finance.freedom.finance_freedom_backend.cache.CachePrefetchTracker;
+import finance.freedom.finance_freedom_backend.cache.CacheTtl;
+import finance.freedom.finance_freedom_backend.cache.RedisCircuitBreaker;
+import finance.freedom.finance_freedom_backend.cache.TwoLevelCache;
+import finance.freedom.finance_freedom_backend.service.cache.CacheGenerationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TwoLevelCacheTest {
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private CacheLoadLock loadLock;
+
+    private CacheInvalidationBus invalidationBus;
+    private Cache remote;
+    private SimpleMeterRegistry meterRegistry;
+    private CachePrefetchTracker prefetchTracker;
+    private RedisCircuitBreaker circuitBreaker;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(loadLock.tryAcquire(anyString(), any(), any())).thenReturn("token");
+        circuitBreaker = new RedisCircuitBreaker(true, 1, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        invalidationBus = new CacheInvalidationBus(redisTemplate, circuitBreaker);
+        remote = spy(new ConcurrentMapCache("budget"));
+        meterRegistry = new SimpleMeterRegistry();
+        prefetchTracker = new CachePrefetchTracker(meterRegistry, Duration.ofMinutes(15), 1000);
+        cache = new TwoLevelCache("budget", Caffeine.newBuilder().build(), remote, CacheTtl.of(Duration.ofMinutes(30)), invalidationBus,
+                loadLock, meterRegistry, Duration.ofSeconds(2), 1.0, Runnable::run, prefetchTracker, circuitBreaker);
+    }
+
+    @Test
+    void get_shouldServeRepeatedReadsFromLocalLevel() {
+        remote.put("7:0", "budgets");
+
+        assertEquals("budgets", cache.get("7:0").get());
+        assertEquals("budgets", cache.get("7:0").get());
+        assertEquals("budgets", cache.get("7:0").get());
+
+        verify(remote, times(1)).get("7:0");
+        assertEquals(2, count("l1", "hit"));
+        assertEquals(1, count("l1", "miss"));
+        assertEquals(1, count("l2", "hit"));
+        assertEquals(0, count("l2", "miss"));
+    }
+
+    @Test
+    void get_shouldCountMissOnBothLevels() {
+        assertNull(cache.get("7:0"));
+
+        assertEquals(1, count("l1", "miss"));
+        assertEquals(1, count("l2", "miss"));
+    }
+
+    @Test
+    void evict_shouldDropBothLevelsAndNotifyOtherNodes() {
+        cache.put("7:0", "budgets");
+
+        cache.evict("7:0");
+
+        assertNull(remote.get("7:0"));
+        assertNull(cache.get("7:0"));
+        verify(redisTemplate).convertAndSend(eq(CacheInvalidationBus.CHANNEL), endsWith("|budget|7:0"));
+    }
+
+    @Test
+    void onMessage_shouldDropLocalCopyWhenAnotherNodeEvicts() {
+        cache.put("7:0", "budgets");
+        remote.evict("7:0");
+
+        invalidationBus.onMessage(message("other-node|budget|7:0"), null);
+
+        assertNull(cache.get("7:0"));
+    }
+
+    @Test
+    void onMessage_shouldIgnoreOwnPublications() {
+        cache.evict("7:0");
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CacheInvalidationBus.CHANNEL), published.capture());
+        cache.put("7:0", "budgets");
+        remote.evict("7:0");
+
+        invalidationBus.onMessage(message(published.getValue()), null);
+
+        assertEquals("budgets", cache.get("7:0").get());
+    }
+
+    @Test
+    void currentGeneration_shouldFollowRemoteBumpsWithoutReadingRedisAgain() {
+        when(valueOperations.get("cache-gen:7")).thenReturn("3");
+        CacheGenerationServiceImpl generationService =
+                new CacheGenerationServiceImpl(redisTemplate, invalidationBus, circuitBreaker, Duration.ofSeconds(30));
+
+        assertEquals(3, generationService.currentGeneration(7));
+        invalidationBus.onMessage(message("other-node|cache-gen|7:5"), null);
+        invalidationBus.onMessage(message("other-node|cache-gen|7:4"), null);
+
+        assertEquals(5, generationService.currentGeneration(7));
+        verify(valueOperations, times(1)).get("cache-gen:7");
+    }
+
+    @Test
+    void get_shouldRunOneLoaderForConcurrentMisses() throws Exception {
+        int callers = 16;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("7:0", () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(200);
+                        return "budgets";
+                    });
+                }));
+            }
+            start.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("budgets", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        verify(loadLock, times(1)).tryAcquire(eq("budget"), eq("7:0"), any());
+        verify(loadLock).release("budget", "7:0", "token");
+        assertEquals(callers - 1, coalesced("local"));
+    }
+
+    @Test
+    void get_shouldWaitForLoadRunningOnAnotherNode() {
+        when(loadLock.tryAcquire(anyString(), any(), any())).thenReturn(null);
+        CompletableFuture.runAsync(() -> remote.put("7:0", "budgets"),
+                CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+
+        String value = cache.get("7:0", () -> fail("loader should not run while another node holds the lock"));
+
+        assertEquals("budgets", value);
+        assertEquals(1, coalesced("cluster"));
+    }
+
+    @Test
+    void get_shouldLoadAnywayWhenLockHolderNeverWrites() {
+        when(loadLock.tryAcquire(anyString(), any(), any())).thenReturn(null);
+
+        assertEquals("budgets", cache.get("7:0", () -> "budgets"));
+        assertEquals("budgets", remote.get("7:0", CacheEnvelope.class).value());
+    }
+
+    @Test
+    void get_shouldRefreshEntryAtItsExpiry() {
+        remote.put("7:0", new CacheEnvelope("stale", 50, System.currentTimeMillis() - 1));
+
+        assertEquals("fresh", cache.get("7:0", () -> "fresh"));
+        assertEquals("fresh", cache.get("7:0").get());
+        assertEquals(1, meterRegistry.get("cache.two_level.early_refresh").tag("cache", "budget").counter().count());
+    }
+
+    @Test
+    void get_shouldKeepEntryFarFromExpiry() {
+        remote.put("7:0", new CacheEnvelope("budgets", 10, System.currentTimeMillis() + Duration.ofMinutes(15).toMillis()));
+
+        assertEquals("budgets", cache.get("7:0", () -> fail("loader should not run for a fresh entry")));
+    }
+
+    @Test
+    void get_shouldServeCurrentValueWhenEarlyRefreshFails() {
+        remote.put("7:0", new CacheEnvelope("budgets", 50, System.currentTimeMillis() - 1));
+
+        assertEquals("budgets", cache.get("7:0", () -> {
+            throw new IllegalStateException("database down");
+        }));
+    }
+
+    @Test
+    void get_shouldServeStaleValueAndRefreshInBackground() {
+        List<Runnable> refreshes = new ArrayList<>();
+        TwoLevelCache swrCache = staleWhileRevalidateCache(refreshes::add);
+        remote.put("7:0", staleEnvelope("stale"));
+
+        assertEquals("stale", swrCache.get("7:0", () -> "fresh"));
+        assertEquals("stale", swrCache.get("7:0", () -> "fresh"));
+        assertEquals(1, refreshes.size());
+
+        refreshes.getFirst().run();
+
+        assertEquals("fresh", swrCache.get("7:0", () -> fail("loader should not run for a refreshed entry")));
+        assertEquals(2, meterRegistry.get("cache.two_level.stale_served").tag("cache", "budget").counter().count());
+    }
+
+    @Test
+    void get_shouldTakeEntryAnotherNodeAlreadyRefreshed() {
+        List<Runnable> refreshes = new ArrayList<>();
+        TwoLevelCache swrCache = staleWhileRevalidateCache(refreshes::add);
+        remote.put("7:0", staleEnvelope("stale"));
+        swrCache.get("7:0", () -> "fresh");
+
+        remote.put("7:0", new CacheEnvelope("refreshed", 10, System.currentTimeMillis() + Duration.ofMinutes(15).toMillis()));
+        refreshes.getFirst().run();
+
+        assertEquals("refreshed", swrCache.get("7:0", () -> fail("loader should not run when Redis is already fresh")));
+    }
+
+    @Test
+    void get_shouldServeStaleValueWhenRefreshQueueIsFull() {
+        TwoLevelCache swrCache = staleWhileRevalidateCache(task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+        remote.put("7:0", staleEnvelope("stale"));
+
+        assertEquals("stale", swrCache.get("7:0", () -> "fresh"));
+        assertEquals("stale", swrCache.get("7:0", () -> "fresh"));
+        assertEquals(2, meterRegistry.get("cache.two_level.refresh_rejected").tag("cache", "budget").counter().count());
+    }
+
+    @Test
+    void get_shouldLoadSynchronouslyPastHardTtl() {
+        TwoLevelCache swrCache = staleWhileRevalidateCache(task -> fail("no background refresh without an entry"));
+
+        assertEquals("fresh", swrCache.get("7:0", () -> "fresh"));
+    }
+
+    @Test
+    void get_shouldKeepServingFromProcessMemoryWhileRedisIsDown() {
+        doThrow(new RedisConnectionFailureException("down")).when(remote).get(any());
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("budgets-1", cache.get("7:0", () -> "budgets-" + loads.incrementAndGet()));
+        assertEquals("budgets-1", cache.get("7:0", () -> "budgets-" + loads.incrementAndGet()));
+
+        assertTrue(circuitBreaker.isOpen());
+        verify(remote, times(1)).get("7:0");
+        verify(remote, never()).put(any(), any());
+    }
+
+    @Test
+    void evict_shouldReachRedisOnceTheCircuitCloses() {
+        doThrow(new RedisConnectionFailureException("down")).when(remote).evict("7:0");
+        remote.put("7:0", "budgets");
+
+        cache.evict("7:0");
+        assertNotNull(remote.get("7:0"));
+
+        doCallRealMethod().when(remote).evict("7:0");
+        circuitBreaker.recordSuccess();
+
+        verify(remote, timeout(1000).times(2)).evict("7:0");
+        assertNull(remote.get("7:0"));
+    }
+
+    @Test
+    void get_shouldNeverTouchRedisWhenItIsSwitchedOff() {
+        RedisCircuitBreaker switchedOff = new RedisCircuitBreaker(false, 1, Duration.ofMinutes(1), meterRegistry);
+        TwoLevelCache localOnly = new TwoLevelCache("budget", Caffeine.newBuilder().build(), remote,
+                CacheTtl.of(Duration.ofMinutes(30)), new CacheInvalidationBus(redisTemplate, switchedOff), loadLock,
+                meterRegistry, Duration.ofSeconds(2), 1.0, Runnable::run, prefetchTracker, switchedOff);
+
+        assertEquals("budgets", localOnly.get("7:0", () -> "budgets"));
+        assertEquals("budgets", localOnly.get("7:0", () -> fail("loader should not run for a cached entry")));
+        localOnly.evict("7:0");
+
+        verifyNoInteractions(remote, redisTemplate);
+    }
+
+    @Test
+    void get_shouldCountPrefetchedEntryAsUsedOnFirstRead() {
+        prefetchTracker.prefetch(() -> cache.get("7:0", () -> "budgets"));
+
+        assertEquals("budgets", cache.get("7:0", () -> fail("loader should not run for a prefetched entry")));
+        assertEquals("budgets", cache.get("7:0", () -> fail("loader should not run for a prefetched entry")));
+
+        assertEquals(1, prefetchEntries("warmed"));
+        assertEquals(1, prefetchEntries("used"));
+    }
+
+    @Test
+    void get_shouldNotCountEntryWarmedBeforePrefetch() {
+        cache.get("7:0", () -> "budgets");
+        prefetchTracker.prefetch(() -> cache.get("7:0", () -> fail("prefetch should skip a warm entry")));
+        cache.get("7:0", () -> "budgets");
+
+        assertEquals(0, prefetchEntries("warmed"));
+        assertEquals(0, prefetchEntries("used"));
+    }
+
+    private double prefetchEntries(String result) {
+        return meterRegistry.get("cache.prefetch.entries").tag("result", result).counter().count();
+    }
+
+    private TwoLevelCache staleWhileRevalidateCache(java.util.concurrent.Executor refreshExecutor) {
+        return new TwoLevelCache("budget", Caffeine.newBuilder().build(), remote,
+                CacheTtl.staleWhileRevalidate(Duration.ofMinutes(5), Duration.ofMinutes(15)), invalidationBus,
+                loadLock, meterRegistry, Duration.ofSeconds(2), 0.0, refreshExecutor, prefetchTracker, circuitBreaker);
+    }
+
+    // Written six minutes ago, so one minute past the soft TTL and well inside the hard one.
+    private CacheEnvelope staleEnvelope(Object value) {
+        return new CacheEnvelope(value, 10, System.currentTimeMillis() + Duration.ofMinutes(9).toMillis());
+    }
+
+    private double coalesced(String scope) {
+        return meterRegistry.get("cache.two_level.coalesced")
+                .tag("cache", "budget").tag("scope", scope)
+                .counter().count();
+    }
+
+    private double count(String level, String result) {
+        return meterRegistry.get("cache.two_level.requests")
+                .tag("cache", "budget").tag("level", level).tag("result", result)
+                .counter().count();
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage(CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.service.core.UserActivityServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserActivityServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 4, 15, 12, 0);
+
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private EntityManager entityManager;
+    @Mock private Query query;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserActivityServiceImpl userActivityService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        userActivityService = new UserActivityServiceImpl(transactionManager, meterRegistry, 2);
+
+        Field field = UserActivityServiceImpl.class.getDeclaredField("entityManager");
+        field.setAccessible(true);
+        field.set(userActivityService, entityManager);
+
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+    }
+
+    @Test
+    void flush_shouldCoalesceRepeatedLoginsIntoLatest() {
+        userActivityService.recordLogin(1, NOW);
+        userActivityService.recordLogin(1, NOW.plusMinutes(1));
+        userActivityService.recordLogin(1, NOW.minusMinutes(1));
+
+        int written = userActivityService.flush();
+
+        assertEquals(1, written);
+        verify(entityManager, times(1)).createNativeQuery(argThat(sql -> sql.contains("FROM (VALUES") && sql.contains(":loggedInAt0")));
+        verify(query).setParameter("userId0", 1);
+        verify(query).setParameter("loggedInAt0", NOW.plusMinutes(1));
+        verify(query).executeUpdate();
+        assertEquals(0, userActivityService.flush());
+    }
+
+    @Test
+    void flush_shouldSplitIntoBatches() {
+        userActivityService.recordLogin(1, NOW);
+        userActivityService.recordLogin(2, NOW);
+        userActivityService.recordLogin(3, NOW);
+
+        assertEquals(3, userActivityService.flush());
+
+        verify(query, times(2)).executeUpdate();
+        assertEquals(2, meterRegistry.get("users.activity.flush.size").summary().count());
+        assertEquals(1, meterRegistry.get("users.activity.flush.lag").timer().count());
+    }
+
+    @Test
+    void flush_shouldKeepLoginsWhenUpdateFails() {
+        userActivityService.recordLogin(1, NOW);
+        when(query.executeUpdate()).thenThrow(new RuntimeException("database down")).thenReturn(1);
+
+        assertEquals(0, userActivityService.flush());
+        assertEquals(1.0, meterRegistry.get("users.activity.pending").gauge().value());
+
+        assertEquals(1, userActivityService.flush());
+        assertEquals(0.0, meterRegistry.get("users.activity.pending").gauge().value());
+    }
+}
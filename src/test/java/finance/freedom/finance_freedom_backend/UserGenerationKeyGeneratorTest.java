@@ -0,0 +1,92 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.cache.CacheInvalidationBus;
+import finance.freedom.finance_freedom_backend.cache.RedisCircuitBreaker;
+import finance.freedom.finance_freedom_backend.cache.UserGenerationKeyGenerator;
+import finance.freedom.finance_freedom_backend.enums.TransactionType;
+import finance.freedom.finance_freedom_backend.interfaces.cache.ICacheGenerationService;
+import finance.freedom.finance_freedom_backend.model.core.User;
+import finance.freedom.finance_freedom_backend.service.cache.CacheGenerationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserGenerationKeyGeneratorTest {
+
+    @Mock private ICacheGenerationService cacheGenerationService;
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private CacheInvalidationBus invalidationBus;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        user = new User();
+        user.setUserId(7);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void generate_shouldStampUserGenerationAheadOfParams() throws Exception {
+        when(cacheGenerationService.currentGeneration(7)).thenReturn(3L);
+        UserGenerationKeyGenerator keyGenerator = new UserGenerationKeyGenerator(cacheGenerationService);
+        Method method = Object.class.getMethod("toString");
+
+        Object key = keyGenerator.generate(this, method, user, TransactionType.EXPENSE, LocalDateTime.of(2024, 1, 1, 0, 0), null);
+
+        assertEquals("7:3:EXPENSE:2024-01-01T00:00:null", key);
+    }
+
+    @Test
+    void bumpGeneration_shouldStayLocalWhileRedisIsDownAndReplayOnRecovery() {
+        RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(true, 1, Duration.ZERO, new SimpleMeterRegistry());
+        CacheGenerationServiceImpl generationService = new CacheGenerationServiceImpl(redisTemplate, invalidationBus,
+                circuitBreaker, Duration.ofSeconds(30));
+        when(valueOperations.get("cache-gen:7")).thenReturn("4");
+        when(valueOperations.increment("cache-gen:7")).thenThrow(new RedisConnectionFailureException("down"));
+        assertEquals(4, generationService.currentGeneration(7));
+
+        generationService.bumpGeneration(7);
+
+        assertEquals(5, generationService.currentGeneration(7));
+        when(valueOperations.increment("cache-gen:7", 5)).thenReturn(9L);
+        circuitBreaker.recordSuccess();
+
+        verify(valueOperations, timeout(1000)).increment("cache-gen:7", 5);
+        verify(invalidationBus, timeout(1000)).publish("cache-gen", "7:9");
+        assertEquals(9, generationService.currentGeneration(7));
+    }
+
+    @Test
+    void bumpGeneration_shouldWaitForCommitInsideTransaction() {
+        CacheGenerationServiceImpl generationService = new CacheGenerationServiceImpl(redisTemplate, invalidationBus,
+                new RedisCircuitBreaker(true, 5, Duration.ofSeconds(10), new SimpleMeterRegistry()), Duration.ofSeconds(30));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            generationService.bumpGeneration(7);
+            verify(valueOperations, never()).increment(anyString());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(valueOperations).increment("cache-gen:7");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
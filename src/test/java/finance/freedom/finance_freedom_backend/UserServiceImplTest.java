@@ -18,6 +18,9 @@ import finance.freedom.finance_freedom_backend.service.core.UserServiceImpl;
 import finance.freedom.finance_freedom_backend.service.jwt.JWTServiceImpl;
 import finance.freedom.finance_freedom_backend.service.security.CustomUserDetailsService;
 import finance.freedom.finance_freedom_backend.util.AuthorizationUtils;
+import finance.freedom.finance_freedom_backend.util.TokenHashUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
@@ -93,16 +96,18 @@ class UserServiceImplTest {
         RefreshTokenRequest request = new RefreshTokenRequest(tokenStr);
 
         RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setRefreshToken(tokenStr);
+        refreshToken.setTokenHash(TokenHashUtil.sha256(tokenStr));
         refreshToken.setUser(user);
 
         CustomUserDetails userDetails = new CustomUserDetails(user);
 
-        when(jwtService.extractUserName(tokenStr)).thenReturn(user.getEmail());
+        Claims claims = Jwts.claims().subject(user.getEmail()).build();
+
+        when(jwtService.extractAllClaims(tokenStr)).thenReturn(claims);
         when(refreshTokenRepository.findByRefreshToken(tokenStr)).thenReturn(refreshToken);
         when(customUserDetailsService.loadUserByUsername(user.getEmail())).thenReturn(userDetails);
 
-        when(jwtService.validateToken(tokenStr, userDetails)).thenReturn(true);
+        when(jwtService.validateClaims(claims, userDetails)).thenReturn(true);
 
         when(jwtService.generateToken(eq(user), any(Duration.class)))
                 .thenReturn(new JWT("new-access-token", new Date(System.currentTimeMillis() + 900_000)));
@@ -124,7 +129,7 @@ class UserServiceImplTest {
     @Test
     void logout_shouldDeleteRefreshToken() {
         RefreshToken token = new RefreshToken();
-        token.setRefreshToken("token123");
+        token.setTokenHash(TokenHashUtil.sha256("token123"));
         token.setUser(user);
 
         when(refreshTokenRepository.findByRefreshToken("token123")).thenReturn(token);
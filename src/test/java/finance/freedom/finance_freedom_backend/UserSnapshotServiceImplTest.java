@@ -0,0 +1,87 @@
+package finance.freedom.finance_freedom_backend;
+
+import finance.freedom.finance_freedom_backend.cache.CacheInvalidationBus;
+import finance.freedom.finance_freedom_backend.model.core.User;
+import finance.freedom.finance_freedom_backend.model.security.CustomUserDetails;
+import finance.freedom.finance_freedom_backend.repository.UserRepository;
+import finance.freedom.finance_freedom_backend.service.security.UserSnapshotServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserSnapshotServiceImplTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private CacheInvalidationBus invalidationBus;
+
+    private UserSnapshotServiceImpl userSnapshotService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        user = new User();
+        user.setUserId(1);
+        user.setEmail("test@example.com");
+        user.setFullName("Test User");
+        user.setPasswordHash("hash");
+
+        when(userRepository.findByUserId(1)).thenReturn(user);
+
+        userSnapshotService = new UserSnapshotServiceImpl(userRepository, invalidationBus, new SimpleMeterRegistry(),
+                Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    void loadUser_shouldQueryDatabaseOnlyOnce() {
+        CustomUserDetails first = userSnapshotService.loadUser(1);
+        CustomUserDetails second = userSnapshotService.loadUser(1);
+
+        assertEquals("test@example.com", first.getUsername());
+        assertEquals(user.getSecurityStamp(), second.getUser().getSecurityStamp());
+        assertNotSame(first.getUser(), second.getUser());
+        assertNull(first.getPassword());
+        verify(userRepository, times(1)).findByUserId(1);
+    }
+
+    @Test
+    void loadUser_shouldReturnNullForDeletedUser() {
+        assertNull(userSnapshotService.loadUser(2));
+    }
+
+    @Test
+    void evict_shouldReloadAndNotifyOtherNodes() {
+        userSnapshotService.loadUser(1);
+
+        userSnapshotService.evict(1);
+        userSnapshotService.loadUser(1);
+
+        verify(invalidationBus).publish(UserSnapshotServiceImpl.CACHE_NAME, "1");
+        verify(userRepository, times(2)).findByUserId(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void invalidationFromOtherNode_shouldDropLocalCopy() {
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(invalidationBus).register(eq(UserSnapshotServiceImpl.CACHE_NAME), handler.capture());
+        userSnapshotService.loadUser(1);
+
+        handler.getValue().accept("1");
+        userSnapshotService.loadUser(1);
+
+        verify(userRepository, times(2)).findByUserId(1);
+    }
+}